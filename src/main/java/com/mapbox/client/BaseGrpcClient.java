@@ -1,15 +1,28 @@
 package com.mapbox.client;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.protobuf.Message;
 import com.mapbox.core.assertions.GrpcResponse;
 import com.mapbox.core.channel.GrpcChannelFactory;
+import com.mapbox.core.coalescing.RequestCoalescer;
 import com.mapbox.core.config.ConfigManager;
+import com.mapbox.core.interceptors.HeaderCaptureInterceptor;
+import com.mapbox.core.interceptors.MetricsInterceptor;
+import com.mapbox.core.interceptors.RetryInterceptor;
+import com.mapbox.core.retry.HedgingExecutor;
+import com.mapbox.core.tracing.CallTimeline;
 import io.grpc.*;
 import io.grpc.stub.AbstractStub;
 import lombok.extern.slf4j.Slf4j;
 
 import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Base gRPC client providing common functionality
@@ -20,12 +33,20 @@ public abstract class BaseGrpcClient<T extends AbstractStub<T>> {
 
     protected final GrpcChannelFactory channelFactory;
     protected final ManagedChannel channel;
+    private final boolean timelineEnabled = ConfigManager.getConfig().timelineEnabled();
     protected T blockingStub;
     protected T asyncStub;
 
     protected BaseGrpcClient(GrpcChannelFactory channelFactory) {
+        this(channelFactory, channelFactory.defaultTarget());
+    }
+
+    /**
+     * Create client bound to a specific {@code host:port} or {@code unix:///path} target
+     */
+    protected BaseGrpcClient(GrpcChannelFactory channelFactory, String target) {
         this.channelFactory = channelFactory;
-        this.channel = channelFactory.getChannel();
+        this.channel = channelFactory.getChannel(target);
         initializeStubs();
     }
 
@@ -42,26 +63,199 @@ public abstract class BaseGrpcClient<T extends AbstractStub<T>> {
             ReqT request,
             UnaryCallable<ReqT, RespT> callable) {
 
-        long startTime = System.currentTimeMillis();
+        CallTimeline timeline = newTimeline();
+        RetryInterceptor.Attempts attempts = new RetryInterceptor.Attempts();
+        HeaderCaptureInterceptor.Capture capture = new HeaderCaptureInterceptor.Capture();
+        long startNanos = System.nanoTime();
+        Context context = callContext(timeline, attempts, capture);
+        Context previous = context.attach();
         try {
             RespT response = callable.call(request);
-            long latency = System.currentTimeMillis() - startTime;
 
             return GrpcResponse.<RespT>builder()
                     .response(response)
                     .status(Status.OK)
-                    .latencyMs(latency)
+                    .headers(capture.getHeaders())
+                    .trailers(capture.getTrailers())
+                    .latencyMs(elapsedMs(startNanos))
+                    .attempts(attempts.get())
+                    .timeline(timeline)
                     .build();
 
         } catch (StatusRuntimeException e) {
-            long latency = System.currentTimeMillis() - startTime;
-            log.error("gRPC call failed with status: {}", e.getStatus(), e);
+            return failedResponse(e.getStatus(), startNanos, timeline, attempts, capture, e);
+        } finally {
+            context.detach(previous);
+        }
+    }
 
-            return GrpcResponse.<RespT>builder()
-                    .status(e.getStatus())
-                    .latencyMs(latency)
-                    .build();
+    /**
+     * New per-call timeline, or null when timeline tracing is disabled
+     */
+    private CallTimeline newTimeline() {
+        return timelineEnabled ? new CallTimeline() : null;
+    }
+
+    /**
+     * Context carrying the timeline, attempt counter and header capture, so interceptors
+     * of calls started within it can find them
+     */
+    private static Context callContext(
+            CallTimeline timeline, RetryInterceptor.Attempts attempts, HeaderCaptureInterceptor.Capture capture) {
+        Context context = Context.current().withValues(
+                RetryInterceptor.ATTEMPTS_KEY, attempts, HeaderCaptureInterceptor.CAPTURE_KEY, capture);
+        return timeline != null ? context.withValue(CallTimeline.CONTEXT_KEY, timeline) : context;
+    }
+
+    /**
+     * Execute unary call asynchronously on a future stub
+     * The returned future never completes exceptionally: failures are reported as a
+     * non-OK status, exactly like {@link #executeUnaryCall}. Cancelling the returned
+     * future cancels the underlying RPC.
+     */
+    protected <ReqT extends Message, RespT extends Message> CompletableFuture<GrpcResponse<RespT>> executeUnaryAsync(
+            ReqT request,
+            FutureCallable<ReqT, RespT> callable) {
+
+        CallTimeline timeline = newTimeline();
+        RetryInterceptor.Attempts attempts = new RetryInterceptor.Attempts();
+        HeaderCaptureInterceptor.Capture capture = new HeaderCaptureInterceptor.Capture();
+        long startNanos = System.nanoTime();
+        CompletableFuture<GrpcResponse<RespT>> result = new CompletableFuture<>();
+
+        ListenableFuture<RespT> future;
+        Context context = callContext(timeline, attempts, capture);
+        Context previous = context.attach();
+        try {
+            future = callable.call(request);
+        } catch (StatusRuntimeException e) {
+            result.complete(failedResponse(e.getStatus(), startNanos, timeline, attempts, capture, e));
+            return result;
+        } finally {
+            context.detach(previous);
+        }
+
+        Futures.addCallback(future, new FutureCallback<RespT>() {
+            @Override
+            public void onSuccess(RespT response) {
+                result.complete(GrpcResponse.<RespT>builder()
+                        .response(response)
+                        .status(Status.OK)
+                        .headers(capture.getHeaders())
+                        .trailers(capture.getTrailers())
+                        .latencyMs(elapsedMs(startNanos))
+                        .attempts(attempts.get())
+                        .timeline(timeline)
+                        .build());
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                result.complete(failedResponse(Status.fromThrowable(t), startNanos, timeline, attempts, capture, t));
+            }
+        }, MoreExecutors.directExecutor());
+
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                future.cancel(true);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Whether calls to a method are hedged ({@code hedging.methods})
+     */
+    protected boolean isHedged(MethodDescriptor<?, ?> method) {
+        return channelFactory.getHedgingExecutor().isHedged(method.getFullMethodName());
+    }
+
+    /**
+     * Execute unary call asynchronously, hedging it when the method is configured for hedging
+     * Only use for idempotent methods. The hedge delay is fixed or follows the method's
+     * recent latency percentile from {@link MetricsInterceptor}; otherwise behaves exactly
+     * like {@link #executeUnaryAsync}.
+     */
+    protected <ReqT extends Message, RespT extends Message> CompletableFuture<GrpcResponse<RespT>> executeUnaryHedged(
+            ReqT request,
+            FutureCallable<ReqT, RespT> callable,
+            MethodDescriptor<ReqT, RespT> method) {
+
+        if (!isHedged(method)) {
+            return executeUnaryAsync(request, callable);
         }
+
+        String methodName = method.getFullMethodName();
+        HedgingExecutor hedging = channelFactory.getHedgingExecutor();
+        MetricsInterceptor metrics = channelFactory.getMetricsInterceptor();
+        long delayNanos = hedging.hedgeDelayNanos(metrics != null ? metrics.getMetrics(methodName) : null);
+
+        return hedging.execute(methodName, delayNanos, () -> executeUnaryAsync(request, callable));
+    }
+
+    /**
+     * Whether identical concurrent calls to a method share one RPC ({@code coalescing.methods})
+     */
+    protected boolean isCoalesced(MethodDescriptor<?, ?> method) {
+        return channelFactory.getRequestCoalescer().isCoalesced(method.getFullMethodName());
+    }
+
+    /**
+     * Execute unary call asynchronously, sharing the in-flight RPC of an identical
+     * concurrent request when the method is configured for coalescing
+     * The shared RPC itself is hedged when the method is also configured for hedging.
+     */
+    protected <ReqT extends Message, RespT extends Message> CompletableFuture<GrpcResponse<RespT>> executeUnaryCoalesced(
+            ReqT request,
+            FutureCallable<ReqT, RespT> callable,
+            MethodDescriptor<ReqT, RespT> method) {
+
+        if (!isCoalesced(method)) {
+            return executeUnaryHedged(request, callable, method);
+        }
+
+        RequestCoalescer coalescer = channelFactory.getRequestCoalescer();
+        return coalescer.execute(method.getFullMethodName(), request,
+                () -> executeUnaryHedged(request, callable, method));
+    }
+
+    private <RespT extends Message> GrpcResponse<RespT> failedResponse(
+            Status status, long startNanos, CallTimeline timeline, RetryInterceptor.Attempts attempts,
+            HeaderCaptureInterceptor.Capture capture, Throwable cause) {
+        if (status.getCode() != Status.Code.CANCELLED) {
+            log.error("gRPC call failed with status: {}", status, cause);
+        }
+        return GrpcResponse.<RespT>builder()
+                .status(status)
+                .headers(capture.getHeaders())
+                .trailers(capture.getTrailers())
+                .latencyMs(elapsedMs(startNanos))
+                .attempts(attempts.get())
+                .timeline(timeline)
+                .build();
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Pipeline a sequence of unary calls with at most {@code maxInFlight} outstanding
+     * Blocks the calling thread (which only dispatches) until every result has been
+     * delivered to the sink, then returns aggregate latency statistics.
+     */
+    protected <ReqT extends Message, RespT extends Message> BatchSummary executeBatch(
+            Iterator<ReqT> requests,
+            int maxInFlight,
+            BatchExecutor.Order order,
+            FutureCallable<ReqT, RespT> callable,
+            Consumer<BatchResult<ReqT, RespT>> sink) {
+
+        BatchSummary summary = new BatchExecutor<ReqT, RespT>(maxInFlight, order)
+                .run(requests, request -> executeUnaryAsync(request, callable), sink);
+        log.info("{}", summary);
+        return summary;
     }
 
     /**
@@ -98,5 +292,13 @@ public abstract class BaseGrpcClient<T extends AbstractStub<T>> {
     protected interface UnaryCallable<ReqT extends Message, RespT extends Message> {
         RespT call(ReqT request) throws StatusRuntimeException;
     }
+
+    /**
+     * Functional interface for unary calls on future stubs
+     */
+    @FunctionalInterface
+    protected interface FutureCallable<ReqT extends Message, RespT extends Message> {
+        ListenableFuture<RespT> call(ReqT request) throws StatusRuntimeException;
+    }
 }
 
@@ -0,0 +1,184 @@
+package com.mapbox.client;
+
+import com.google.protobuf.Message;
+import com.mapbox.core.assertions.GrpcResponse;
+import io.grpc.Status;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Pipelines a sequence of unary requests with at most {@code maxInFlight} calls outstanding
+ * The calling thread only dispatches; calls complete on gRPC threads. Results are handed to
+ * the sink one at a time (the sink need not be thread-safe), either as they complete or in
+ * request order. The sink runs on gRPC callback threads and should be quick.
+ * In request order a permit is only returned once its result has been emitted,
+ * so a slow call holds back the window and buffered results never exceed {@code maxInFlight}.
+ */
+@Slf4j
+public class BatchExecutor<ReqT extends Message, RespT extends Message> {
+
+    /**
+     * Order in which results are delivered to the sink
+     */
+    public enum Order {
+        COMPLETION,
+        REQUEST
+    }
+
+    private final int maxInFlight;
+    private final Order order;
+    private final Semaphore permits;
+    private final Object lock = new Object();
+
+    // Guarded by lock
+    private final Map<Long, BatchResult<ReqT, RespT>> reorderBuffer = new HashMap<>();
+    private final Map<Status.Code, Long> statusCounts = new EnumMap<>(Status.Code.class);
+    private long nextToEmit;
+    private long[] latencies = new long[1024];
+    private int completed;
+    private long succeeded;
+
+    public BatchExecutor(int maxInFlight, Order order) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        this.maxInFlight = maxInFlight;
+        this.order = order;
+        this.permits = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Dispatch every request and block until all results have been delivered
+     * If the calling thread is interrupted, dispatching stops and the summary covers the
+     * calls completed so far.
+     */
+    public BatchSummary run(Iterator<ReqT> requests,
+                            Function<ReqT, CompletableFuture<GrpcResponse<RespT>>> call,
+                            Consumer<BatchResult<ReqT, RespT>> sink) {
+
+        long start = System.nanoTime();
+        long dispatched = 0;
+        boolean interrupted = false;
+
+        try {
+            while (requests.hasNext()) {
+                permits.acquire();
+                ReqT request = requests.next();
+                long index = dispatched++;
+                long callStart = System.nanoTime();
+                CompletableFuture<GrpcResponse<RespT>> future;
+                try {
+                    future = call.apply(request);
+                } catch (RuntimeException e) {
+                    future = CompletableFuture.failedFuture(e);
+                }
+                future.whenComplete((response, error) -> {
+                    GrpcResponse<RespT> result = response != null
+                            ? response
+                            : GrpcResponse.failure(Status.fromThrowable(error), 0);
+                    onComplete(new BatchResult<>(index, request, result), System.nanoTime() - callStart, sink);
+                });
+            }
+            // Every permit comes back once its result has been emitted
+            permits.acquire(maxInFlight);
+            permits.release(maxInFlight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            interrupted = true;
+            log.warn("Batch interrupted after dispatching {} requests", dispatched);
+        }
+
+        return summarize(System.nanoTime() - start, interrupted);
+    }
+
+    private void onComplete(BatchResult<ReqT, RespT> result, long latencyNanos,
+                            Consumer<BatchResult<ReqT, RespT>> sink) {
+        int released = 0;
+        synchronized (lock) {
+            record(result, latencyNanos);
+
+            if (order == Order.COMPLETION) {
+                emit(result, sink);
+                released = 1;
+            } else {
+                reorderBuffer.put(result.getIndex(), result);
+                BatchResult<ReqT, RespT> next;
+                while ((next = reorderBuffer.remove(nextToEmit)) != null) {
+                    emit(next, sink);
+                    nextToEmit++;
+                    released++;
+                }
+            }
+        }
+        permits.release(released);
+    }
+
+    private void record(BatchResult<ReqT, RespT> result, long latencyNanos) {
+        if (completed == latencies.length) {
+            latencies = Arrays.copyOf(latencies, completed * 2);
+        }
+        latencies[completed++] = TimeUnit.NANOSECONDS.toMicros(latencyNanos);
+
+        Status status = result.getResponse().getStatus();
+        Status.Code code = status != null ? status.getCode() : Status.Code.UNKNOWN;
+        statusCounts.merge(code, 1L, Long::sum);
+        if (code == Status.Code.OK) {
+            succeeded++;
+        }
+    }
+
+    private void emit(BatchResult<ReqT, RespT> result, Consumer<BatchResult<ReqT, RespT>> sink) {
+        try {
+            sink.accept(result);
+        } catch (RuntimeException e) {
+            log.warn("Batch result sink failed for request #{}", result.getIndex(), e);
+        }
+    }
+
+    private BatchSummary summarize(long wallNanos, boolean interrupted) {
+        synchronized (lock) {
+            long[] sorted = Arrays.copyOf(latencies, completed);
+            Arrays.sort(sorted);
+            long sum = 0;
+            for (long latency : sorted) {
+                sum += latency;
+            }
+            long wallMs = TimeUnit.NANOSECONDS.toMillis(wallNanos);
+
+            return BatchSummary.builder()
+                    .total(completed)
+                    .succeeded(succeeded)
+                    .failed(completed - succeeded)
+                    .wallTimeMs(wallMs)
+                    .throughputPerSecond(wallNanos > 0 ? completed / (wallNanos / 1_000_000_000.0) : 0)
+                    .minMicros(completed > 0 ? sorted[0] : 0)
+                    .avgMicros(completed > 0 ? (double) sum / completed : 0)
+                    .p50Micros(percentile(sorted, 0.50))
+                    .p90Micros(percentile(sorted, 0.90))
+                    .p99Micros(percentile(sorted, 0.99))
+                    .p999Micros(percentile(sorted, 0.999))
+                    .maxMicros(completed > 0 ? sorted[completed - 1] : 0)
+                    .statusCounts(new EnumMap<>(statusCounts))
+                    .interrupted(interrupted)
+                    .build();
+        }
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(sorted.length * quantile) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,16 @@
+package com.mapbox.client;
+
+import com.google.protobuf.Message;
+import com.mapbox.core.assertions.GrpcResponse;
+import lombok.Value;
+
+/**
+ * One completed call of a batch
+ * {@code index} is the request's zero-based position in the input sequence
+ */
+@Value
+public class BatchResult<ReqT extends Message, RespT extends Message> {
+    long index;
+    ReqT request;
+    GrpcResponse<RespT> response;
+}
@@ -0,0 +1,39 @@
+package com.mapbox.client;
+
+import io.grpc.Status;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Aggregate outcome and latency statistics of a batch run
+ * Latencies are measured per call from dispatch to completion, in microseconds
+ */
+@Value
+@Builder
+public class BatchSummary {
+    long total;
+    long succeeded;
+    long failed;
+    long wallTimeMs;
+    double throughputPerSecond;
+    long minMicros;
+    double avgMicros;
+    long p50Micros;
+    long p90Micros;
+    long p99Micros;
+    long p999Micros;
+    long maxMicros;
+    Map<Status.Code, Long> statusCounts;
+    boolean interrupted;
+
+    @Override
+    public String toString() {
+        return String.format("Batch: %d calls (%d ok, %d failed) in %dms, %.1f req/s, latency us min/avg/p50/p90/p99/p99.9/max: "
+                        + "%d/%.0f/%d/%d/%d/%d/%d, statuses: %s%s",
+                total, succeeded, failed, wallTimeMs, throughputPerSecond,
+                minMicros, avgMicros, p50Micros, p90Micros, p99Micros, p999Micros, maxMicros,
+                statusCounts, interrupted ? " (interrupted)" : "");
+    }
+}
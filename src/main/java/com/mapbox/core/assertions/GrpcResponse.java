@@ -1,6 +1,7 @@
 package com.mapbox.core.assertions;
 
 import com.google.protobuf.Message;
+import com.mapbox.core.tracing.CallTimeline;
 import io.grpc.Metadata;
 import io.grpc.Status;
 import lombok.AllArgsConstructor;
@@ -19,6 +20,9 @@ public class GrpcResponse<T extends Message> {
     private Metadata headers;
     private Metadata trailers;
     private long latencyMs;
+    /** RPC attempts sent, including retries; 0 when answered from the client cache */
+    private int attempts;
+    private CallTimeline timeline;
 
     public static <T extends Message> GrpcResponse<T> success(T response, long latencyMs) {
         return GrpcResponse.<T>builder()
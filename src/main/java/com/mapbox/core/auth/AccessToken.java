@@ -0,0 +1,26 @@
+package com.mapbox.core.auth;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Access token with its expiry, null when it never expires
+ */
+@Value(staticConstructor = "of")
+public class AccessToken {
+    String value;
+    Instant expiresAt;
+
+    /**
+     * Token that never expires and so is never refreshed
+     */
+    public static AccessToken of(String value) {
+        return of(value, null);
+    }
+
+    @Override
+    public String toString() {
+        return "AccessToken(expiresAt=" + expiresAt + ")";
+    }
+}
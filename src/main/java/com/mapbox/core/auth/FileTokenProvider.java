@@ -0,0 +1,60 @@
+package com.mapbox.core.auth;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Reads tokens from a file that an external process keeps rotated
+ * Each fetch re-reads the file. A bare line is the default token; {@code subject token}
+ * lines give virtual users their own tokens and fall back to the default. Blank lines
+ * and lines starting with {@code #} are ignored. Tokens are treated as valid for a fixed
+ * lifetime after being read.
+ */
+public class FileTokenProvider implements TokenProvider {
+
+    private final Path file;
+    private final Duration lifetime;
+
+    public FileTokenProvider(Path file, Duration lifetime) {
+        this.file = file;
+        this.lifetime = lifetime;
+    }
+
+    @Override
+    public AccessToken fetch(String subject) throws IOException {
+        String fallback = null;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int separator = indexOfWhitespace(line);
+            if (separator < 0) {
+                fallback = line;
+            } else if (line.substring(0, separator).equals(subject)) {
+                return token(line.substring(separator + 1).trim());
+            }
+        }
+        if (fallback == null) {
+            throw new IOException("No token for '" + subject + "' in " + file);
+        }
+        return token(fallback);
+    }
+
+    private static int indexOfWhitespace(String line) {
+        for (int i = 0; i < line.length(); i++) {
+            if (Character.isWhitespace(line.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private AccessToken token(String value) {
+        return AccessToken.of(value, Instant.now().plus(lifetime));
+    }
+}
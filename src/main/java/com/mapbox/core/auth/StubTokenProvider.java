@@ -0,0 +1,33 @@
+package com.mapbox.core.auth;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mints local tokens for runs against servers that do not verify them
+ * Tokens read {@code stub-<subject>-<n>} and expire after a fixed lifetime, so refresh
+ * and rotation are exercised exactly as with a real identity provider.
+ */
+public class StubTokenProvider implements TokenProvider {
+
+    private final Duration lifetime;
+    private final AtomicLong issued = new AtomicLong();
+
+    public StubTokenProvider(Duration lifetime) {
+        this.lifetime = lifetime;
+    }
+
+    @Override
+    public AccessToken fetch(String subject) {
+        String name = subject.isEmpty() ? "default" : subject;
+        return AccessToken.of("stub-" + name + "-" + issued.incrementAndGet(), Instant.now().plus(lifetime));
+    }
+
+    /**
+     * Tokens minted so far
+     */
+    public long getIssuedCount() {
+        return issued.get();
+    }
+}
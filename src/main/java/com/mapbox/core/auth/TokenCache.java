@@ -0,0 +1,229 @@
+package com.mapbox.core.auth;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pre-encoded {@code Authorization} header values per subject, refreshed ahead of expiry
+ * The first call of a subject fetches its token synchronously; after that a background
+ * thread replaces the token {@code refreshAhead} before it expires, so calls only read a
+ * volatile field. A failed refresh keeps the current token and is retried until the token
+ * actually expires, at which point the next call fetches synchronously. A subject nobody
+ * asked for since its last refresh is dropped instead of refreshed, so the cache only holds
+ * subjects still in use; tokens that never expire get the same check every
+ * {@code refreshAhead}.
+ */
+@Slf4j
+public class TokenCache implements AutoCloseable {
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("auth-refresh-%d").setDaemon(true).build());
+
+    private final TokenProvider provider;
+    private final long refreshAheadMs;
+    private final long retryDelayMs;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong failedRefreshes = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * @param refreshAhead how long before expiry a token is replaced
+     * @param retryDelay wait before retrying a failed background refresh
+     */
+    public TokenCache(TokenProvider provider, Duration refreshAhead, Duration retryDelay) {
+        this.provider = provider;
+        this.refreshAheadMs = refreshAhead.toMillis();
+        this.retryDelayMs = Math.max(1, retryDelay.toMillis());
+    }
+
+    /**
+     * Header value for a subject, e.g. {@code Bearer <token>}
+     *
+     * @throws UncheckedIOException when no valid token is cached and fetching one fails
+     */
+    public String headerValue(String subject) {
+        Entry entry = entries.get(subject);
+        if (entry == null) {
+            entry = entries.computeIfAbsent(subject, Entry::new);
+        }
+        if (!entry.read) {
+            entry.read = true;
+        }
+        Cached cached = entry.current;
+        if (cached == null || cached.isExpired()) {
+            cached = entry.loadIfStale();
+        }
+        return cached.header;
+    }
+
+    /**
+     * Subjects with a cached token
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Tokens fetched, synchronously or in the background
+     */
+    public long getRefreshCount() {
+        return refreshes.get();
+    }
+
+    public long getFailedRefreshCount() {
+        return failedRefreshes.get();
+    }
+
+    /**
+     * Subjects dropped because nobody asked for them since their last refresh
+     */
+    public long getEvictedCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Stop background refreshes; cached tokens stay usable until they expire
+     */
+    @Override
+    public void close() {
+        closed = true;
+        entries.values().forEach(Entry::cancel);
+    }
+
+    private Cached fetch(String subject) throws IOException {
+        AccessToken token = provider.fetch(subject);
+        refreshes.incrementAndGet();
+        return new Cached("Bearer " + token.getValue(), token.getExpiresAt());
+    }
+
+    /**
+     * Token of one subject and its pending background refresh
+     */
+    private final class Entry implements Runnable {
+        private final String subject;
+        private volatile Cached current;
+        private volatile boolean read;
+        private ScheduledFuture<?> next;
+
+        Entry(String subject) {
+            this.subject = subject;
+        }
+
+        /**
+         * Fetch on the calling thread unless another caller already has
+         */
+        synchronized Cached loadIfStale() {
+            Cached cached = current;
+            if (cached != null && !cached.isExpired()) {
+                return cached;
+            }
+            try {
+                cached = fetch(subject);
+            } catch (IOException e) {
+                failedRefreshes.incrementAndGet();
+                throw new UncheckedIOException("Cannot fetch token for '" + subject + "'", e);
+            }
+            current = cached;
+            schedule(cached.refreshDelayMs(refreshAheadMs));
+            return cached;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (!read) {
+                    next = null;
+                    if (entries.remove(subject, this)) {
+                        evictions.incrementAndGet();
+                    }
+                    return;
+                }
+                Cached cached = current;
+                if (cached != null && cached.refreshDelayMs(refreshAheadMs) < 0) {
+                    read = false;
+                    schedule(-1);
+                    return;
+                }
+            }
+            try {
+                Cached cached = fetch(subject);
+                synchronized (this) {
+                    read = false;
+                    current = cached;
+                    schedule(cached.refreshDelayMs(refreshAheadMs));
+                }
+            } catch (IOException | RuntimeException e) {
+                failedRefreshes.incrementAndGet();
+                log.warn("Token refresh for '{}' failed, retrying in {} ms", subject, retryDelayMs, e);
+                synchronized (this) {
+                    schedule(retryDelayMs);
+                }
+            }
+        }
+
+        /**
+         * Replace the pending refresh; negative delay means the token never expires, so only
+         * the idle check is scheduled
+         */
+        private void schedule(long delayMs) {
+            if (next != null) {
+                next.cancel(false);
+                next = null;
+            }
+            if (!closed) {
+                next = scheduler.schedule(this, delayMs >= 0 ? delayMs : Math.max(refreshAheadMs, retryDelayMs),
+                        TimeUnit.MILLISECONDS);
+            }
+        }
+
+        synchronized void cancel() {
+            if (next != null) {
+                next.cancel(false);
+                next = null;
+            }
+        }
+    }
+
+    /**
+     * Encoded header value with its expiry on the monotonic clock
+     */
+    private static final class Cached {
+        final String header;
+        final long expiresAtNanos;
+        final boolean expires;
+
+        Cached(String header, Instant expiresAt) {
+            this.header = header;
+            this.expires = expiresAt != null;
+            this.expiresAtNanos = expires
+                    ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(expiresAt.toEpochMilli() - System.currentTimeMillis())
+                    : 0;
+        }
+
+        boolean isExpired() {
+            return expires && expiresAtNanos - System.nanoTime() <= 0;
+        }
+
+        long refreshDelayMs(long refreshAheadMs) {
+            if (!expires) {
+                return -1;
+            }
+            // Tokens shorter-lived than the refresh-ahead window are refreshed halfway through
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(expiresAtNanos - System.nanoTime());
+            return Math.max(0, Math.max(remainingMs / 2, remainingMs - refreshAheadMs));
+        }
+    }
+}
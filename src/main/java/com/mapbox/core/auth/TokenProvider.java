@@ -0,0 +1,19 @@
+package com.mapbox.core.auth;
+
+import java.io.IOException;
+
+/**
+ * Source of access tokens, fetched off the call path by {@link TokenCache}
+ * A subject names the virtual user a token is for, so a multi-tenant load test can run
+ * every virtual user under its own credentials through one channel.
+ */
+public interface TokenProvider {
+
+    /** Subject of calls made outside any virtual user */
+    String DEFAULT_SUBJECT = "";
+
+    /**
+     * Fetch a fresh token; may block, never called on the call path once a token is cached
+     */
+    AccessToken fetch(String subject) throws IOException;
+}
@@ -0,0 +1,129 @@
+package com.mapbox.core.cache;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.MessageLite;
+import lombok.Value;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Size-bounded LRU cache of unary responses keyed by method name and request wire bytes
+ * Each entry is weighed by its serialized request plus response size; least recently
+ * used entries are evicted while the total exceeds {@code maxBytes}. Entries expire
+ * after their own TTL.
+ */
+public class ResponseCache {
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final long maxBytes;
+
+    // Guarded by this
+    private long totalBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long rejections;
+
+    public ResponseCache(long maxBytes) {
+        this.maxBytes = Math.max(0, maxBytes);
+    }
+
+    /**
+     * Cached response for a request, or null when absent or expired
+     */
+    public synchronized MessageLite get(String fullMethodName, ByteString requestBytes) {
+        Key key = new Key(fullMethodName, requestBytes);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAtNanos - System.nanoTime() <= 0) {
+            entries.remove(key);
+            totalBytes -= entry.weight;
+            expirations++;
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.response;
+    }
+
+    /**
+     * Store a response for {@code ttlNanos}; entries larger than the whole cache are rejected
+     */
+    public synchronized void put(String fullMethodName, ByteString requestBytes, MessageLite response, long ttlNanos) {
+        long weight = (long) requestBytes.size() + response.getSerializedSize();
+        if (ttlNanos <= 0 || weight > maxBytes) {
+            rejections++;
+            return;
+        }
+
+        Key key = new Key(fullMethodName, requestBytes);
+        Entry previous = entries.put(key, new Entry(response, weight, System.nanoTime() + ttlNanos));
+        if (previous != null) {
+            totalBytes -= previous.weight;
+        }
+        totalBytes += weight;
+
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Entry evicted = eldest.next().getValue();
+            eldest.remove();
+            totalBytes -= evicted.weight;
+            evictions++;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(entries.size(), totalBytes, maxBytes, hits, misses, evictions, expirations, rejections);
+    }
+
+    @Value
+    private static class Key {
+        String method;
+        ByteString requestBytes;
+    }
+
+    @Value
+    private static class Entry {
+        MessageLite response;
+        long weight;
+        long expiresAtNanos;
+    }
+
+    /**
+     * Snapshot of cache occupancy and counters
+     */
+    @Value
+    public static class Stats {
+        int entries;
+        long bytes;
+        long maxBytes;
+        long hits;
+        long misses;
+        long evictions;
+        long expirations;
+        long rejections;
+
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups > 0 ? (double) hits / lookups * 100 : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d entries (%d/%d bytes), %d hits, %d misses (%.1f%% hit rate), "
+                            + "%d evictions, %d expirations, %d rejected",
+                    entries, bytes, maxBytes, hits, misses, getHitRate(), evictions, expirations, rejections);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.mapbox.core.channel;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Pool of striped channels keyed by {@link ChannelProfile}
+ * Keeps entries in LRU order, evicts the least recently used idle channel when
+ * the profile limit is reached, and evicts channels that stayed idle too long.
+ * A channel is idle only when nothing holds a lease on it and no call is in flight,
+ * so a long-lived client never has its channel shut down underneath it.
+ */
+@Slf4j
+public class ChannelPool {
+
+    private final LinkedHashMap<ChannelProfile, Entry> channels =
+            new LinkedHashMap<>(16, 0.75f, true);
+
+    private int maxProfiles;
+    private long idleEvictionNanos;
+
+    private long hits;
+    private long misses;
+    private long lruEvictions;
+    private long idleEvictions;
+
+    public ChannelPool(int maxProfiles, long idleEvictionSeconds) {
+        configure(maxProfiles, idleEvictionSeconds);
+    }
+
+    /**
+     * Update eviction limits; {@code idleEvictionSeconds <= 0} disables idle eviction
+     */
+    public synchronized void configure(int maxProfiles, long idleEvictionSeconds) {
+        this.maxProfiles = Math.max(1, maxProfiles);
+        this.idleEvictionNanos = idleEvictionSeconds > 0 ? TimeUnit.SECONDS.toNanos(idleEvictionSeconds) : 0;
+    }
+
+    /**
+     * Get the pooled channel for a profile, creating it if absent
+     * The channel may be evicted once idle; hold a lease with {@link #acquire} to keep it.
+     */
+    public StripedChannel getOrCreate(ChannelProfile profile, Function<ChannelProfile, StripedChannel> factory) {
+        return lookup(profile, factory, false);
+    }
+
+    /**
+     * Get or create the pooled channel for a profile and take a lease on it
+     * The channel is not evicted until every lease has been {@link #release released}.
+     */
+    public StripedChannel acquire(ChannelProfile profile, Function<ChannelProfile, StripedChannel> factory) {
+        return lookup(profile, factory, true);
+    }
+
+    /**
+     * Give back a lease taken with {@link #acquire}; the idle timer restarts from now
+     */
+    public synchronized void release(ChannelProfile profile, StripedChannel channel) {
+        Entry entry = channels.get(profile);
+        if (entry != null && entry.channel == channel && entry.leases > 0) {
+            entry.leases--;
+            channel.markUsed();
+        }
+    }
+
+    private StripedChannel lookup(ChannelProfile profile, Function<ChannelProfile, StripedChannel> factory,
+                                  boolean lease) {
+        List<StripedChannel> evicted = new ArrayList<>();
+        Entry entry;
+
+        synchronized (this) {
+            entry = channels.get(profile);
+            if (entry != null && !entry.channel.isShutdown()) {
+                hits++;
+                entry.channel.markUsed();
+            } else {
+                misses++;
+                evictIdle(evicted);
+                evictLeastRecentlyUsed(evicted);
+
+                entry = new Entry(factory.apply(profile));
+                channels.put(profile, entry);
+            }
+            if (lease) {
+                entry.leases++;
+            }
+        }
+
+        evicted.forEach(ChannelPool::shutdownGracefully);
+        return entry.channel;
+    }
+
+    /**
+     * Get the pooled channel for a profile without creating it
+     */
+    public synchronized StripedChannel get(ChannelProfile profile) {
+        Entry entry = channels.get(profile);
+        return entry != null ? entry.channel : null;
+    }
+
+    /**
+     * Remove a profile's channel from the pool regardless of leases; the caller owns its shutdown
+     */
+    public synchronized StripedChannel remove(ChannelProfile profile) {
+        Entry entry = channels.remove(profile);
+        return entry != null ? entry.channel : null;
+    }
+
+    /**
+     * Remove a profile's channel from the pool if nothing leases it any more; the caller owns its shutdown
+     * Calls already in flight on it may still finish after a graceful shutdown.
+     *
+     * @return whether the channel was removed
+     */
+    public synchronized boolean removeIfUnleased(ChannelProfile profile, StripedChannel channel) {
+        Entry entry = channels.get(profile);
+        if (entry == null || entry.channel != channel || entry.leases > 0) {
+            return false;
+        }
+        channels.remove(profile);
+        return true;
+    }
+
+    /**
+     * Remove and return every pooled channel regardless of leases; the caller owns their shutdown
+     * Only for process teardown: other clients may still hold leases on these channels.
+     */
+    public synchronized List<StripedChannel> drain() {
+        List<StripedChannel> drained = new ArrayList<>();
+        channels.values().forEach(entry -> drained.add(entry.channel));
+        channels.clear();
+        return drained;
+    }
+
+    /**
+     * Snapshot of profile to channel mappings, least recently used first
+     */
+    public synchronized Map<ChannelProfile, StripedChannel> snapshot() {
+        Map<ChannelProfile, StripedChannel> snapshot = new LinkedHashMap<>();
+        channels.forEach((profile, entry) -> snapshot.put(profile, entry.channel));
+        return snapshot;
+    }
+
+    /**
+     * Evict unleased channels that have had no calls in flight for longer than the idle limit
+     */
+    public void evictIdle() {
+        List<StripedChannel> evicted = new ArrayList<>();
+        synchronized (this) {
+            evictIdle(evicted);
+        }
+        evicted.forEach(ChannelPool::shutdownGracefully);
+    }
+
+    private void evictIdle(List<StripedChannel> evicted) {
+        if (idleEvictionNanos == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        Iterator<Map.Entry<ChannelProfile, Entry>> it = channels.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<ChannelProfile, Entry> entry = it.next();
+            StripedChannel channel = entry.getValue().channel;
+            if (entry.getValue().isIdle() && now - channel.getLastUsedNanos() > idleEvictionNanos) {
+                log.info("Evicting idle gRPC channel {}", entry.getKey());
+                it.remove();
+                evicted.add(channel);
+                idleEvictions++;
+            }
+        }
+    }
+
+    private void evictLeastRecentlyUsed(List<StripedChannel> evicted) {
+        if (channels.size() < maxProfiles) {
+            return;
+        }
+        // Iteration order is least recently used first; skip leased channels and those with calls in flight
+        Iterator<Map.Entry<ChannelProfile, Entry>> it = channels.entrySet().iterator();
+        while (it.hasNext() && channels.size() >= maxProfiles) {
+            Map.Entry<ChannelProfile, Entry> entry = it.next();
+            if (entry.getValue().isIdle()) {
+                log.info("Evicting least recently used gRPC channel {}", entry.getKey());
+                it.remove();
+                evicted.add(entry.getValue().channel);
+                lruEvictions++;
+            }
+        }
+        if (channels.size() >= maxProfiles) {
+            log.warn("Channel pool over capacity ({} profiles, limit {}): all channels leased or busy",
+                    channels.size(), maxProfiles);
+        }
+    }
+
+    /**
+     * Pool-level statistics
+     */
+    public synchronized Stats getStats() {
+        int inFlight = 0;
+        int subChannels = 0;
+        int leases = 0;
+        for (Entry entry : channels.values()) {
+            inFlight += entry.channel.getTotalInFlight();
+            subChannels += entry.channel.size();
+            leases += entry.leases;
+        }
+        return new Stats(channels.size(), subChannels, inFlight, leases, hits, misses, lruEvictions, idleEvictions);
+    }
+
+    private static void shutdownGracefully(StripedChannel channel) {
+        // Calls already started are allowed to finish; new calls on the channel fail fast
+        channel.shutdown();
+    }
+
+    /**
+     * Pooled channel and the number of open leases on it; guarded by the pool
+     */
+    private static final class Entry {
+        final StripedChannel channel;
+        int leases;
+
+        Entry(StripedChannel channel) {
+            this.channel = channel;
+        }
+
+        boolean isIdle() {
+            return leases == 0 && channel.getTotalInFlight() == 0;
+        }
+    }
+
+    /**
+     * Pool statistics snapshot
+     */
+    @Value
+    public static class Stats {
+        int profiles;
+        int subChannels;
+        int inFlight;
+        int leases;
+        long hits;
+        long misses;
+        long lruEvictions;
+        long idleEvictions;
+
+        public double getHitRate() {
+            long total = hits + misses;
+            return total > 0 ? (double) hits / total * 100 : 0;
+        }
+    }
+}
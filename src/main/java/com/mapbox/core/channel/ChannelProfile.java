@@ -0,0 +1,36 @@
+package com.mapbox.core.channel;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Everything that shapes a pooled channel's connections
+ * Profiles are plain values: factories with equal settings share one pooled channel,
+ * while TLS and transport settings never leak between configurations. Interceptors are
+ * not part of the profile; each factory runs its own chain over the shared connections
+ * through a {@link LeasedChannel}.
+ */
+@Value
+@Builder
+public class ChannelProfile {
+    String target;
+    boolean tlsEnabled;
+    int maxInboundMessageSize;
+    long keepAliveTimeSeconds;
+    long keepAliveTimeoutSeconds;
+    long idleTimeoutSeconds;
+    String transport;
+    String executor;
+    int poolSize;
+    StripedChannel.SelectionStrategy selection;
+
+    @Override
+    public String toString() {
+        return target + " [tls=" + tlsEnabled
+                + ", maxInbound=" + maxInboundMessageSize
+                + ", keepAlive=" + keepAliveTimeSeconds + "s/" + keepAliveTimeoutSeconds + "s"
+                + ", transport=" + transport
+                + ", executor=" + executor
+                + ", subChannels=" + poolSize + " " + selection + "]";
+    }
+}
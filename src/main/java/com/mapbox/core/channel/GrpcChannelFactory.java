@@ -1,52 +1,280 @@
 package com.mapbox.core.channel;
 
+import com.mapbox.core.auth.FileTokenProvider;
+import com.mapbox.core.auth.StubTokenProvider;
+import com.mapbox.core.auth.TokenCache;
+import com.mapbox.core.auth.TokenProvider;
+import com.mapbox.core.coalescing.RequestCoalescer;
 import com.mapbox.core.config.ConfigManager;
 import com.mapbox.core.config.FrameworkConfig;
 import com.mapbox.core.interceptors.*;
+import com.mapbox.core.limit.GradientLimit;
+import com.mapbox.core.logging.BinaryLogWriter;
+import com.mapbox.core.retry.HedgingExecutor;
+import com.mapbox.core.retry.HedgingPolicy;
+import com.mapbox.core.retry.RetryBudget;
 import io.grpc.*;
+import io.grpc.inprocess.InProcessChannelBuilder;
 import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.shaded.io.netty.channel.unix.DomainSocketAddress;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
 
 /**
  * Enterprise-grade ManagedChannel factory with connection pooling
  * Provides thread-safe channel creation with custom interceptors and configurations
+ * Each pooled target is striped across {@code grpc.channel.pool.size} sub-channels
+ * and keyed by its transport {@link ChannelProfile}, so factories with equal settings
+ * share connections. Pooled channels carry no interceptors: every channel handed out is
+ * a {@link LeasedChannel} running this factory's chain, which keeps the pooled channel
+ * from being evicted until the lease is shut down. Shutting a factory down gives back
+ * only its own leases; a pooled channel is closed once no factory leases it.
+ * All pooled channels share one event-loop group and application executor.
  */
 @Slf4j
 public class GrpcChannelFactory {
 
-    private static final ConcurrentHashMap<String, ManagedChannel> channelPool = new ConcurrentHashMap<>();
+    private static final ChannelPool channelPool = new ChannelPool(
+            ConfigManager.getConfig().channelPoolMaxProfiles(),
+            ConfigManager.getConfig().channelPoolIdleEvictionSeconds());
+
+    private static final TransportResources transportResources = new TransportResources(
+            TransportResources.TransportMode.valueOf(ConfigManager.getConfig().transport().trim().toUpperCase()),
+            TransportResources.ExecutorMode.valueOf(ConfigManager.getConfig().executor().trim().toUpperCase()),
+            ConfigManager.getConfig().eventLoopThreads(),
+            ConfigManager.getConfig().executorThreads());
+
+    /** Target prefix selecting a Unix domain socket, e.g. {@code unix:///tmp/campaign.sock} */
+    public static final String UNIX_SCHEME = "unix://";
+
+    private static final String INPROCESS_SCHEME = "inprocess:";
+
     private final FrameworkConfig config;
     private final List<ClientInterceptor> interceptors;
+    private final HedgingExecutor hedgingExecutor;
+    private final RequestCoalescer requestCoalescer;
+    private final AtomicBoolean shutdown = new AtomicBoolean();
+    private final Set<LeasedChannel> leases = ConcurrentHashMap.newKeySet();
 
     public GrpcChannelFactory() {
         this.config = ConfigManager.getConfig();
         this.interceptors = new ArrayList<>();
+        this.hedgingExecutor = new HedgingExecutor(HedgingPolicy.builder()
+                .methods(parseMethods(config.hedgingMethods()))
+                .maxAttempts(config.hedgingMaxAttempts())
+                .delayMs(config.hedgingDelayMs())
+                .delayPercentile(config.hedgingDelayPercentile())
+                .minSamples(config.hedgingMinSamples())
+                .build());
+        this.requestCoalescer = new RequestCoalescer(parseMethods(config.coalescingMethods()));
         initializeDefaultInterceptors();
+        transportResources.acquire();
+    }
+
+    /**
+     * Parse a comma-separated list of full method names
+     */
+    private static Set<String> parseMethods(String methods) {
+        return Arrays.stream(methods.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Parse comma-separated {@code method=callsPerSecond} pairs
+     */
+    private static Map<String, Double> parseRates(String rates) {
+        Map<String, Double> parsed = new LinkedHashMap<>();
+        parseAssignments(rates, "Rate limit must be method=callsPerSecond, got: ")
+                .forEach((method, rate) -> parsed.put(method, Double.parseDouble(rate)));
+        return parsed;
+    }
+
+    /**
+     * Parse comma-separated {@code method=compressor} pairs
+     */
+    private static Map<String, String> parseCompressors(String compressors) {
+        Map<String, String> parsed = parseAssignments(compressors, "Compression must be method=compressor, got: ");
+        parsed.replaceAll((method, compressor) -> compressor.toLowerCase());
+        return parsed;
+    }
+
+    /**
+     * Split comma-separated {@code key=value} pairs at the last {@code =}, keeping their order
+     */
+    private static Map<String, String> parseAssignments(String entries, String errorPrefix) {
+        Map<String, String> parsed = new LinkedHashMap<>();
+        for (String entry : entries.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException(errorPrefix + entry.trim());
+            }
+            parsed.put(entry.substring(0, separator).trim(), entry.substring(separator + 1).trim());
+        }
+        return parsed;
     }
 
     /**
      * Initialize default interceptors for all channels
      */
     private void initializeDefaultInterceptors() {
+        // First in the list, so closest to the transport: captures what goes on the wire
+        if (config.binlogEnabled()) {
+            interceptors.add(new BinaryLogInterceptor(createBinaryLogWriter()));
+        }
+
+        if (config.timelineEnabled()) {
+            interceptors.add(new CallTimelineInterceptor());
+        }
+
+        if (config.jfrEventsEnabled()) {
+            interceptors.add(new JfrEventInterceptor());
+        }
+
         if (config.logRequestEnabled() || config.logResponseEnabled()) {
-            interceptors.add(new LoggingInterceptor());
+            interceptors.add(new LoggingInterceptor(
+                    config.logRequestEnabled(),
+                    config.logResponseEnabled(),
+                    config.logSampleEvery(),
+                    config.logSampleMaxPerSecond(),
+                    config.logPayloadMaxChars(),
+                    config.logAsyncQueueSize()));
         }
 
         if (config.authEnabled()) {
-            interceptors.add(new AuthTokenInterceptor(config.authToken()));
+            interceptors.add(createAuthInterceptor());
         }
 
         if (config.metricsEnabled()) {
             interceptors.add(new MetricsInterceptor());
         }
 
-        interceptors.add(new HeaderCaptureInterceptor());
-        interceptors.add(new RetryInterceptor(config.maxRetryAttempts(), config.retryBackoffMs()));
+        // No keys leaves GrpcResponse headers and trailers null rather than retaining full metadata
+        Set<String> captureKeys = parseMethods(config.headerCaptureKeys());
+        if (!captureKeys.isEmpty()) {
+            interceptors.add(new HeaderCaptureInterceptor(captureKeys));
+        }
+
+        // Both only adjust call options, so they sit after the fusable run rather than splitting it
+        if (config.messageSizesEnabled()) {
+            interceptors.add(new MessageSizeInterceptor());
+        }
+
+        Map<String, String> compressors = parseCompressors(config.compressionMethods());
+        if (!compressors.isEmpty()) {
+            interceptors.add(new CompressionInterceptor(compressors));
+        }
+
+        // Inside retry, so every attempt takes its own permit
+        if (config.limiterEnabled()) {
+            interceptors.add(new ConcurrencyLimitInterceptor(
+                    new GradientLimit(config.limiterInitial(), config.limiterMin(), config.limiterMax(),
+                            config.limiterRttTolerance(), config.limiterSmoothing()),
+                    config.limiterQueueSize(),
+                    config.limiterQueueTimeoutMs()));
+        }
+
+        interceptors.add(new RetryInterceptor(
+                config.maxRetryAttempts(),
+                config.retryBackoffMs(),
+                config.retryMaxBackoffMs(),
+                new RetryBudget(config.retryBudgetMaxTokens(), config.retryBudgetTokenRatio())));
+
+        // Outside retry, so a permit paces a logical call rather than each attempt
+        Map<String, Double> rates = parseRates(config.rateLimitMethods());
+        if (!rates.isEmpty()) {
+            interceptors.add(new RateLimiterInterceptor(
+                    rates,
+                    RateLimiterInterceptor.Mode.valueOf(config.rateLimitMode().trim().toUpperCase()),
+                    Duration.ofMillis(config.rateLimitTimeoutMs())));
+        }
+
+        // Last in the list, so outermost: cache hits skip every other interceptor
+        Set<String> cachedMethods = parseMethods(config.cacheMethods());
+        if (!cachedMethods.isEmpty()) {
+            interceptors.add(new ResponseCacheInterceptor(cachedMethods, config.cacheTtlMs(), config.cacheMaxBytes()));
+        }
+
+        if (config.fusedInterceptors()) {
+            fuseInterceptors();
+        }
+    }
+
+    /**
+     * Replace each run of neighbouring fusable interceptors with one {@link FusedInterceptor}
+     * Only neighbours are fused, so the order relative to every other interceptor is kept.
+     */
+    private void fuseInterceptors() {
+        List<ClientInterceptor> fused = new ArrayList<>();
+        List<FusableInterceptor> run = new ArrayList<>();
+        for (ClientInterceptor interceptor : interceptors) {
+            if (interceptor instanceof FusableInterceptor) {
+                run.add((FusableInterceptor) interceptor);
+                continue;
+            }
+            flushRun(run, fused);
+            fused.add(interceptor);
+        }
+        flushRun(run, fused);
+        interceptors.clear();
+        interceptors.addAll(fused);
+    }
+
+    private static void flushRun(List<FusableInterceptor> run, List<ClientInterceptor> target) {
+        if (run.size() > 1) {
+            target.add(new FusedInterceptor(run));
+        } else {
+            target.addAll(run);
+        }
+        run.clear();
+    }
+
+    private AuthTokenInterceptor createAuthInterceptor() {
+        Duration lifetime = Duration.ofMillis(config.authTokenLifetimeMs());
+        TokenProvider provider;
+        switch (config.authProvider().trim().toLowerCase()) {
+            case "static":
+                return new AuthTokenInterceptor(config.authToken());
+            case "file":
+                provider = new FileTokenProvider(Paths.get(config.authTokenFile()), lifetime);
+                break;
+            case "stub":
+                provider = new StubTokenProvider(lifetime);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown auth.provider: " + config.authProvider());
+        }
+        return new AuthTokenInterceptor(new TokenCache(provider,
+                Duration.ofMillis(config.authRefreshAheadMs()), Duration.ofMillis(config.authRefreshRetryMs())));
+    }
+
+    private BinaryLogWriter createBinaryLogWriter() {
+        try {
+            return new BinaryLogWriter(Paths.get(config.binlogDir()), config.binlogSegmentBytes(),
+                    config.binlogMaxSegments(), config.binlogQueueSize());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create binary log directory " + config.binlogDir(), e);
+        }
     }
 
     /**
@@ -54,47 +282,349 @@ public class GrpcChannelFactory {
      * Implements connection pooling for efficiency
      */
     public ManagedChannel getChannel(String host, int port) {
-        String channelKey = host + ":" + port;
-        return channelPool.computeIfAbsent(channelKey, key -> createChannel(host, port));
+        return getChannel(host + ":" + port);
+    }
+
+    /**
+     * Get or create a managed channel for a {@code host:port} or {@code unix:///path} target
+     * Shutting the returned channel down releases its lease; the pooled connections stay open.
+     */
+    public ManagedChannel getChannel(String target) {
+        if (shutdown.get()) {
+            throw new IllegalStateException("Channel factory has been shut down");
+        }
+        ChannelProfile profile = profileFor(target);
+        LeasedChannel lease = new LeasedChannel(channelPool, profile, channelPool.acquire(profile, this::createChannel),
+                List.copyOf(interceptors), leases::remove);
+        leases.add(lease);
+        return lease;
+    }
+
+    private StripedChannel getStripedChannel(String target) {
+        return channelPool.getOrCreate(profileFor(target), this::createChannel);
     }
 
     /**
      * Get channel using default configuration
      */
     public ManagedChannel getChannel() {
-        return getChannel(config.grpcHost(), config.grpcPort());
+        return getChannel(defaultTarget());
     }
 
     /**
-     * Create a new managed channel with all configurations
+     * Default target: {@code grpc.target} when set, otherwise {@code grpc.host:grpc.port}
      */
-    private ManagedChannel createChannel(String host, int port) {
-        log.info("Creating new gRPC channel for {}:{}", host, port);
+    public String defaultTarget() {
+        String target = config.grpcTarget();
+        return target != null && !target.isBlank() ? target.trim() : config.grpcHost() + ":" + config.grpcPort();
+    }
 
-        NettyChannelBuilder channelBuilder = NettyChannelBuilder
-                .forAddress(host, port)
+    /**
+     * Build the pool key describing the connections this factory uses for a target
+     */
+    public ChannelProfile profileFor(String host, int port) {
+        return profileFor(host + ":" + port);
+    }
+
+    /**
+     * Build the pool key describing the connections this factory uses for a target
+     * In in-process mode every target maps to the configured in-process server name
+     */
+    public ChannelProfile profileFor(String target) {
+        return ChannelProfile.builder()
+                .target(isInProcess() ? INPROCESS_SCHEME + config.inProcessName() : target)
+                .tlsEnabled(config.tlsEnabled())
                 .maxInboundMessageSize(config.maxInboundMessageSize())
-                .keepAliveTime(config.keepAliveTimeSeconds(), TimeUnit.SECONDS)
-                .keepAliveTimeout(config.keepAliveTimeoutSeconds(), TimeUnit.SECONDS)
-                .idleTimeout(config.idleTimeoutSeconds(), TimeUnit.SECONDS)
+                .keepAliveTimeSeconds(config.keepAliveTimeSeconds())
+                .keepAliveTimeoutSeconds(config.keepAliveTimeoutSeconds())
+                .idleTimeoutSeconds(config.idleTimeoutSeconds())
+                .transport(transportResources.getTransportMode().name())
+                .executor(transportResources.getExecutorMode().name())
+                .poolSize(Math.max(1, config.channelPoolSize()))
+                .selection(StripedChannel.SelectionStrategy.valueOf(
+                        config.channelPoolSelection().trim().toUpperCase()))
+                .build();
+    }
+
+    /**
+     * Create a striped channel of {@code grpc.channel.pool.size} sub-channels
+     */
+    private StripedChannel createChannel(ChannelProfile profile) {
+        log.info("Creating new gRPC channel for {}", profile);
+
+        List<ManagedChannel> subChannels = new ArrayList<>(profile.getPoolSize());
+        for (int i = 0; i < profile.getPoolSize(); i++) {
+            subChannels.add(createSubChannel(profile));
+        }
+        return new StripedChannel(subChannels, profile.getSelection());
+    }
+
+    /**
+     * Create a single managed channel (one HTTP/2 connection) with all configurations
+     */
+    private ManagedChannel createSubChannel(ChannelProfile profile) {
+        if (isInProcess()) {
+            return createInProcessChannel(profile);
+        }
+
+        String target = profile.getTarget();
+        NettyChannelBuilder channelBuilder;
+        if (target.startsWith(UNIX_SCHEME)) {
+            // Unix domain socket: epoll event loops and domain-socket channel type
+            channelBuilder = NettyChannelBuilder.forAddress(
+                    new DomainSocketAddress(target.substring(UNIX_SCHEME.length())));
+            transportResources.applyDomainSocket(channelBuilder);
+        } else {
+            int separator = target.lastIndexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Target must be host:port or unix:///path, got: " + target);
+            }
+            channelBuilder = NettyChannelBuilder.forAddress(
+                    target.substring(0, separator), Integer.parseInt(target.substring(separator + 1)));
+            transportResources.apply(channelBuilder);
+        }
+
+        channelBuilder
+                .maxInboundMessageSize(profile.getMaxInboundMessageSize())
+                .keepAliveTime(profile.getKeepAliveTimeSeconds(), TimeUnit.SECONDS)
+                .keepAliveTimeout(profile.getKeepAliveTimeoutSeconds(), TimeUnit.SECONDS)
+                .idleTimeout(profile.getIdleTimeoutSeconds(), TimeUnit.SECONDS)
                 .keepAliveWithoutCalls(true);
 
         // TLS configuration
-        if (config.tlsEnabled()) {
+        if (profile.isTlsEnabled()) {
             // In production, configure TLS with proper certificates
             channelBuilder.useTransportSecurity();
         } else {
             channelBuilder.usePlaintext();
         }
 
-        // Add all interceptors
-        channelBuilder.intercept(interceptors);
+        return channelBuilder.build();
+    }
+
+    /**
+     * Connect every sub-channel of the default target ahead of the first measured call
+     */
+    public WarmUpReport warmUp(long timeout, TimeUnit unit) {
+        return warmUp(defaultTarget(), timeout, unit, 0, List.of());
+    }
+
+    /**
+     * Connect every sub-channel of a host:port target, then fire throwaway RPCs
+     *
+     * @see #warmUp(String, long, TimeUnit, int, List)
+     */
+    public WarmUpReport warmUp(String host, int port, long timeout, TimeUnit unit,
+                               int rpcsPerMethod, List<BooleanSupplier> warmUpCalls) {
+        return warmUp(host + ":" + port, timeout, unit, rpcsPerMethod, warmUpCalls);
+    }
+
+    /**
+     * Connect every sub-channel of a target, then fire throwaway RPCs
+     * Each sub-channel is driven to READY with {@code getState(true)}; a sub-channel that
+     * reaches TRANSIENT_FAILURE or is still connecting at the timeout counts as not ready.
+     * If any sub-channel is READY, each warm-up call runs {@code rpcsPerMethod} times.
+     * Warm-up calls are recorded like any other; use {@link #resetMeasurements()} before
+     * measuring if they must not count.
+     *
+     * @param warmUpCalls one throwaway invocation per RPC method; returns false (or throws) on failure
+     */
+    public WarmUpReport warmUp(String target, long timeout, TimeUnit unit,
+                               int rpcsPerMethod, List<BooleanSupplier> warmUpCalls) {
+        long start = System.nanoTime();
+        StripedChannel channel = getStripedChannel(target);
+        List<ManagedChannel> subChannels = channel.getSubChannels();
+
+        CountDownLatch settled = new CountDownLatch(subChannels.size());
+        AtomicInteger ready = new AtomicInteger();
+        subChannels.forEach(subChannel -> awaitConnection(subChannel, settled, ready));
+
+        try {
+            if (!settled.await(timeout, unit)) {
+                log.warn("Channel warm-up timed out after {} {}", timeout, unit);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long connectNanos = System.nanoTime() - start;
+
+        int rpcs = 0;
+        int failures = 0;
+        if (ready.get() > 0) {
+            for (BooleanSupplier call : warmUpCalls) {
+                for (int i = 0; i < rpcsPerMethod; i++) {
+                    rpcs++;
+                    try {
+                        if (!call.getAsBoolean()) {
+                            failures++;
+                        }
+                    } catch (RuntimeException e) {
+                        failures++;
+                    }
+                }
+            }
+        }
+
+        WarmUpReport report = WarmUpReport.builder()
+                .target(profileFor(target).getTarget())
+                .subChannels(subChannels.size())
+                .readySubChannels(ready.get())
+                .connectMs(TimeUnit.NANOSECONDS.toMillis(connectNanos))
+                .warmUpRpcs(rpcs)
+                .failedWarmUpRpcs(failures)
+                .totalMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                .build();
+        log.info("{}", report);
+        return report;
+    }
+
+    /**
+     * Forget recorded call metrics and cached responses, e.g. once warm-up traffic has run
+     * This also empties the latency window that hedging delays derive from, so only
+     * call it before measurement starts, never while other calls are in progress.
+     */
+    public void resetMeasurements() {
+        MetricsInterceptor metrics = getMetricsInterceptor();
+        if (metrics != null) {
+            metrics.resetMetrics();
+        }
+        ResponseCacheInterceptor cache = getResponseCacheInterceptor();
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Follow a sub-channel's state transitions until it is READY or has failed to connect
+     */
+    private void awaitConnection(ManagedChannel subChannel, CountDownLatch settled, AtomicInteger ready) {
+        ConnectivityState state = subChannel.getState(true);
+        switch (state) {
+            case READY:
+                ready.incrementAndGet();
+                settled.countDown();
+                break;
+            case TRANSIENT_FAILURE:
+            case SHUTDOWN:
+                settled.countDown();
+                break;
+            default:
+                subChannel.notifyWhenStateChanged(state, () -> awaitConnection(subChannel, settled, ready));
+        }
+    }
+
+    /**
+     * First installed interceptor of a type, looking inside fused groups
+     */
+    private <T extends ClientInterceptor> T findInterceptor(Class<T> type) {
+        for (ClientInterceptor interceptor : interceptors) {
+            if (type.isInstance(interceptor)) {
+                return type.cast(interceptor);
+            }
+            if (interceptor instanceof FusedInterceptor) {
+                for (ClientInterceptor part : ((FusedInterceptor) interceptor).getParts()) {
+                    if (type.isInstance(part)) {
+                        return type.cast(part);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Binary log interceptor installed by this factory, or null when capture is disabled
+     */
+    public BinaryLogInterceptor getBinaryLogInterceptor() {
+        return findInterceptor(BinaryLogInterceptor.class);
+    }
+
+    /**
+     * Logging interceptor installed by this factory, or null when payload logging is disabled
+     */
+    public LoggingInterceptor getLoggingInterceptor() {
+        return findInterceptor(LoggingInterceptor.class);
+    }
+
+    /**
+     * Metrics interceptor installed by this factory, or null when metrics are disabled
+     */
+    public MetricsInterceptor getMetricsInterceptor() {
+        return findInterceptor(MetricsInterceptor.class);
+    }
+
+    /**
+     * Message size interceptor installed by this factory, or null when size metrics are disabled
+     */
+    public MessageSizeInterceptor getMessageSizeInterceptor() {
+        return findInterceptor(MessageSizeInterceptor.class);
+    }
+
+    /**
+     * Compression interceptor installed by this factory, or null when no method is compressed
+     */
+    public CompressionInterceptor getCompressionInterceptor() {
+        return findInterceptor(CompressionInterceptor.class);
+    }
+
+    /**
+     * Concurrency limit interceptor installed by this factory, or null when the limiter is disabled
+     */
+    public ConcurrencyLimitInterceptor getConcurrencyLimitInterceptor() {
+        return findInterceptor(ConcurrencyLimitInterceptor.class);
+    }
+
+    /**
+     * Rate limiter interceptor installed by this factory, or null when no method is rate limited
+     */
+    public RateLimiterInterceptor getRateLimiterInterceptor() {
+        return findInterceptor(RateLimiterInterceptor.class);
+    }
+
+    /**
+     * Response cache interceptor installed by this factory, or null when caching is disabled
+     */
+    public ResponseCacheInterceptor getResponseCacheInterceptor() {
+        return findInterceptor(ResponseCacheInterceptor.class);
+    }
+
+    /**
+     * Hedging executor for clients created on this factory's channels
+     */
+    public HedgingExecutor getHedgingExecutor() {
+        return hedgingExecutor;
+    }
+
+    /**
+     * Single-flight coalescer shared by clients created on this factory's channels
+     */
+    public RequestCoalescer getRequestCoalescer() {
+        return requestCoalescer;
+    }
+
+    /**
+     * Create an in-process channel; calls skip sockets, HTTP/2 framing and Netty entirely
+     */
+    private ManagedChannel createInProcessChannel(ChannelProfile profile) {
+        InProcessChannelBuilder channelBuilder = InProcessChannelBuilder
+                .forName(config.inProcessName())
+                .maxInboundMessageSize(profile.getMaxInboundMessageSize());
+
+        transportResources.applyExecutor(channelBuilder);
 
         return channelBuilder.build();
     }
 
+    /**
+     * Whether pooled channels use the in-process transport ({@code grpc.transport=inprocess})
+     */
+    public static boolean isInProcess() {
+        return transportResources.getTransportMode() == TransportResources.TransportMode.INPROCESS;
+    }
+
     /**
      * Add custom interceptor to the factory
+     * Channels obtained afterwards run it; channels already handed out keep their chain
      */
     public GrpcChannelFactory withInterceptor(ClientInterceptor interceptor) {
         this.interceptors.add(interceptor);
@@ -102,46 +632,155 @@ public class GrpcChannelFactory {
     }
 
     /**
-     * Shutdown all channels in the pool
+     * Shutdown this factory's channels and close its interceptors' background work
+     * Only this factory's leases are given back; a pooled channel is closed once no other
+     * factory leases it, and the shared event-loop group and executor are only released
+     * by the last live factory. Use {@link #shutdownPool()} for full process teardown.
      */
     public void shutdownAll() {
+        if (!shutdown.compareAndSet(false, true)) {
+            return;
+        }
         log.info("Shutting down all gRPC channels");
-        channelPool.values().forEach(channel -> {
-            try {
-                channel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
-            } catch (InterruptedException e) {
-                log.error("Error shutting down channel", e);
-                Thread.currentThread().interrupt();
-                channel.shutdownNow();
-            }
-        });
-        channelPool.clear();
+        releaseLeases(new ArrayList<>(leases));
+        releaseTransportResources();
+
+        BinaryLogInterceptor binaryLog = getBinaryLogInterceptor();
+        if (binaryLog != null) {
+            binaryLog.getWriter().close();
+        }
+        AuthTokenInterceptor auth = findInterceptor(AuthTokenInterceptor.class);
+        if (auth != null && auth.getTokenCache() != null) {
+            auth.getTokenCache().close();
+        }
+        LoggingInterceptor logging = getLoggingInterceptor();
+        if (logging != null) {
+            logging.close();
+        }
     }
 
     /**
      * Shutdown specific channel
      */
     public void shutdownChannel(String host, int port) {
-        String channelKey = host + ":" + port;
-        ManagedChannel channel = channelPool.remove(channelKey);
-        if (channel != null) {
+        shutdownChannel(host + ":" + port);
+    }
+
+    /**
+     * Shutdown this factory's channels for a target
+     * The pooled channel is closed too once no other factory leases it.
+     */
+    public void shutdownChannel(String target) {
+        ChannelProfile profile = profileFor(target);
+        releaseLeases(leases.stream()
+                .filter(lease -> lease.getProfile().equals(profile))
+                .collect(Collectors.toList()));
+        StripedChannel pooled = channelPool.get(profile);
+        if (pooled != null && channelPool.removeIfUnleased(profile, pooled)) {
+            awaitShutdown(pooled);
+        }
+    }
+
+    /**
+     * Give leases back, wait for their calls to finish and close pooled channels left unleased
+     */
+    private void releaseLeases(List<LeasedChannel> released) {
+        released.forEach(LeasedChannel::shutdown);
+        for (LeasedChannel lease : released) {
             try {
-                channel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+                if (!lease.awaitTermination(5, TimeUnit.SECONDS)) {
+                    log.warn("{} calls still active on {} after 5s", lease.getActiveCalls(), lease.getProfile().getTarget());
+                    lease.shutdownNow();
+                }
             } catch (InterruptedException e) {
-                log.error("Error shutting down channel {}", channelKey, e);
                 Thread.currentThread().interrupt();
-                channel.shutdownNow();
+                lease.shutdownNow();
             }
         }
+        released.stream()
+                .filter(lease -> channelPool.removeIfUnleased(lease.getProfile(), lease.getPooledChannel()))
+                .map(LeasedChannel::getPooledChannel)
+                .distinct()
+                .forEach(GrpcChannelFactory::awaitShutdown);
+    }
+
+    /**
+     * Drop this factory's claim on the transport resources
+     * The last live factory first closes the channels still pooled, which nobody leases any
+     * more but which run on those resources.
+     */
+    private static void releaseTransportResources() {
+        synchronized (transportResources) {
+            if (transportResources.getUsers() <= 1) {
+                channelPool.drain().forEach(GrpcChannelFactory::awaitShutdown);
+            }
+            transportResources.release();
+        }
+    }
+
+    /**
+     * Close every pooled channel and the shared transport resources, whatever still leases them
+     * For process teardown only, once no factory's channels are used any more.
+     */
+    public static void shutdownPool() {
+        synchronized (transportResources) {
+            channelPool.drain().forEach(GrpcChannelFactory::awaitShutdown);
+            transportResources.releaseAll();
+        }
+    }
+
+    private static void awaitShutdown(StripedChannel channel) {
+        try {
+            channel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            log.error("Error shutting down channel", e);
+            Thread.currentThread().interrupt();
+            channel.shutdownNow();
+        }
     }
 
     /**
      * Get channel state
      */
     public ConnectivityState getChannelState(String host, int port) {
-        String channelKey = host + ":" + port;
-        ManagedChannel channel = channelPool.get(channelKey);
+        return getChannelState(host + ":" + port);
+    }
+
+    /**
+     * Get channel state by target
+     */
+    public ConnectivityState getChannelState(String target) {
+        StripedChannel channel = channelPool.get(profileFor(target));
         return channel != null ? channel.getState(false) : ConnectivityState.SHUTDOWN;
     }
-}
 
+    /**
+     * Get per-sub-channel in-flight call counts for the given target
+     * Returns an empty array if no channel has been created yet
+     */
+    public int[] getInFlightCounts(String host, int port) {
+        StripedChannel channel = channelPool.get(profileFor(host + ":" + port));
+        return channel != null ? channel.getInFlightCounts() : new int[0];
+    }
+
+    /**
+     * Snapshot of every pooled channel by profile, shared by all factories
+     */
+    public static Map<ChannelProfile, StripedChannel> getPooledChannels() {
+        return channelPool.snapshot();
+    }
+
+    /**
+     * Get pool-level statistics shared by all factories
+     */
+    public static ChannelPool.Stats getPoolStats() {
+        return channelPool.getStats();
+    }
+
+    /**
+     * Evict pooled channels that have been idle longer than the configured limit
+     */
+    public static void evictIdleChannels() {
+        channelPool.evictIdle();
+    }
+}
@@ -0,0 +1,202 @@
+package com.mapbox.core.channel;
+
+import com.mapbox.core.interceptors.FailedCall;
+import io.grpc.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * A client's lease on a pooled channel, running one factory's interceptors over it
+ * The pool never evicts a channel while a lease on it is open. Shutting the lease down
+ * gives it back instead of closing the shared connections, which other leases may still
+ * be using: calls already started on the lease finish normally, new ones fail with
+ * UNAVAILABLE, and the lease terminates once its own calls have closed.
+ */
+public class LeasedChannel extends ManagedChannel {
+
+    private final ChannelPool pool;
+    private final ChannelProfile profile;
+    private final StripedChannel channel;
+    private final Channel intercepted;
+    private final Consumer<LeasedChannel> onRelease;
+    private final AtomicBoolean released = new AtomicBoolean();
+    // Calls started on this lease and not yet closed; awaitTermination waits on this
+    private final Set<ClientCall<?, ?>> active = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param interceptors chain in {@link ClientInterceptors#intercept(Channel, List)} order, the last runs first
+     * @param onRelease told once, after the lease has been given back to the pool
+     */
+    LeasedChannel(ChannelPool pool, ChannelProfile profile, StripedChannel channel,
+                  List<ClientInterceptor> interceptors, Consumer<LeasedChannel> onRelease) {
+        this.pool = pool;
+        this.profile = profile;
+        this.channel = channel;
+        this.intercepted = ClientInterceptors.intercept(channel, interceptors);
+        this.onRelease = onRelease;
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(
+            MethodDescriptor<ReqT, RespT> method,
+            CallOptions callOptions) {
+        if (released.get()) {
+            return shutdownCall(callOptions);
+        }
+        return new LeasedCall<>(intercepted.newCall(method, callOptions), callOptions);
+    }
+
+    @Override
+    public String authority() {
+        return channel.authority();
+    }
+
+    /**
+     * Pooled channel this lease holds
+     */
+    public StripedChannel getPooledChannel() {
+        return channel;
+    }
+
+    public ChannelProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Calls started on this lease that have not closed yet
+     */
+    public int getActiveCalls() {
+        return active.size();
+    }
+
+    @Override
+    public ManagedChannel shutdown() {
+        if (released.compareAndSet(false, true)) {
+            pool.release(profile, channel);
+            onRelease.accept(this);
+            signalIfTerminated();
+        }
+        return this;
+    }
+
+    /**
+     * Give the lease back and cancel this lease's calls; other leases' calls are untouched
+     */
+    @Override
+    public ManagedChannel shutdownNow() {
+        shutdown();
+        active.forEach(call -> call.cancel("Channel lease shut down", null));
+        return this;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return released.get() || channel.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return (released.get() && active.isEmpty()) || channel.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (this) {
+            while (!isTerminated()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public ConnectivityState getState(boolean requestConnection) {
+        return channel.getState(requestConnection);
+    }
+
+    @Override
+    public void notifyWhenStateChanged(ConnectivityState source, Runnable callback) {
+        channel.notifyWhenStateChanged(source, callback);
+    }
+
+    @Override
+    public void resetConnectBackoff() {
+        channel.resetConnectBackoff();
+    }
+
+    @Override
+    public void enterIdle() {
+        channel.enterIdle();
+    }
+
+    private static <ReqT, RespT> ClientCall<ReqT, RespT> shutdownCall(CallOptions callOptions) {
+        return new FailedCall<>(Status.UNAVAILABLE.withDescription("Channel lease has been shut down"), callOptions);
+    }
+
+    private void signalIfTerminated() {
+        if (isTerminated()) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Call counted as active on its lease from start until close
+     */
+    private final class LeasedCall<ReqT, RespT> extends ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT> {
+
+        private final CallOptions callOptions;
+        private volatile ClientCall<ReqT, RespT> failed;
+
+        LeasedCall(ClientCall<ReqT, RespT> delegate, CallOptions callOptions) {
+            super(delegate);
+            this.callOptions = callOptions;
+        }
+
+        @Override
+        protected ClientCall<ReqT, RespT> delegate() {
+            return failed != null ? failed : super.delegate();
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            active.add(this);
+            // Shut down between newCall and start: fail like a call created afterwards
+            if (released.get()) {
+                active.remove(this);
+                signalIfTerminated();
+                failed = shutdownCall(callOptions);
+                failed.start(responseListener, headers);
+                return;
+            }
+            try {
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<RespT>(responseListener) {
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        try {
+                            super.onClose(status, trailers);
+                        } finally {
+                            active.remove(LeasedCall.this);
+                            signalIfTerminated();
+                        }
+                    }
+                }, headers);
+            } catch (RuntimeException e) {
+                active.remove(this);
+                signalIfTerminated();
+                throw e;
+            }
+        }
+    }
+}
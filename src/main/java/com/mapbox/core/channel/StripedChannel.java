@@ -0,0 +1,299 @@
+package com.mapbox.core.channel;
+
+import io.grpc.*;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * ManagedChannel backed by N independent sub-channels to the same target
+ * Spreads calls across several HTTP/2 connections so a single connection's
+ * MAX_CONCURRENT_STREAMS limit and event loop do not cap throughput
+ */
+@Slf4j
+public class StripedChannel extends ManagedChannel {
+
+    /**
+     * Strategy used to pick a sub-channel for each new call
+     */
+    public enum SelectionStrategy {
+        ROUND_ROBIN,
+        LEAST_IN_FLIGHT
+    }
+
+    private final List<ManagedChannel> subChannels;
+    private final SelectionStrategy strategy;
+    private final AtomicIntegerArray inFlight;
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private volatile long lastUsedNanos = System.nanoTime();
+
+    public StripedChannel(List<ManagedChannel> subChannels, SelectionStrategy strategy) {
+        if (subChannels.isEmpty()) {
+            throw new IllegalArgumentException("At least one sub-channel is required");
+        }
+        this.subChannels = Collections.unmodifiableList(new ArrayList<>(subChannels));
+        this.strategy = strategy;
+        this.inFlight = new AtomicIntegerArray(subChannels.size());
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(
+            MethodDescriptor<ReqT, RespT> method,
+            CallOptions callOptions) {
+
+        int index = selectIndex();
+        lastUsedNanos = System.nanoTime();
+        return new InFlightTrackingCall<>(subChannels.get(index).newCall(method, callOptions), index);
+    }
+
+    /**
+     * Pick a sub-channel according to the configured strategy
+     */
+    private int selectIndex() {
+        int size = subChannels.size();
+        if (size == 1) {
+            return 0;
+        }
+
+        int start = Math.floorMod(nextIndex.getAndIncrement(), size);
+        if (strategy == SelectionStrategy.ROUND_ROBIN) {
+            return start;
+        }
+
+        // Scan from a rotating offset so ties are spread evenly
+        int best = start;
+        int bestCount = inFlight.get(start);
+        for (int i = 1; i < size && bestCount > 0; i++) {
+            int candidate = (start + i) % size;
+            int count = inFlight.get(candidate);
+            if (count < bestCount) {
+                best = candidate;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public String authority() {
+        return subChannels.get(0).authority();
+    }
+
+    /**
+     * Number of sub-channels in this stripe
+     */
+    public int size() {
+        return subChannels.size();
+    }
+
+    /**
+     * Sub-channels backing this stripe
+     */
+    public List<ManagedChannel> getSubChannels() {
+        return subChannels;
+    }
+
+    public SelectionStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * In-flight call count for a single sub-channel
+     */
+    public int getInFlight(int index) {
+        return inFlight.get(index);
+    }
+
+    /**
+     * Snapshot of in-flight call counts, one entry per sub-channel
+     */
+    public int[] getInFlightCounts() {
+        int[] counts = new int[inFlight.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = inFlight.get(i);
+        }
+        return counts;
+    }
+
+    /**
+     * Total in-flight calls across all sub-channels
+     */
+    public int getTotalInFlight() {
+        int total = 0;
+        for (int i = 0; i < inFlight.length(); i++) {
+            total += inFlight.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * {@link System#nanoTime()} of the last call or pool lookup on this channel
+     */
+    public long getLastUsedNanos() {
+        return lastUsedNanos;
+    }
+
+    /**
+     * Record a pool lookup so the channel is not considered idle
+     */
+    void markUsed() {
+        lastUsedNanos = System.nanoTime();
+    }
+
+    /**
+     * Aggregate state: the "best" state reported by any sub-channel
+     */
+    @Override
+    public ConnectivityState getState(boolean requestConnection) {
+        ConnectivityState best = ConnectivityState.SHUTDOWN;
+        for (ManagedChannel subChannel : subChannels) {
+            ConnectivityState state = subChannel.getState(requestConnection);
+            if (rank(state) < rank(best)) {
+                best = state;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Run {@code callback} once the aggregate state differs from {@code source}
+     * Fires right away when it already does; otherwise watches every sub-channel.
+     */
+    @Override
+    public void notifyWhenStateChanged(ConnectivityState source, Runnable callback) {
+        StateWatch watch = new StateWatch(source, callback);
+        subChannels.forEach(watch::watch);
+        // Checked after registering, so a change in between is not missed
+        watch.fireIfChanged();
+    }
+
+    private static int rank(ConnectivityState state) {
+        switch (state) {
+            case READY:
+                return 0;
+            case CONNECTING:
+                return 1;
+            case IDLE:
+                return 2;
+            case TRANSIENT_FAILURE:
+                return 3;
+            default:
+                return 4;
+        }
+    }
+
+    @Override
+    public void resetConnectBackoff() {
+        subChannels.forEach(ManagedChannel::resetConnectBackoff);
+    }
+
+    @Override
+    public void enterIdle() {
+        subChannels.forEach(ManagedChannel::enterIdle);
+    }
+
+    @Override
+    public ManagedChannel shutdown() {
+        subChannels.forEach(ManagedChannel::shutdown);
+        return this;
+    }
+
+    @Override
+    public ManagedChannel shutdownNow() {
+        subChannels.forEach(ManagedChannel::shutdownNow);
+        return this;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return subChannels.stream().allMatch(ManagedChannel::isShutdown);
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return subChannels.stream().allMatch(ManagedChannel::isTerminated);
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (ManagedChannel subChannel : subChannels) {
+            long remaining = deadline - System.nanoTime();
+            if (!subChannel.awaitTermination(Math.max(remaining, 0), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * One-off callback for the aggregate state leaving a source state
+     * A sub-channel transition that leaves the aggregate unchanged re-arms the watch on that sub-channel.
+     */
+    private final class StateWatch {
+        private final ConnectivityState source;
+        private final Runnable callback;
+        private final AtomicBoolean fired = new AtomicBoolean(false);
+
+        private StateWatch(ConnectivityState source, Runnable callback) {
+            this.source = source;
+            this.callback = callback;
+        }
+
+        void watch(ManagedChannel subChannel) {
+            subChannel.notifyWhenStateChanged(subChannel.getState(false), () -> {
+                if (!fired.get() && !fireIfChanged()) {
+                    watch(subChannel);
+                }
+            });
+        }
+
+        boolean fireIfChanged() {
+            if (getState(false) == source) {
+                return false;
+            }
+            if (fired.compareAndSet(false, true)) {
+                callback.run();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Call wrapper that keeps the owning sub-channel's in-flight counter accurate
+     */
+    private final class InFlightTrackingCall<ReqT, RespT>
+            extends ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT> {
+
+        private final int index;
+
+        private InFlightTrackingCall(ClientCall<ReqT, RespT> delegate, int index) {
+            super(delegate);
+            this.index = index;
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            inFlight.incrementAndGet(index);
+            try {
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<RespT>(responseListener) {
+
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        inFlight.decrementAndGet(index);
+                        super.onClose(status, trailers);
+                    }
+                }, headers);
+            } catch (RuntimeException e) {
+                inFlight.decrementAndGet(index);
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.mapbox.core.channel;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.Epoll;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollDomainSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.nio.NioEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.socket.nio.NioSocketChannel;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event-loop group and application executor shared by every pooled channel
+ * Resources are created lazily on first use. Each user (a channel factory) registers with
+ * {@link #acquire()} and lets go with {@link #release()}; the last release shuts them
+ * down, and the next channel built recreates them.
+ */
+@Slf4j
+public class TransportResources {
+
+    /**
+     * Transport used for pooled channels
+     */
+    public enum TransportMode {
+        /** Builder defaults: grpc-netty's shared NIO event loops */
+        NIO,
+        /** Native epoll when available, falling back to NIO */
+        NATIVE,
+        /** In-process transport to a server registered under {@code grpc.inprocess.name}; no sockets */
+        INPROCESS
+    }
+
+    /**
+     * Executor used to run application callbacks (listeners, stub observers)
+     */
+    public enum ExecutorMode {
+        /** gRPC's default cached thread pool */
+        DEFAULT,
+        /** Run callbacks on the event-loop thread; callbacks must never block */
+        DIRECT,
+        /** Fixed pool of {@code grpc.executor.threads} threads */
+        FIXED,
+        /** Virtual thread per task when the JVM supports it, otherwise FIXED */
+        VIRTUAL
+    }
+
+    private final TransportMode transportMode;
+    private final ExecutorMode executorMode;
+    private final int eventLoopThreads;
+    private final int executorThreads;
+
+    private EventLoopGroup eventLoopGroup;
+    private EventLoopGroup domainSocketEventLoopGroup;
+    private boolean nativeTransport;
+    private ExecutorService executor;
+    private int users;
+
+    public TransportResources(TransportMode transportMode, ExecutorMode executorMode,
+                              int eventLoopThreads, int executorThreads) {
+        this.transportMode = transportMode;
+        this.executorMode = executorMode;
+        this.eventLoopThreads = Math.max(0, eventLoopThreads);
+        this.executorThreads = executorThreads > 0 ? executorThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public TransportMode getTransportMode() {
+        return transportMode;
+    }
+
+    public ExecutorMode getExecutorMode() {
+        return executorMode;
+    }
+
+    /**
+     * Apply the shared event-loop group, channel type and executor to a channel builder
+     */
+    public synchronized void apply(NettyChannelBuilder builder) {
+        if (transportMode == TransportMode.NATIVE || eventLoopThreads > 0) {
+            ensureEventLoopGroup();
+            builder.eventLoopGroup(eventLoopGroup)
+                    .channelType(nativeTransport ? EpollSocketChannel.class : NioSocketChannel.class);
+        }
+
+        applyExecutor(builder);
+    }
+
+    /**
+     * Apply an epoll event-loop group, domain-socket channel type and executor to a channel builder
+     * Reuses the shared group when it is already epoll, otherwise keeps a dedicated epoll group
+     */
+    public synchronized void applyDomainSocket(NettyChannelBuilder builder) {
+        if (!Epoll.isAvailable()) {
+            throw new IllegalStateException("Unix domain sockets require native epoll transport", Epoll.unavailabilityCause());
+        }
+
+        if (transportMode == TransportMode.NATIVE) {
+            ensureEventLoopGroup();
+        }
+        if (nativeTransport) {
+            builder.eventLoopGroup(eventLoopGroup);
+        } else {
+            if (domainSocketEventLoopGroup == null) {
+                domainSocketEventLoopGroup = new EpollEventLoopGroup(eventLoopThreads, new ThreadFactoryBuilder()
+                        .setNameFormat("grpc-client-uds-eventloop-%d")
+                        .setDaemon(true)
+                        .build());
+            }
+            builder.eventLoopGroup(domainSocketEventLoopGroup);
+        }
+        builder.channelType(EpollDomainSocketChannel.class);
+
+        applyExecutor(builder);
+    }
+
+    /**
+     * Apply the shared application executor to any channel builder
+     */
+    public synchronized void applyExecutor(ManagedChannelBuilder<?> builder) {
+        switch (executorMode) {
+            case DIRECT:
+                builder.directExecutor();
+                break;
+            case FIXED:
+            case VIRTUAL:
+                ensureExecutor();
+                builder.executor(executor);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Whether channels use native epoll (only meaningful once a channel has been built)
+     */
+    public synchronized boolean isNativeTransport() {
+        return nativeTransport;
+    }
+
+    /**
+     * Shared event-loop group, or null until a channel that needs one has been built
+     */
+    public synchronized EventLoopGroup getEventLoopGroup() {
+        return eventLoopGroup;
+    }
+
+    /**
+     * Shared application executor, or null until a FIXED or VIRTUAL channel has been built
+     */
+    public synchronized ExecutorService getExecutor() {
+        return executor;
+    }
+
+    private void ensureEventLoopGroup() {
+        if (eventLoopGroup != null) {
+            return;
+        }
+
+        ThreadFactory threadFactory = new ThreadFactoryBuilder()
+                .setNameFormat("grpc-client-eventloop-%d")
+                .setDaemon(true)
+                .build();
+
+        if (transportMode == TransportMode.NATIVE && Epoll.isAvailable()) {
+            eventLoopGroup = new EpollEventLoopGroup(eventLoopThreads, threadFactory);
+            nativeTransport = true;
+        } else {
+            if (transportMode == TransportMode.NATIVE) {
+                log.warn("Native epoll transport unavailable, falling back to NIO: {}",
+                        Epoll.unavailabilityCause() != null ? Epoll.unavailabilityCause().getMessage() : "unknown");
+            }
+            eventLoopGroup = new NioEventLoopGroup(eventLoopThreads, threadFactory);
+            nativeTransport = false;
+        }
+
+        log.info("Created shared {} event-loop group with {} thread(s)",
+                nativeTransport ? "epoll" : "NIO",
+                eventLoopThreads > 0 ? eventLoopThreads : "default");
+    }
+
+    private void ensureExecutor() {
+        if (executor != null) {
+            return;
+        }
+
+        if (executorMode == ExecutorMode.VIRTUAL) {
+            executor = newVirtualThreadExecutor();
+            if (executor != null) {
+                log.info("Created shared virtual-thread application executor");
+                return;
+            }
+            log.warn("Virtual threads not supported by this JVM, using a fixed pool of {} threads",
+                    executorThreads);
+        }
+
+        executor = Executors.newFixedThreadPool(executorThreads, new ThreadFactoryBuilder()
+                .setNameFormat("grpc-client-executor-%d")
+                .setDaemon(true)
+                .build());
+        log.info("Created shared fixed application executor with {} thread(s)", executorThreads);
+    }
+
+    /**
+     * Looked up reflectively so the framework still runs on Java 17
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Register a user of the shared resources; pair every call with {@link #release()}
+     */
+    public synchronized void acquire() {
+        users++;
+    }
+
+    /**
+     * Drop one user's claim, shutting the resources down when it was the last one
+     * Without any registered user it shuts them down at once. The caller's channels must
+     * have terminated; when this is the last release, every channel using them must have.
+     *
+     * @return whether the resources were shut down
+     */
+    public synchronized boolean release() {
+        if (users > 1) {
+            users--;
+            return false;
+        }
+        users = 0;
+        shutdown();
+        return true;
+    }
+
+    /**
+     * Users still holding the shared resources
+     */
+    public synchronized int getUsers() {
+        return users;
+    }
+
+    /**
+     * Shut the event-loop group and executor down whatever the user count, for process teardown
+     * Must only be called after every channel using them has terminated
+     */
+    public synchronized void releaseAll() {
+        users = 0;
+        shutdown();
+    }
+
+    private void shutdown() {
+        if (eventLoopGroup != null) {
+            eventLoopGroup.shutdownGracefully(0, 5, TimeUnit.SECONDS);
+            eventLoopGroup = null;
+        }
+        if (domainSocketEventLoopGroup != null) {
+            domainSocketEventLoopGroup.shutdownGracefully(0, 5, TimeUnit.SECONDS);
+            domainSocketEventLoopGroup = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+}
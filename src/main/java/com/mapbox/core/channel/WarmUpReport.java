@@ -0,0 +1,29 @@
+package com.mapbox.core.channel;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Outcome of {@link GrpcChannelFactory#warmUp}
+ */
+@Value
+@Builder
+public class WarmUpReport {
+    String target;
+    int subChannels;
+    int readySubChannels;
+    long connectMs;
+    int warmUpRpcs;
+    int failedWarmUpRpcs;
+    long totalMs;
+
+    public boolean isFullyReady() {
+        return readySubChannels == subChannels;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Warm-up of %s: %d/%d sub-channels READY in %dms, %d warm-up RPCs (%d failed), total %dms",
+                target, readySubChannels, subChannels, connectMs, warmUpRpcs, failedWarmUpRpcs, totalMs);
+    }
+}
@@ -0,0 +1,146 @@
+package com.mapbox.core.coalescing;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Message;
+import com.mapbox.core.assertions.GrpcResponse;
+import lombok.Value;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing of identical concurrent unary calls
+ * Calls to a coalesced method whose serialized requests are byte-for-byte equal share
+ * the RPC of whichever arrived first while it is in flight, and all receive the same
+ * {@link GrpcResponse} instance. A call arriving after the shared RPC completed starts
+ * a new one. Shared calls run with the first caller's deadline and context.
+ */
+public class RequestCoalescer {
+
+    private final Set<String> methods;
+    private final ConcurrentHashMap<Key, CompletableFuture<? extends GrpcResponse<?>>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Stats> statsMap = new ConcurrentHashMap<>();
+
+    /**
+     * @param methods full method names (e.g. {@code campaign.CampaignService/GetCampaign}) to coalesce
+     */
+    public RequestCoalescer(Set<String> methods) {
+        this.methods = Set.copyOf(methods);
+    }
+
+    public boolean isCoalesced(String fullMethodName) {
+        return methods.contains(fullMethodName);
+    }
+
+    /**
+     * Join the in-flight call for an identical request, or start one
+     * Cancelling the returned future only detaches that caller; the shared RPC keeps
+     * running for the others.
+     *
+     * @param call starts the RPC when no identical one is in flight
+     */
+    @SuppressWarnings("unchecked")
+    public <ReqT extends Message, RespT extends Message> CompletableFuture<GrpcResponse<RespT>> execute(
+            String fullMethodName,
+            ReqT request,
+            Supplier<CompletableFuture<GrpcResponse<RespT>>> call) {
+
+        Stats stats = statsMap.computeIfAbsent(fullMethodName, k -> new Stats());
+        stats.requests.incrementAndGet();
+
+        Key key = new Key(fullMethodName, request.toByteString());
+        CompletableFuture<GrpcResponse<RespT>> shared = new CompletableFuture<>();
+        CompletableFuture<GrpcResponse<RespT>> existing =
+                (CompletableFuture<GrpcResponse<RespT>>) inFlight.putIfAbsent(key, shared);
+        if (existing != null) {
+            stats.coalesced.incrementAndGet();
+            return existing.thenApply(response -> response);
+        }
+
+        stats.rpcs.incrementAndGet();
+        try {
+            call.get().whenComplete((response, error) -> {
+                // Unregister first so later arrivals never join a completed call
+                inFlight.remove(key, shared);
+                if (error != null) {
+                    shared.completeExceptionally(error);
+                } else {
+                    shared.complete(response);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, shared);
+            shared.completeExceptionally(e);
+        }
+        return shared.thenApply(response -> response);
+    }
+
+    public Stats getStats(String fullMethodName) {
+        return statsMap.get(fullMethodName);
+    }
+
+    public Map<String, Stats> getAllStats() {
+        return Map.copyOf(statsMap);
+    }
+
+    public void resetStats() {
+        statsMap.clear();
+    }
+
+    /**
+     * In-flight call identity: method plus request wire bytes
+     */
+    @Value
+    private static class Key {
+        String method;
+        ByteString requestBytes;
+    }
+
+    /**
+     * Coalescing counters for one method
+     */
+    public static class Stats {
+        private final AtomicLong requests = new AtomicLong(0);
+        private final AtomicLong rpcs = new AtomicLong(0);
+        private final AtomicLong coalesced = new AtomicLong(0);
+
+        /**
+         * Calls made by clients
+         */
+        public long getRequests() {
+            return requests.get();
+        }
+
+        /**
+         * RPCs actually sent to the server
+         */
+        public long getRpcs() {
+            return rpcs.get();
+        }
+
+        /**
+         * Calls served by joining another call's RPC
+         */
+        public long getCoalesced() {
+            return coalesced.get();
+        }
+
+        /**
+         * Percentage of calls that did not reach the server
+         */
+        public double getCoalescingRatio() {
+            long total = requests.get();
+            return total > 0 ? (double) coalesced.get() / total * 100 : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d calls, %d RPCs sent, %d coalesced (%.1f%%)",
+                    getRequests(), getRpcs(), getCoalesced(), getCoalescingRatio());
+        }
+    }
+}
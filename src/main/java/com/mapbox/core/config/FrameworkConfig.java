@@ -1,10 +1,13 @@
 package com.mapbox.core.config;
 
+import org.aeonbits.owner.Accessible;
 import org.aeonbits.owner.Config;
 
 /**
  * Framework configuration interface using Owner library
  * Supports multiple environments and property override
+ * {@link Accessible} gives access to per-method overrides such as
+ * {@code resilience.bulkhead.max.concurrent[campaign.CampaignService/GetCampaign]}
  */
 @Config.LoadPolicy(Config.LoadType.MERGE)
 @Config.Sources({
@@ -13,7 +16,7 @@ import org.aeonbits.owner.Config;
     "classpath:config/${env}.properties",
     "classpath:config/default.properties"
 })
-public interface FrameworkConfig extends Config {
+public interface FrameworkConfig extends Config, Accessible {
 
     @Key("grpc.host")
     @DefaultValue("localhost")
@@ -23,6 +26,9 @@ public interface FrameworkConfig extends Config {
     @DefaultValue("9090")
     int grpcPort();
 
+    @Key("grpc.target")
+    String grpcTarget();
+
     @Key("grpc.tls.enabled")
     @DefaultValue("false")
     boolean tlsEnabled();
@@ -46,6 +52,58 @@ public interface FrameworkConfig extends Config {
     @DefaultValue("4194304")
     int maxInboundMessageSize();
 
+    @Key("grpc.compression.methods")
+    @DefaultValue("")
+    String compressionMethods();
+
+    @Key("grpc.channel.pool.size")
+    @DefaultValue("1")
+    int channelPoolSize();
+
+    @Key("grpc.channel.pool.selection")
+    @DefaultValue("ROUND_ROBIN")
+    String channelPoolSelection();
+
+    @Key("grpc.channel.pool.max.profiles")
+    @DefaultValue("16")
+    int channelPoolMaxProfiles();
+
+    @Key("grpc.channel.pool.idle.eviction.seconds")
+    @DefaultValue("600")
+    long channelPoolIdleEvictionSeconds();
+
+    @Key("grpc.transport")
+    @DefaultValue("nio")
+    String transport();
+
+    @Key("grpc.inprocess.name")
+    @DefaultValue("campaign-service")
+    String inProcessName();
+
+    @Key("grpc.event.loop.threads")
+    @DefaultValue("0")
+    int eventLoopThreads();
+
+    @Key("grpc.executor")
+    @DefaultValue("default")
+    String executor();
+
+    @Key("grpc.executor.threads")
+    @DefaultValue("0")
+    int executorThreads();
+
+    @Key("grpc.warmup.enabled")
+    @DefaultValue("true")
+    boolean warmUpEnabled();
+
+    @Key("grpc.warmup.timeout.seconds")
+    @DefaultValue("5")
+    long warmUpTimeoutSeconds();
+
+    @Key("grpc.warmup.rpcs.per.method")
+    @DefaultValue("10")
+    int warmUpRpcsPerMethod();
+
     @Key("grpc.max.retry.attempts")
     @DefaultValue("3")
     int maxRetryAttempts();
@@ -54,10 +112,126 @@ public interface FrameworkConfig extends Config {
     @DefaultValue("1000")
     long retryBackoffMs();
 
+    @Key("grpc.retry.max.backoff.ms")
+    @DefaultValue("5000")
+    long retryMaxBackoffMs();
+
+    @Key("grpc.retry.budget.max.tokens")
+    @DefaultValue("10")
+    double retryBudgetMaxTokens();
+
+    @Key("grpc.retry.budget.token.ratio")
+    @DefaultValue("0.1")
+    double retryBudgetTokenRatio();
+
     @Key("grpc.deadline.seconds")
     @DefaultValue("30")
     long deadlineSeconds();
 
+    @Key("hedging.methods")
+    @DefaultValue("")
+    String hedgingMethods();
+
+    @Key("hedging.max.attempts")
+    @DefaultValue("2")
+    int hedgingMaxAttempts();
+
+    @Key("hedging.delay.ms")
+    @DefaultValue("20")
+    long hedgingDelayMs();
+
+    @Key("hedging.delay.percentile")
+    @DefaultValue("0")
+    double hedgingDelayPercentile();
+
+    @Key("hedging.min.samples")
+    @DefaultValue("100")
+    int hedgingMinSamples();
+
+    @Key("coalescing.methods")
+    @DefaultValue("")
+    String coalescingMethods();
+
+    @Key("cache.methods")
+    @DefaultValue("")
+    String cacheMethods();
+
+    @Key("cache.ttl.ms")
+    @DefaultValue("30000")
+    long cacheTtlMs();
+
+    @Key("cache.max.bytes")
+    @DefaultValue("16777216")
+    long cacheMaxBytes();
+
+    @Key("limiter.enabled")
+    @DefaultValue("false")
+    boolean limiterEnabled();
+
+    @Key("limiter.initial")
+    @DefaultValue("20")
+    int limiterInitial();
+
+    @Key("limiter.min")
+    @DefaultValue("1")
+    int limiterMin();
+
+    @Key("limiter.max")
+    @DefaultValue("1000")
+    int limiterMax();
+
+    @Key("limiter.rtt.tolerance")
+    @DefaultValue("1.5")
+    double limiterRttTolerance();
+
+    @Key("limiter.smoothing")
+    @DefaultValue("0.2")
+    double limiterSmoothing();
+
+    @Key("limiter.queue.size")
+    @DefaultValue("100")
+    int limiterQueueSize();
+
+    @Key("limiter.queue.timeout.ms")
+    @DefaultValue("1000")
+    long limiterQueueTimeoutMs();
+
+    @Key("ratelimit.methods")
+    @DefaultValue("")
+    String rateLimitMethods();
+
+    @Key("ratelimit.mode")
+    @DefaultValue("BLOCK")
+    String rateLimitMode();
+
+    @Key("ratelimit.timeout.ms")
+    @DefaultValue("5000")
+    long rateLimitTimeoutMs();
+
+    @Key("resilience.circuitbreaker.failure.rate")
+    @DefaultValue("50")
+    float circuitBreakerFailureRate();
+
+    @Key("resilience.circuitbreaker.window.size")
+    @DefaultValue("10")
+    int circuitBreakerWindowSize();
+
+    @Key("resilience.circuitbreaker.min.calls")
+    @DefaultValue("5")
+    int circuitBreakerMinCalls();
+
+    @Key("resilience.circuitbreaker.open.seconds")
+    @DefaultValue("30")
+    long circuitBreakerOpenSeconds();
+
+    @Key("resilience.bulkhead.max.concurrent")
+    @DefaultValue("25")
+    int bulkheadMaxConcurrent();
+
+    @Key("resilience.bulkhead.max.wait.ms")
+    @DefaultValue("0")
+    long bulkheadMaxWaitMs();
+
     @Key("auth.token")
     String authToken();
 
@@ -65,6 +239,26 @@ public interface FrameworkConfig extends Config {
     @DefaultValue("false")
     boolean authEnabled();
 
+    @Key("auth.provider")
+    @DefaultValue("static")
+    String authProvider();
+
+    @Key("auth.token.file")
+    @DefaultValue("")
+    String authTokenFile();
+
+    @Key("auth.token.lifetime.ms")
+    @DefaultValue("300000")
+    long authTokenLifetimeMs();
+
+    @Key("auth.refresh.ahead.ms")
+    @DefaultValue("60000")
+    long authRefreshAheadMs();
+
+    @Key("auth.refresh.retry.ms")
+    @DefaultValue("5000")
+    long authRefreshRetryMs();
+
     @Key("logging.request.enabled")
     @DefaultValue("true")
     boolean logRequestEnabled();
@@ -73,10 +267,78 @@ public interface FrameworkConfig extends Config {
     @DefaultValue("true")
     boolean logResponseEnabled();
 
+    @Key("logging.sample.every")
+    @DefaultValue("1")
+    int logSampleEvery();
+
+    @Key("logging.sample.max.per.second")
+    @DefaultValue("0")
+    double logSampleMaxPerSecond();
+
+    @Key("logging.payload.max.chars")
+    @DefaultValue("4096")
+    int logPayloadMaxChars();
+
+    @Key("logging.async.queue.size")
+    @DefaultValue("1024")
+    int logAsyncQueueSize();
+
+    @Key("binlog.enabled")
+    @DefaultValue("false")
+    boolean binlogEnabled();
+
+    @Key("binlog.dir")
+    @DefaultValue("target/binlog")
+    String binlogDir();
+
+    @Key("binlog.segment.bytes")
+    @DefaultValue("67108864")
+    int binlogSegmentBytes();
+
+    @Key("binlog.max.segments")
+    @DefaultValue("8")
+    int binlogMaxSegments();
+
+    @Key("binlog.queue.size")
+    @DefaultValue("8192")
+    int binlogQueueSize();
+
     @Key("metrics.enabled")
     @DefaultValue("true")
     boolean metricsEnabled();
 
+    @Key("metrics.export.enabled")
+    @DefaultValue("false")
+    boolean metricsExportEnabled();
+
+    @Key("metrics.export.port")
+    @DefaultValue("9464")
+    int metricsExportPort();
+
+    @Key("metrics.export.path")
+    @DefaultValue("/metrics")
+    String metricsExportPath();
+
+    @Key("metrics.message.sizes.enabled")
+    @DefaultValue("true")
+    boolean messageSizesEnabled();
+
+    @Key("tracing.timeline.enabled")
+    @DefaultValue("true")
+    boolean timelineEnabled();
+
+    @Key("interceptors.fused")
+    @DefaultValue("true")
+    boolean fusedInterceptors();
+
+    @Key("headers.capture.keys")
+    @DefaultValue("x-request-id,grpc-status-details-bin")
+    String headerCaptureKeys();
+
+    @Key("tracing.jfr.enabled")
+    @DefaultValue("true")
+    boolean jfrEventsEnabled();
+
     @Key("parallel.execution.threads")
     @DefaultValue("5")
     int parallelExecutionThreads();
@@ -1,21 +1,40 @@
 package com.mapbox.core.interceptors;
 
+import com.mapbox.core.auth.TokenCache;
+import com.mapbox.core.auth.TokenProvider;
 import io.grpc.*;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Authentication interceptor that adds auth token to metadata
+ * The header value is built once: either from a static token, or read from a
+ * {@link TokenCache} that refreshes tokens in the background. With a cache, calls started
+ * within a context carrying {@link #VIRTUAL_USER_KEY} use that virtual user's token.
+ * Calls fail with UNAUTHENTICATED when no token can be obtained.
  */
 @Slf4j
-public class AuthTokenInterceptor implements ClientInterceptor {
+public class AuthTokenInterceptor implements FusableInterceptor {
+
+    /** Virtual user whose token a call carries, for multi-tenant load tests */
+    public static final Context.Key<String> VIRTUAL_USER_KEY = Context.key("mapbox-virtual-user");
 
     private static final Metadata.Key<String> AUTH_TOKEN_KEY =
         Metadata.Key.of("Authorization", Metadata.ASCII_STRING_MARSHALLER);
 
-    private final String authToken;
+    private final String staticHeader;
+
+    @Getter
+    private final TokenCache tokenCache;
 
     public AuthTokenInterceptor(String authToken) {
-        this.authToken = authToken;
+        this.staticHeader = authToken != null && !authToken.isEmpty() ? "Bearer " + authToken : null;
+        this.tokenCache = null;
+    }
+
+    public AuthTokenInterceptor(TokenCache tokenCache) {
+        this.staticHeader = null;
+        this.tokenCache = tokenCache;
     }
 
     @Override
@@ -24,18 +43,66 @@ public class AuthTokenInterceptor implements ClientInterceptor {
             CallOptions callOptions,
             Channel next) {
 
+        String value;
+        try {
+            value = headerValue(method);
+        } catch (StatusRuntimeException e) {
+            return new FailedCall<>(e.getStatus(), callOptions);
+        }
+        if (value == null) {
+            return next.newCall(method, callOptions);
+        }
+
         return new ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT>(
                 next.newCall(method, callOptions)) {
 
             @Override
             public void start(Listener<RespT> responseListener, Metadata headers) {
-                if (authToken != null && !authToken.isEmpty()) {
-                    headers.put(AUTH_TOKEN_KEY, "Bearer " + authToken);
-                    log.debug("Added auth token to request");
-                }
+                headers.put(AUTH_TOKEN_KEY, value);
                 super.start(responseListener, headers);
             }
         };
     }
-}
 
+    @Override
+    public CallHook hookFor(MethodDescriptor<?, ?> method) {
+        if (tokenCache == null) {
+            return staticHeader == null ? null : new CallHook(CallHook.START) {
+                @Override
+                public void onStart(Object state, Metadata headers) {
+                    headers.put(AUTH_TOKEN_KEY, staticHeader);
+                }
+            };
+        }
+        return new CallHook(CallHook.BEGIN | CallHook.START) {
+            @Override
+            public Object begin() {
+                String value = headerValue(method);
+                return value != null ? value : SKIP;
+            }
+
+            @Override
+            public void onStart(Object state, Metadata headers) {
+                headers.put(AUTH_TOKEN_KEY, (String) state);
+            }
+        };
+    }
+
+    /**
+     * Header value for a call started in the current context, null for none
+     *
+     * @throws StatusRuntimeException UNAUTHENTICATED when no token can be obtained
+     */
+    private String headerValue(MethodDescriptor<?, ?> method) {
+        if (tokenCache == null) {
+            return staticHeader;
+        }
+        String user = VIRTUAL_USER_KEY.get();
+        try {
+            return tokenCache.headerValue(user != null ? user : TokenProvider.DEFAULT_SUBJECT);
+        } catch (RuntimeException e) {
+            log.error("No auth token for {}", method.getFullMethodName(), e);
+            throw Status.UNAUTHENTICATED.withDescription("No auth token available").withCause(e).asRuntimeException();
+        }
+    }
+}
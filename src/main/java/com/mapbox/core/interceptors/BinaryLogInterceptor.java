@@ -0,0 +1,84 @@
+package com.mapbox.core.interceptors;
+
+import com.mapbox.core.logging.BinaryLogFrame;
+import com.mapbox.core.logging.BinaryLogWriter;
+import io.grpc.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Captures every call's headers, raw request and response messages, status and trailers
+ * to a {@link BinaryLogWriter}
+ * Unlike {@link LoggingInterceptor} nothing is formatted: the caller only copies the
+ * metadata and hands the message object to the writer's queue, and serialization happens
+ * on the writer thread. Registered next to the transport, so headers added by other
+ * interceptors are captured and each retry or hedge attempt is its own call.
+ * Read the capture back with {@link com.mapbox.core.logging.BinaryLogReader}.
+ */
+public class BinaryLogInterceptor implements ClientInterceptor {
+
+    private final BinaryLogWriter writer;
+    private final AtomicLong callIds = new AtomicLong(0);
+
+    public BinaryLogInterceptor(BinaryLogWriter writer) {
+        this.writer = writer;
+    }
+
+    public BinaryLogWriter getWriter() {
+        return writer;
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+            MethodDescriptor<ReqT, RespT> method,
+            CallOptions callOptions,
+            Channel next) {
+
+        long callId = callIds.incrementAndGet();
+
+        return new ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT>(
+                next.newCall(method, callOptions)) {
+
+            @Override
+            public void start(Listener<RespT> responseListener, Metadata headers) {
+                writer.logClientHeaders(callId, method.getFullMethodName(), copy(headers));
+
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<RespT>(responseListener) {
+
+                    @Override
+                    public void onHeaders(Metadata headers) {
+                        writer.logServerHeaders(callId, copy(headers));
+                        super.onHeaders(headers);
+                    }
+
+                    @Override
+                    public void onMessage(RespT message) {
+                        writer.logMessage(callId, BinaryLogFrame.Type.RESPONSE, method.getResponseMarshaller(), message);
+                        super.onMessage(message);
+                    }
+
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        writer.logClose(callId, status, copy(trailers));
+                        super.onClose(status, trailers);
+                    }
+                }, headers);
+            }
+
+            @Override
+            public void sendMessage(ReqT message) {
+                writer.logMessage(callId, BinaryLogFrame.Type.REQUEST, method.getRequestMarshaller(), message);
+                super.sendMessage(message);
+            }
+        };
+    }
+
+    /**
+     * Metadata is mutable, so the writer gets a snapshot taken on the calling thread
+     */
+    private static Metadata copy(Metadata metadata) {
+        Metadata copy = new Metadata();
+        copy.merge(metadata);
+        return copy;
+    }
+}
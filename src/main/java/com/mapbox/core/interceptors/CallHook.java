@@ -0,0 +1,66 @@
+package com.mapbox.core.interceptors;
+
+import io.grpc.Metadata;
+import io.grpc.Status;
+
+/**
+ * Per-method work of a {@link FusableInterceptor}, run by {@link FusedInterceptor}
+ * A hook declares the events it handles, so the fused chain only dispatches those. Each
+ * callback receives the per-call state returned by {@link #begin()}, or null for hooks
+ * not handling {@link #BEGIN}; a call for which {@code begin} returns {@link #SKIP} gets no
+ * further callbacks. Callbacks run on the
+ * same threads, and in the same order, as the interceptor's own wrapper would.
+ */
+public abstract class CallHook {
+
+    public static final int BEGIN = 1;
+    public static final int START = 1 << 1;
+    public static final int SEND_MESSAGE = 1 << 2;
+    public static final int HEADERS = 1 << 3;
+    public static final int MESSAGE = 1 << 4;
+    public static final int CLOSE = 1 << 5;
+
+    /** State for a call this hook has nothing to do for */
+    public static final Object SKIP = new Object();
+
+    private final int events;
+
+    /**
+     * @param events the callbacks this hook implements, e.g. {@code START | CLOSE}
+     */
+    protected CallHook(int events) {
+        this.events = events;
+    }
+
+    final boolean handles(int event) {
+        return (events & event) != 0;
+    }
+
+    /**
+     * Called as the call is created, in the caller's context, for hooks handling {@link #BEGIN}
+     *
+     * @return per-call state, possibly null, or {@link #SKIP}
+     * @throws io.grpc.StatusRuntimeException to fail the call without starting it
+     */
+    public Object begin() {
+        return null;
+    }
+
+    public void onStart(Object state, Metadata headers) {
+    }
+
+    public void onSendMessage(Object state, Object message) {
+    }
+
+    public void onHeaders(Object state, Metadata headers) {
+    }
+
+    public void onMessage(Object state, Object message) {
+    }
+
+    /**
+     * @param elapsedNanos time since the fused call started
+     */
+    public void onClose(Object state, long elapsedNanos, Status status, Metadata trailers) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.mapbox.core.interceptors;
+
+import com.mapbox.core.tracing.CallTimeline;
+import io.grpc.*;
+
+/**
+ * Fills in the {@link CallTimeline} of the current call context
+ * Installs the timeline's stream tracer and records listener-side phases.
+ * Calls made without a timeline in context pass straight through.
+ * Registered first in the chain so its listener sees callbacks before other interceptors.
+ */
+public class CallTimelineInterceptor implements ClientInterceptor {
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+            MethodDescriptor<ReqT, RespT> method,
+            CallOptions callOptions,
+            Channel next) {
+
+        CallTimeline timeline = CallTimeline.current();
+        if (timeline == null) {
+            return next.newCall(method, callOptions);
+        }
+
+        return new ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT>(
+                next.newCall(method, callOptions.withStreamTracerFactory(timeline.tracerFactory()))) {
+
+            @Override
+            public void start(Listener<RespT> responseListener, Metadata headers) {
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<RespT>(responseListener) {
+
+                    @Override
+                    public void onHeaders(Metadata headers) {
+                        timeline.recordHeadersReceived();
+                        super.onHeaders(headers);
+                    }
+
+                    @Override
+                    public void onMessage(RespT message) {
+                        timeline.recordMessageParsed();
+                        super.onMessage(message);
+                    }
+
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        timeline.recordClosed();
+                        super.onClose(status, trailers);
+                    }
+                }, headers);
+            }
+        };
+    }
+}
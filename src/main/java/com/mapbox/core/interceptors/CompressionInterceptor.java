@@ -0,0 +1,55 @@
+package com.mapbox.core.interceptors;
+
+import io.grpc.*;
+
+import java.util.Map;
+
+/**
+ * Interceptor selecting the request compressor per method
+ * Configured methods get the named compressor set on their call options; every other
+ * method keeps the channel default, which sends messages uncompressed. The server picks
+ * its own response encoding from the {@code grpc-accept-encoding} the client advertises.
+ */
+public class CompressionInterceptor implements ClientInterceptor {
+
+    /** Method key applying to every method without its own entry */
+    public static final String ALL_METHODS = "*";
+
+    private final Map<String, String> compressors;
+    private final String defaultCompressor;
+
+    /**
+     * @param compressors compressor name ({@code gzip} or {@code identity}) per full method name
+     * @throws IllegalArgumentException when a name is not in the default compressor registry
+     */
+    public CompressionInterceptor(Map<String, String> compressors) {
+        for (Map.Entry<String, String> entry : compressors.entrySet()) {
+            if (CompressorRegistry.getDefaultInstance().lookupCompressor(entry.getValue()) == null) {
+                throw new IllegalArgumentException(
+                        "Unknown compressor '" + entry.getValue() + "' for " + entry.getKey());
+            }
+        }
+        this.compressors = Map.copyOf(compressors);
+        this.defaultCompressor = compressors.get(ALL_METHODS);
+    }
+
+    /**
+     * Compressor for a method, or null when it is sent with the channel default
+     */
+    public String compressorFor(String methodName) {
+        return compressors.getOrDefault(methodName, defaultCompressor);
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+            MethodDescriptor<ReqT, RespT> method,
+            CallOptions callOptions,
+            Channel next) {
+
+        String compressor = compressorFor(method.getFullMethodName());
+        if (compressor == null || compressor.equals(callOptions.getCompressor())) {
+            return next.newCall(method, callOptions);
+        }
+        return next.newCall(method, callOptions.withCompression(compressor));
+    }
+}
@@ -0,0 +1,322 @@
+package com.mapbox.core.interceptors;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mapbox.core.limit.GradientLimit;
+import io.grpc.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps in-flight unary calls at an adaptive limit derived from observed RTT
+ * A call over the limit waits in a bounded FIFO queue for up to {@code queueTimeoutMs}
+ * and fails with RESOURCE_EXHAUSTED when the queue is full or the wait expires; with
+ * {@code maxQueueSize = 0} it fails immediately. Waiting never blocks a thread: the call's
+ * operations are buffered and replayed once it is admitted. RTT is measured from
+ * admission to close, so queueing time does not feed back into the limit.
+ * Streaming calls pass through, since their lifetime says nothing about server load.
+ * Registered inside {@link RetryInterceptor}, so each attempt is limited separately; a
+ * rejection carries the {@link #REJECTED} trailer so it is neither retried nor charged
+ * to the retry budget. Local closes are delivered on the call's executor, never inline.
+ */
+public class ConcurrencyLimitInterceptor implements ClientInterceptor {
+
+    /** Trailer marking a call failed by the limiter itself, without reaching the server */
+    public static final Metadata.Key<String> REJECTED =
+            Metadata.Key.of("x-client-rejected", Metadata.ASCII_STRING_MARSHALLER);
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("grpc-limiter-%d").setDaemon(true).build());
+
+    private final GradientLimit limit;
+    private final int maxQueueSize;
+    private final long queueTimeoutNanos;
+
+    // Guarded by this
+    private final ArrayDeque<LimitedCall<?, ?>> queue = new ArrayDeque<>();
+    private int inFlight;
+
+    private final AtomicLong admitted = new AtomicLong(0);
+    private final AtomicLong queued = new AtomicLong(0);
+    private final AtomicLong rejected = new AtomicLong(0);
+    private final AtomicLong timedOut = new AtomicLong(0);
+
+    public ConcurrencyLimitInterceptor(GradientLimit limit, int maxQueueSize, long queueTimeoutMs) {
+        this.limit = limit;
+        this.maxQueueSize = Math.max(0, maxQueueSize);
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMs);
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+            MethodDescriptor<ReqT, RespT> method,
+            CallOptions callOptions,
+            Channel next) {
+
+        if (method.getType() != MethodDescriptor.MethodType.UNARY) {
+            return next.newCall(method, callOptions);
+        }
+        return new LimitedCall<>(next.newCall(method, callOptions), method.getFullMethodName(), callOptions);
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getAdmittedCount() {
+        return admitted.get();
+    }
+
+    public long getQueuedCount() {
+        return queued.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public long getTimedOutCount() {
+        return timedOut.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("limit %d, %d in flight, %d queued now; %d admitted, %d waited, %d rejected, %d timed out",
+                getLimit(), getInFlight(), getQueueDepth(), getAdmittedCount(), getQueuedCount(),
+                getRejectedCount(), getTimedOutCount());
+    }
+
+    /**
+     * Admit a call now, queue it, or reject it
+     */
+    private void acquire(LimitedCall<?, ?> call) {
+        boolean admit = false;
+        boolean reject = false;
+        synchronized (this) {
+            if (inFlight < limit.getLimit() && queue.isEmpty()) {
+                inFlight++;
+                admit = true;
+            } else if (queue.size() < maxQueueSize) {
+                queue.add(call);
+                queued.incrementAndGet();
+                call.timeout = scheduler.schedule(() -> expire(call), queueTimeoutNanos, TimeUnit.NANOSECONDS);
+            } else {
+                reject = true;
+            }
+        }
+
+        if (admit) {
+            admitted.incrementAndGet();
+            call.admit();
+        } else if (reject) {
+            rejected.incrementAndGet();
+            call.closeLocally(Status.RESOURCE_EXHAUSTED.withDescription(
+                    "Client concurrency limit of " + limit.getLimit() + " reached for " + call.methodName),
+                    rejection("concurrency-limit"));
+        }
+    }
+
+    /**
+     * Return a permit, update the limit and admit queued calls that now fit
+     */
+    private void release(long rttNanos, Status status) {
+        List<LimitedCall<?, ?>> ready = new ArrayList<>();
+        synchronized (this) {
+            if (status.getCode() != Status.Code.CANCELLED) {
+                limit.onSample(rttNanos, inFlight, isDrop(status));
+            }
+            inFlight--;
+            while (inFlight < limit.getLimit() && !queue.isEmpty()) {
+                inFlight++;
+                ready.add(queue.poll());
+            }
+        }
+
+        for (LimitedCall<?, ?> call : ready) {
+            call.timeout.cancel(false);
+            admitted.incrementAndGet();
+            call.admit();
+        }
+    }
+
+    private void expire(LimitedCall<?, ?> call) {
+        synchronized (this) {
+            if (!queue.remove(call)) {
+                return;
+            }
+        }
+        timedOut.incrementAndGet();
+        call.closeLocally(Status.RESOURCE_EXHAUSTED.withDescription(
+                "Timed out waiting for client concurrency limit for " + call.methodName),
+                rejection("queue-timeout"));
+    }
+
+    private boolean dequeue(LimitedCall<?, ?> call) {
+        synchronized (this) {
+            return queue.remove(call);
+        }
+    }
+
+    private static Metadata rejection(String reason) {
+        Metadata trailers = new Metadata();
+        trailers.put(REJECTED, reason);
+        return trailers;
+    }
+
+    private static boolean isDrop(Status status) {
+        return status.getCode() == Status.Code.DEADLINE_EXCEEDED ||
+               status.getCode() == Status.Code.UNAVAILABLE ||
+               status.getCode() == Status.Code.RESOURCE_EXHAUSTED;
+    }
+
+    /**
+     * Call whose operations are buffered until it holds a permit
+     */
+    private class LimitedCall<ReqT, RespT> extends ClientCall<ReqT, RespT> {
+
+        private final ClientCall<ReqT, RespT> delegate;
+        private final String methodName;
+        private final Executor callbacks;
+        private volatile ScheduledFuture<?> timeout;
+
+        // Guarded by this; pending is null once admitted and drained
+        private List<Runnable> pending = new ArrayList<>();
+        private Listener<RespT> listener;
+        private boolean closed;
+
+        LimitedCall(ClientCall<ReqT, RespT> delegate, String methodName, CallOptions callOptions) {
+            this.delegate = delegate;
+            this.methodName = methodName;
+            this.callbacks = LocalCallbacks.forCall(callOptions);
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            synchronized (this) {
+                listener = responseListener;
+                pending.add(() -> startDelegate(responseListener, headers));
+            }
+            acquire(this);
+        }
+
+        @Override
+        public void request(int numMessages) {
+            runOrBuffer(() -> delegate.request(numMessages));
+        }
+
+        @Override
+        public void setMessageCompression(boolean enabled) {
+            runOrBuffer(() -> delegate.setMessageCompression(enabled));
+        }
+
+        @Override
+        public void sendMessage(ReqT message) {
+            runOrBuffer(() -> delegate.sendMessage(message));
+        }
+
+        @Override
+        public void halfClose() {
+            runOrBuffer(delegate::halfClose);
+        }
+
+        @Override
+        public void cancel(String message, Throwable cause) {
+            boolean started;
+            synchronized (this) {
+                started = pending == null;
+            }
+            if (started) {
+                delegate.cancel(message, cause);
+            } else if (dequeue(this)) {
+                timeout.cancel(false);
+                closeLocally(Status.CANCELLED.withDescription(message).withCause(cause), new Metadata());
+            } else {
+                // Being admitted right now: cancel once the delegate has started
+                runOrBuffer(() -> delegate.cancel(message, cause));
+            }
+        }
+
+        @Override
+        public synchronized boolean isReady() {
+            return pending == null && !closed && delegate.isReady();
+        }
+
+        @Override
+        public Attributes getAttributes() {
+            return delegate.getAttributes();
+        }
+
+        private void runOrBuffer(Runnable operation) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (pending != null) {
+                    pending.add(operation);
+                    return;
+                }
+            }
+            operation.run();
+        }
+
+        /**
+         * Replay buffered operations in order, including any added while replaying
+         */
+        void admit() {
+            while (true) {
+                List<Runnable> operations;
+                synchronized (this) {
+                    if (pending.isEmpty()) {
+                        pending = null;
+                        return;
+                    }
+                    operations = pending;
+                    pending = new ArrayList<>();
+                }
+                operations.forEach(Runnable::run);
+            }
+        }
+
+        /**
+         * Close a call that never reached the delegate, on the call's executor
+         */
+        void closeLocally(Status status, Metadata trailers) {
+            Listener<RespT> target;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                pending = List.of();
+                target = listener;
+            }
+            callbacks.execute(() -> target.onClose(status, trailers));
+        }
+
+        private void startDelegate(Listener<RespT> responseListener, Metadata headers) {
+            long admittedNanos = System.nanoTime();
+            delegate.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<RespT>(responseListener) {
+                @Override
+                public void onClose(Status status, Metadata trailers) {
+                    release(System.nanoTime() - admittedNanos, status);
+                    super.onClose(status, trailers);
+                }
+            }, headers);
+        }
+    }
+}
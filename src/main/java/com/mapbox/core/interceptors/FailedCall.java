@@ -0,0 +1,45 @@
+package com.mapbox.core.interceptors;
+
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.Metadata;
+import io.grpc.Status;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Call that fails on start without reaching the transport
+ * The close is delivered on the call's executor like a transport response, so it never
+ * re-enters outer interceptors before their own {@code start()} has returned. Every other
+ * operation, including a cancel before the close is delivered, is a no-op.
+ */
+public final class FailedCall<ReqT, RespT> extends ClientCall<ReqT, RespT> {
+    private final Status status;
+    private final Executor callbacks;
+
+    public FailedCall(Status status, CallOptions callOptions) {
+        this.status = status;
+        this.callbacks = LocalCallbacks.forCall(callOptions);
+    }
+
+    @Override
+    public void start(Listener<RespT> responseListener, Metadata headers) {
+        callbacks.execute(() -> responseListener.onClose(status, new Metadata()));
+    }
+
+    @Override
+    public void request(int numMessages) {
+    }
+
+    @Override
+    public void cancel(String message, Throwable cause) {
+    }
+
+    @Override
+    public void halfClose() {
+    }
+
+    @Override
+    public void sendMessage(ReqT message) {
+    }
+}
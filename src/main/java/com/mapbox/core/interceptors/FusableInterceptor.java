@@ -0,0 +1,19 @@
+package com.mapbox.core.interceptors;
+
+import io.grpc.ClientInterceptor;
+import io.grpc.MethodDescriptor;
+
+/**
+ * Interceptor that can also run as a {@link CallHook} inside a {@link FusedInterceptor}
+ * Fused, neighbouring interceptors share one call wrapper and one listener instead of
+ * allocating a pair each per call.
+ */
+public interface FusableInterceptor extends ClientInterceptor {
+
+    /**
+     * Hook doing this interceptor's work for a method, resolved once per method
+     *
+     * @return the hook, or null when the interceptor does nothing for the method
+     */
+    CallHook hookFor(MethodDescriptor<?, ?> method);
+}
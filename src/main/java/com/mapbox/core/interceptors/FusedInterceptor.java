@@ -0,0 +1,238 @@
+package com.mapbox.core.interceptors;
+
+import io.grpc.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs neighbouring {@link FusableInterceptor}s inside one call wrapper and one listener
+ * Stacked interceptors each allocate a forwarding call and a forwarding listener per RPC,
+ * even when their work is a no-op for the method. Fused, the parts' {@link CallHook}s are
+ * resolved once per method into a plan listing, per event, only the hooks that handle it;
+ * a call costs one wrapper, one listener and one state array, and a method no part cares
+ * about is not wrapped at all. Hooks see events in the order the stacked chain would
+ * deliver them: outbound from the outermost part inwards, inbound the other way round.
+ */
+public class FusedInterceptor implements ClientInterceptor {
+
+    private final List<FusableInterceptor> parts;
+    private final ConcurrentHashMap<String, Plan> plans = new ConcurrentHashMap<>();
+
+    /**
+     * @param parts in channel order: the first part is innermost, as with {@code ManagedChannelBuilder.intercept}
+     */
+    public FusedInterceptor(List<? extends FusableInterceptor> parts) {
+        this.parts = List.copyOf(parts);
+    }
+
+    /**
+     * The fused interceptors, innermost first
+     */
+    public List<FusableInterceptor> getParts() {
+        return parts;
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+            MethodDescriptor<ReqT, RespT> method,
+            CallOptions callOptions,
+            Channel next) {
+
+        Plan plan = plans.get(method.getFullMethodName());
+        if (plan == null) {
+            plan = plans.computeIfAbsent(method.getFullMethodName(), k -> compile(method));
+        }
+        if (plan.size == 0) {
+            return next.newCall(method, callOptions);
+        }
+
+        Object[] states;
+        try {
+            states = plan.begin();
+        } catch (StatusRuntimeException e) {
+            return new FailedCall<>(e.getStatus(), callOptions);
+        }
+        if (states == null) {
+            return next.newCall(method, callOptions);
+        }
+        return new FusedCall<>(next.newCall(method, callOptions), plan, states);
+    }
+
+    private Plan compile(MethodDescriptor<?, ?> method) {
+        List<CallHook> hooks = new ArrayList<>();
+        for (FusableInterceptor part : parts) {
+            CallHook hook = part.hookFor(method);
+            if (hook != null) {
+                hooks.add(hook);
+            }
+        }
+        Collections.reverse(hooks);
+        return new Plan(hooks.toArray(new CallHook[0]));
+    }
+
+    /**
+     * Hooks of one method per event, in dispatch order, with the index of each one's state
+     */
+    private static final class Plan {
+        final int size;
+        final Dispatch begin;
+        final Dispatch start;
+        final Dispatch sendMessage;
+        final Dispatch headers;
+        final Dispatch message;
+        final Dispatch close;
+
+        /**
+         * @param hooks outermost first
+         */
+        Plan(CallHook[] hooks) {
+            this.size = hooks.length;
+            this.begin = new Dispatch(hooks, CallHook.BEGIN, false);
+            this.start = new Dispatch(hooks, CallHook.START, false);
+            this.sendMessage = new Dispatch(hooks, CallHook.SEND_MESSAGE, false);
+            this.headers = new Dispatch(hooks, CallHook.HEADERS, true);
+            this.message = new Dispatch(hooks, CallHook.MESSAGE, true);
+            this.close = new Dispatch(hooks, CallHook.CLOSE, true);
+        }
+
+        /**
+         * Per-call states, or null when every hook skips the call
+         */
+        Object[] begin() {
+            Object[] states = new Object[size];
+            CallHook[] hooks = begin.hooks;
+            int[] slots = begin.slots;
+            boolean active = hooks.length < size;
+            for (int i = 0; i < hooks.length; i++) {
+                Object state = hooks[i].begin();
+                states[slots[i]] = state;
+                active |= state != CallHook.SKIP;
+            }
+            return active ? states : null;
+        }
+    }
+
+    /**
+     * The hooks handling one event and the state slot of each
+     */
+    private static final class Dispatch {
+        final CallHook[] hooks;
+        final int[] slots;
+
+        /**
+         * @param inbound deliver innermost first, as stacked listeners would
+         */
+        Dispatch(CallHook[] all, int event, boolean inbound) {
+            List<Integer> indexes = new ArrayList<>();
+            for (int i = 0; i < all.length; i++) {
+                if (all[i].handles(event)) {
+                    indexes.add(i);
+                }
+            }
+            if (inbound) {
+                Collections.reverse(indexes);
+            }
+            this.hooks = new CallHook[indexes.size()];
+            this.slots = new int[indexes.size()];
+            for (int i = 0; i < hooks.length; i++) {
+                slots[i] = indexes.get(i);
+                hooks[i] = all[slots[i]];
+            }
+        }
+    }
+
+    private static final class FusedCall<ReqT, RespT> extends ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT> {
+        private final Plan plan;
+        private final Object[] states;
+        private long startNanos;
+
+        FusedCall(ClientCall<ReqT, RespT> delegate, Plan plan, Object[] states) {
+            super(delegate);
+            this.plan = plan;
+            this.states = states;
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            startNanos = System.nanoTime();
+            CallHook[] hooks = plan.start.hooks;
+            int[] slots = plan.start.slots;
+            for (int i = 0; i < hooks.length; i++) {
+                Object state = states[slots[i]];
+                if (state != CallHook.SKIP) {
+                    hooks[i].onStart(state, headers);
+                }
+            }
+            super.start(new FusedListener<>(responseListener, this), headers);
+        }
+
+        @Override
+        public void sendMessage(ReqT message) {
+            CallHook[] hooks = plan.sendMessage.hooks;
+            int[] slots = plan.sendMessage.slots;
+            for (int i = 0; i < hooks.length; i++) {
+                Object state = states[slots[i]];
+                if (state != CallHook.SKIP) {
+                    hooks[i].onSendMessage(state, message);
+                }
+            }
+            super.sendMessage(message);
+        }
+    }
+
+    private static final class FusedListener<RespT> extends ForwardingClientCallListener.SimpleForwardingClientCallListener<RespT> {
+        private final Plan plan;
+        private final Object[] states;
+        private final FusedCall<?, RespT> call;
+
+        FusedListener(ClientCall.Listener<RespT> delegate, FusedCall<?, RespT> call) {
+            super(delegate);
+            this.plan = call.plan;
+            this.states = call.states;
+            this.call = call;
+        }
+
+        @Override
+        public void onHeaders(Metadata headers) {
+            CallHook[] hooks = plan.headers.hooks;
+            int[] slots = plan.headers.slots;
+            for (int i = 0; i < hooks.length; i++) {
+                Object state = states[slots[i]];
+                if (state != CallHook.SKIP) {
+                    hooks[i].onHeaders(state, headers);
+                }
+            }
+            super.onHeaders(headers);
+        }
+
+        @Override
+        public void onMessage(RespT message) {
+            CallHook[] hooks = plan.message.hooks;
+            int[] slots = plan.message.slots;
+            for (int i = 0; i < hooks.length; i++) {
+                Object state = states[slots[i]];
+                if (state != CallHook.SKIP) {
+                    hooks[i].onMessage(state, message);
+                }
+            }
+            super.onMessage(message);
+        }
+
+        @Override
+        public void onClose(Status status, Metadata trailers) {
+            long elapsedNanos = System.nanoTime() - call.startNanos;
+            CallHook[] hooks = plan.close.hooks;
+            int[] slots = plan.close.slots;
+            for (int i = 0; i < hooks.length; i++) {
+                Object state = states[slots[i]];
+                if (state != CallHook.SKIP) {
+                    hooks[i].onClose(state, elapsedNanos, status, trailers);
+                }
+            }
+            super.onClose(status, trailers);
+        }
+    }
+}
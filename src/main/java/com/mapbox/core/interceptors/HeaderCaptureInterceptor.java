@@ -1,20 +1,56 @@
 package com.mapbox.core.interceptors;
 
 import io.grpc.*;
-import lombok.Getter;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 /**
- * Interceptor to capture and store response headers and trailers
+ * Interceptor to capture response headers and trailers into the calling {@link Capture}
+ * Calls started within a context carrying {@link #CAPTURE_KEY} record their metadata there,
+ * so concurrent calls to the same method never see each other's headers; other calls pass
+ * through unwrapped. Only allowlisted keys are copied, so a response keeps just the bytes a
+ * test asserts on rather than the transport's full {@link Metadata}; keeping everything is
+ * an explicit opt-in with {@link #ALL_KEYS}. Registered inside retry, so the last attempt's
+ * metadata wins.
  */
-public class HeaderCaptureInterceptor implements ClientInterceptor {
+public class HeaderCaptureInterceptor implements FusableInterceptor {
 
-    @Getter
-    private final ConcurrentHashMap<String, Metadata> capturedHeaders = new ConcurrentHashMap<>();
+    public static final Context.Key<Capture> CAPTURE_KEY = Context.key("mapbox-header-capture");
 
-    @Getter
-    private final ConcurrentHashMap<String, Metadata> capturedTrailers = new ConcurrentHashMap<>();
+    /** Allowlist entry that keeps the full headers and trailers */
+    public static final String ALL_KEYS = "*";
+
+    private final boolean allKeys;
+    private final List<Metadata.Key<String>> asciiKeys = new ArrayList<>();
+    private final List<Metadata.Key<byte[]>> binaryKeys = new ArrayList<>();
+
+    /**
+     * Capture full headers and trailers, the same as an allowlist of {@link #ALL_KEYS}
+     */
+    public HeaderCaptureInterceptor() {
+        this(List.of(ALL_KEYS));
+    }
+
+    /**
+     * Capture only the given keys, or everything when they include {@link #ALL_KEYS}
+     *
+     * @param keys header names, {@code -bin} suffixed names are captured as binary values
+     */
+    public HeaderCaptureInterceptor(Collection<String> keys) {
+        this.allKeys = keys.contains(ALL_KEYS);
+        if (allKeys) {
+            return;
+        }
+        for (String key : keys) {
+            if (key.endsWith(Metadata.BINARY_HEADER_SUFFIX)) {
+                binaryKeys.add(Metadata.Key.of(key, Metadata.BINARY_BYTE_MARSHALLER));
+            } else {
+                asciiKeys.add(Metadata.Key.of(key, Metadata.ASCII_STRING_MARSHALLER));
+            }
+        }
+    }
 
     @Override
     public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
@@ -22,7 +58,10 @@ public class HeaderCaptureInterceptor implements ClientInterceptor {
             CallOptions callOptions,
             Channel next) {
 
-        String methodName = method.getFullMethodName();
+        Capture capture = CAPTURE_KEY.get();
+        if (capture == null) {
+            return next.newCall(method, callOptions);
+        }
 
         return new ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT>(
                 next.newCall(method, callOptions)) {
@@ -33,13 +72,13 @@ public class HeaderCaptureInterceptor implements ClientInterceptor {
 
                     @Override
                     public void onHeaders(Metadata headers) {
-                        capturedHeaders.put(methodName, headers);
+                        capture.headers = retain(headers);
                         super.onHeaders(headers);
                     }
 
                     @Override
                     public void onClose(Status status, Metadata trailers) {
-                        capturedTrailers.put(methodName, trailers);
+                        capture.trailers = retain(trailers);
                         super.onClose(status, trailers);
                     }
                 }, headers);
@@ -47,17 +86,72 @@ public class HeaderCaptureInterceptor implements ClientInterceptor {
         };
     }
 
-    public Metadata getHeaders(String methodName) {
-        return capturedHeaders.get(methodName);
+    @Override
+    public CallHook hookFor(MethodDescriptor<?, ?> method) {
+        return new CallHook(CallHook.BEGIN | CallHook.HEADERS | CallHook.CLOSE) {
+            @Override
+            public Object begin() {
+                Capture capture = CAPTURE_KEY.get();
+                return capture != null ? capture : SKIP;
+            }
+
+            @Override
+            public void onHeaders(Object state, Metadata headers) {
+                ((Capture) state).headers = retain(headers);
+            }
+
+            @Override
+            public void onClose(Object state, long elapsedNanos, Status status, Metadata trailers) {
+                ((Capture) state).trailers = retain(trailers);
+            }
+        };
+    }
+
+    /**
+     * The metadata itself when capturing all keys, otherwise a copy of the allowed keys
+     */
+    private Metadata retain(Metadata source) {
+        if (allKeys) {
+            return source;
+        }
+        Metadata retained = new Metadata();
+        for (Metadata.Key<String> key : asciiKeys) {
+            copy(source, retained, key);
+        }
+        for (Metadata.Key<byte[]> key : binaryKeys) {
+            copy(source, retained, key);
+        }
+        return retained;
     }
 
-    public Metadata getTrailers(String methodName) {
-        return capturedTrailers.get(methodName);
+    private static <T> void copy(Metadata source, Metadata target, Metadata.Key<T> key) {
+        Iterable<T> values = source.getAll(key);
+        if (values != null) {
+            for (T value : values) {
+                target.put(key, value);
+            }
+        }
     }
 
-    public void clear() {
-        capturedHeaders.clear();
-        capturedTrailers.clear();
+    /**
+     * Headers and trailers of one logical call, filled in as the call progresses
+     */
+    public static final class Capture {
+        private volatile Metadata headers;
+        private volatile Metadata trailers;
+
+        /**
+         * Response headers, or null when the server answered trailers-only
+         */
+        public Metadata getHeaders() {
+            return headers;
+        }
+
+        /**
+         * Response trailers, or null before the call closed
+         */
+        public Metadata getTrailers() {
+            return trailers;
+        }
     }
 }
-
@@ -0,0 +1,146 @@
+package com.mapbox.core.interceptors;
+
+import com.google.protobuf.MessageLite;
+import com.mapbox.core.tracing.CallTimeline;
+import com.mapbox.core.tracing.GrpcCallEvent;
+import com.mapbox.core.tracing.GrpcMessageEvent;
+import io.grpc.*;
+import jdk.jfr.EventType;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Emits Java Flight Recorder events for calls and streaming messages
+ * One {@link GrpcCallEvent} spans each attempt with its status, message counts, wire bytes
+ * and {@link CallTimeline} phases; streaming calls also emit a {@link GrpcMessageEvent} per
+ * message. Both event types are disabled by default: while no recording enables them the
+ * interceptor returns the call unwrapped, so it costs one flag check per call. Enable them
+ * with {@code Recording.enable(GrpcCallEvent.NAME)} or in a {@code .jfc} settings file.
+ * Registered next to {@link CallTimelineInterceptor}, inside retry, so every attempt is
+ * an event of its own.
+ */
+public class JfrEventInterceptor implements ClientInterceptor {
+
+    private static final EventType CALL_EVENT = EventType.getEventType(GrpcCallEvent.class);
+    private static final EventType MESSAGE_EVENT = EventType.getEventType(GrpcMessageEvent.class);
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+            MethodDescriptor<ReqT, RespT> method,
+            CallOptions callOptions,
+            Channel next) {
+
+        boolean callEvents = CALL_EVENT.isEnabled();
+        boolean messageEvents = method.getType() != MethodDescriptor.MethodType.UNARY && MESSAGE_EVENT.isEnabled();
+        if (!callEvents && !messageEvents) {
+            return next.newCall(method, callOptions);
+        }
+
+        WireBytes wireBytes = new WireBytes();
+        String methodName = method.getFullMethodName();
+        CallTimeline timeline = CallTimeline.current();
+
+        return new ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT>(
+                next.newCall(method, callEvents ? callOptions.withStreamTracerFactory(wireBytes) : callOptions)) {
+
+            private final GrpcCallEvent event = callEvents ? new GrpcCallEvent() : null;
+            private final AtomicLong sent = new AtomicLong();
+            private final AtomicLong received = new AtomicLong();
+
+            @Override
+            public void start(Listener<RespT> responseListener, Metadata headers) {
+                if (event != null) {
+                    event.begin();
+                }
+                RetryInterceptor.Attempts attempts = RetryInterceptor.ATTEMPTS_KEY.get();
+                int attempt = attempts != null ? attempts.get() : 1;
+
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<RespT>(responseListener) {
+
+                    @Override
+                    public void onMessage(RespT message) {
+                        long sequence = received.getAndIncrement();
+                        if (messageEvents) {
+                            emitMessage(methodName, "RECEIVED", sequence, message);
+                        }
+                        super.onMessage(message);
+                    }
+
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        if (event != null) {
+                            event.end();
+                            if (event.shouldCommit()) {
+                                commit(status, attempt);
+                            }
+                        }
+                        super.onClose(status, trailers);
+                    }
+                }, headers);
+            }
+
+            @Override
+            public void sendMessage(ReqT message) {
+                long sequence = sent.getAndIncrement();
+                if (messageEvents) {
+                    emitMessage(methodName, "SENT", sequence, message);
+                }
+                super.sendMessage(message);
+            }
+
+            private void commit(Status status, int attempt) {
+                event.setMethod(methodName);
+                event.setMethodType(method.getType().name());
+                event.setStatus(status.getCode().name());
+                event.setDescription(status.getDescription());
+                event.setAttempt(Math.max(1, attempt));
+                event.setMessagesSent(sent.get());
+                event.setMessagesReceived(received.get());
+                event.setBytesSent(wireBytes.sent.get());
+                event.setBytesReceived(wireBytes.received.get());
+
+                event.setQueueingNanos(timeline != null ? timeline.getQueueingNanos() : -1);
+                event.setSendNanos(timeline != null ? timeline.getSendNanos() : -1);
+                event.setServerNanos(timeline != null ? timeline.getServerNanos() : -1);
+                event.setReceiveNanos(timeline != null ? timeline.getReceiveNanos() : -1);
+                event.setDeserializationNanos(timeline != null ? timeline.getDeserializationNanos() : -1);
+                event.commit();
+            }
+        };
+    }
+
+    private static void emitMessage(String methodName, String direction, long sequence, Object message) {
+        GrpcMessageEvent event = new GrpcMessageEvent();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.setMethod(methodName);
+        event.setDirection(direction);
+        event.setSequence(sequence);
+        event.setSize(message instanceof MessageLite ? ((MessageLite) message).getSerializedSize() : -1);
+        event.commit();
+    }
+
+    /**
+     * Counts wire bytes of one attempt, compressed size as framed on the transport
+     */
+    private static final class WireBytes extends ClientStreamTracer.Factory {
+        final AtomicLong sent = new AtomicLong();
+        final AtomicLong received = new AtomicLong();
+
+        @Override
+        public ClientStreamTracer newClientStreamTracer(ClientStreamTracer.StreamInfo info, Metadata headers) {
+            return new ClientStreamTracer() {
+                @Override
+                public void outboundWireSize(long bytes) {
+                    sent.addAndGet(bytes);
+                }
+
+                @Override
+                public void inboundWireSize(long bytes) {
+                    received.addAndGet(bytes);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.mapbox.core.interceptors;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.grpc.CallOptions;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Executor for listener callbacks an interceptor produces itself, without the transport
+ * Runs them on the call's executor from {@link CallOptions} (a blocking stub's, for one),
+ * otherwise on a shared daemon pool, so they never run inline on the thread that started
+ * or cancelled the call or on an interceptor's scheduler. Callbacks of one call run in order.
+ */
+public final class LocalCallbacks {
+
+    private static final Executor shared = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setNameFormat("grpc-local-callback-%d").setDaemon(true).build());
+
+    private LocalCallbacks() {
+    }
+
+    /**
+     * Serializing executor for one call's locally produced callbacks
+     */
+    public static Executor forCall(CallOptions callOptions) {
+        Executor executor = callOptions.getExecutor();
+        return MoreExecutors.newSequentialExecutor(executor != null ? executor : shared);
+    }
+}
@@ -1,22 +1,81 @@
 package com.mapbox.core.interceptors;
 
-import com.google.protobuf.Message;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.MessageOrBuilder;
 import com.google.protobuf.util.JsonFormat;
+import com.mapbox.core.logging.RingBuffer;
 import io.grpc.*;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
 /**
  * Logging interceptor that logs gRPC requests and responses in JSON format
+ * Payloads are logged for a sample of calls: every {@code sampleEvery}-th call, further
+ * capped at {@code maxCallsPerSecond} when that is positive. Rendered payloads longer
+ * than {@code maxPayloadChars} are cut off, and rendering stops at the cap so a large
+ * message costs no more than a small one. With a positive {@code queueSize}, messages are
+ * handed to a background thread through a lock-free {@link RingBuffer} and rendered there;
+ * when the ring is full the payload is dropped and counted rather than blocking the call.
+ * The thread sleeps while the ring is empty and is woken by the next payload; close the
+ * interceptor to flush and stop it. Failed calls are always logged.
  */
 @Slf4j
-public class LoggingInterceptor implements ClientInterceptor {
+public class LoggingInterceptor implements FusableInterceptor, AutoCloseable {
 
     private final JsonFormat.Printer jsonPrinter;
+    private final boolean logRequests;
+    private final boolean logResponses;
+    private final int sampleEvery;
+    private final long permitIntervalNanos;
+    private final int maxPayloadChars;
+    private final RingBuffer<Entry> queue;
+    private final Thread worker;
+    private volatile boolean idle;
+    private volatile boolean closed;
+
+    private final AtomicLong calls = new AtomicLong(0);
+    private final AtomicLong nextPermitNanos = new AtomicLong(System.nanoTime());
+    private final AtomicLong logged = new AtomicLong(0);
+    private final AtomicLong dropped = new AtomicLong(0);
+    private final AtomicLong truncated = new AtomicLong(0);
 
+    /**
+     * Log every request and response in full, inline
+     */
     public LoggingInterceptor() {
+        this(true, true, 1, 0, 0, 0);
+    }
+
+    /**
+     * @param sampleEvery log payloads of one call in this many; 1 logs every call
+     * @param maxCallsPerSecond most sampled calls per second; 0 for no limit
+     * @param maxPayloadChars longest rendered payload; 0 for no limit
+     * @param queueSize ring size for background rendering; 0 renders on the calling thread
+     */
+    public LoggingInterceptor(boolean logRequests, boolean logResponses, int sampleEvery,
+                              double maxCallsPerSecond, int maxPayloadChars, int queueSize) {
         this.jsonPrinter = JsonFormat.printer()
                 .includingDefaultValueFields()
                 .preservingProtoFieldNames();
+        this.logRequests = logRequests;
+        this.logResponses = logResponses;
+        this.sampleEvery = Math.max(1, sampleEvery);
+        this.permitIntervalNanos = maxCallsPerSecond > 0 ? (long) (1_000_000_000L / maxCallsPerSecond) : 0;
+        this.maxPayloadChars = Math.max(0, maxPayloadChars);
+        this.queue = queueSize > 0 ? new RingBuffer<>(queueSize) : null;
+
+        if (queue != null) {
+            worker = new ThreadFactoryBuilder().setNameFormat("grpc-logging-%d").setDaemon(true).build()
+                    .newThread(this::drain);
+            worker.start();
+        } else {
+            worker = null;
+        }
     }
 
     @Override
@@ -25,12 +84,16 @@ public class LoggingInterceptor implements ClientInterceptor {
             CallOptions callOptions,
             Channel next) {
 
+        boolean sampled = (logRequests || logResponses) && log.isInfoEnabled() && sample();
+
         return new ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT>(
                 next.newCall(method, callOptions)) {
 
             @Override
             public void sendMessage(ReqT message) {
-                logRequest(method.getFullMethodName(), message);
+                if (sampled && logRequests) {
+                    submit(Direction.REQUEST, method.getFullMethodName(), message);
+                }
                 super.sendMessage(message);
             }
 
@@ -40,16 +103,15 @@ public class LoggingInterceptor implements ClientInterceptor {
 
                     @Override
                     public void onMessage(RespT message) {
-                        logResponse(method.getFullMethodName(), message);
+                        if (sampled && logResponses) {
+                            submit(Direction.RESPONSE, method.getFullMethodName(), message);
+                        }
                         super.onMessage(message);
                     }
 
                     @Override
                     public void onClose(Status status, Metadata trailers) {
-                        if (!status.isOk()) {
-                            log.error("gRPC call failed - Method: {}, Status: {}, Description: {}",
-                                    method.getFullMethodName(), status.getCode(), status.getDescription());
-                        }
+                        logFailure(method.getFullMethodName(), status);
                         super.onClose(status, trailers);
                     }
                 }, headers);
@@ -57,33 +119,242 @@ public class LoggingInterceptor implements ClientInterceptor {
         };
     }
 
-    private <T> void logRequest(String methodName, T message) {
+    @Override
+    public CallHook hookFor(MethodDescriptor<?, ?> method) {
+        String methodName = method.getFullMethodName();
+
+        return new CallHook(CallHook.BEGIN | CallHook.SEND_MESSAGE | CallHook.MESSAGE | CallHook.CLOSE) {
+            @Override
+            public Object begin() {
+                return (logRequests || logResponses) && log.isInfoEnabled() && sample();
+            }
+
+            @Override
+            public void onSendMessage(Object sampled, Object message) {
+                if ((Boolean) sampled && logRequests) {
+                    submit(Direction.REQUEST, methodName, message);
+                }
+            }
+
+            @Override
+            public void onMessage(Object sampled, Object message) {
+                if ((Boolean) sampled && logResponses) {
+                    submit(Direction.RESPONSE, methodName, message);
+                }
+            }
+
+            @Override
+            public void onClose(Object sampled, long elapsedNanos, Status status, Metadata trailers) {
+                logFailure(methodName, status);
+            }
+        };
+    }
+
+    private static void logFailure(String methodName, Status status) {
+        if (!status.isOk()) {
+            log.error("gRPC call failed - Method: {}, Status: {}, Description: {}",
+                    methodName, status.getCode(), status.getDescription());
+        }
+    }
+
+    /**
+     * Payloads written to the log
+     */
+    public long getLoggedCount() {
+        return logged.get();
+    }
+
+    /**
+     * Payloads dropped because the ring was full or the interceptor closed
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Payloads cut off at the size cap
+     */
+    public long getTruncatedCount() {
+        return truncated.get();
+    }
+
+    /**
+     * Calls seen, sampled or not
+     */
+    public long getCallCount() {
+        return calls.get();
+    }
+
+    /**
+     * Write everything still queued and stop the background thread
+     */
+    @Override
+    public void close() {
+        if (worker == null) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(worker);
         try {
-            log.info("\n=== gRPC REQUEST ===\nMethod: {}\nPayload: {}",
-                    methodName, formatMessage(message));
-        } catch (Exception e) {
-            log.warn("Failed to log request", e);
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d calls, %d payloads logged, %d dropped, %d truncated, %d queued",
+                getCallCount(), getLoggedCount(), getDroppedCount(), getTruncatedCount(),
+                queue != null ? queue.size() : 0);
+    }
+
+    /**
+     * Decide whether this call's payloads are logged
+     */
+    private boolean sample() {
+        if (calls.getAndIncrement() % sampleEvery != 0) {
+            return false;
         }
+        if (permitIntervalNanos == 0) {
+            return true;
+        }
+        long now = System.nanoTime();
+        long permit = nextPermitNanos.get();
+        return now - permit >= 0 && nextPermitNanos.compareAndSet(permit, now + permitIntervalNanos);
     }
 
-    private <T> void logResponse(String methodName, T message) {
+    private void submit(Direction direction, String methodName, Object message) {
+        Entry entry = new Entry(direction, methodName, message);
+        if (queue == null) {
+            write(entry);
+        } else if (closed || !queue.offer(entry)) {
+            dropped.incrementAndGet();
+        } else if (idle) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    /**
+     * Background loop rendering queued payloads; parks while the ring is empty
+     * The worker raises {@code idle} before its last look at the ring and producers check
+     * it after offering, so a payload is never left behind a parked worker.
+     */
+    private void drain() {
+        while (true) {
+            Entry entry = queue.poll();
+            if (entry != null) {
+                write(entry);
+                continue;
+            }
+            if (closed) {
+                return;
+            }
+            idle = true;
+            entry = queue.poll();
+            if (entry == null && !closed) {
+                LockSupport.park(this);
+            }
+            idle = false;
+            if (entry != null) {
+                write(entry);
+            }
+        }
+    }
+
+    private void write(Entry entry) {
         try {
-            log.info("\n=== gRPC RESPONSE ===\nMethod: {}\nPayload: {}",
-                    methodName, formatMessage(message));
+            log.info("\n=== gRPC {} ===\nMethod: {}\nPayload: {}",
+                    entry.direction, entry.methodName, formatMessage(entry.message));
+            logged.incrementAndGet();
         } catch (Exception e) {
-            log.warn("Failed to log response", e);
+            log.warn("Failed to log {}", entry.direction.name().toLowerCase(), e);
         }
     }
 
-    private <T> String formatMessage(T message) {
+    private String formatMessage(Object message) {
+        CappedAppendable out = new CappedAppendable(maxPayloadChars);
         try {
-            if (message instanceof Message) {
-                return jsonPrinter.print((Message) message);
+            if (message instanceof MessageOrBuilder) {
+                jsonPrinter.appendTo((MessageOrBuilder) message, out);
+            } else {
+                out.append(String.valueOf(message));
+            }
+        } catch (IOException e) {
+            if (!out.full) {
+                return String.valueOf(message);
             }
-            return message.toString();
-        } catch (Exception e) {
-            return message.toString();
         }
+        if (!out.full) {
+            return out.toString();
+        }
+
+        truncated.incrementAndGet();
+        String size = message instanceof MessageLite
+                ? ((MessageLite) message).getSerializedSize() + " bytes on the wire"
+                : "payload over " + maxPayloadChars + " chars";
+        return out + "... (truncated, " + size + ")";
+    }
+
+    private enum Direction {
+        REQUEST, RESPONSE
     }
-}
 
+    private static final class Entry {
+        final Direction direction;
+        final String methodName;
+        final Object message;
+
+        Entry(Direction direction, String methodName, Object message) {
+            this.direction = direction;
+            this.methodName = methodName;
+            this.message = message;
+        }
+    }
+
+    /**
+     * Appendable that aborts rendering once {@code limit} chars are written
+     */
+    private static final class CappedAppendable implements Appendable {
+        private static final IOException LIMIT_REACHED = new IOException("Payload size cap reached") {
+            @Override
+            public synchronized Throwable fillInStackTrace() {
+                return this;
+            }
+        };
+
+        private final StringBuilder buffer = new StringBuilder();
+        private final int limit;
+        private boolean full;
+
+        CappedAppendable(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            if (limit > 0 && buffer.length() + (end - start) > limit) {
+                buffer.append(csq, start, start + (limit - buffer.length()));
+                full = true;
+                throw LIMIT_REACHED;
+            }
+            buffer.append(csq, start, end);
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            return append(String.valueOf(c), 0, 1);
+        }
+
+        @Override
+        public String toString() {
+            return buffer.toString();
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.mapbox.core.interceptors;
+
+import io.grpc.*;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Interceptor recording per-method message sizes from the transport's stream tracer callbacks
+ * Each outbound and inbound message contributes its uncompressed size and its size on the
+ * wire (after compression, before framing) to per-method HdrHistogram recorders, so payload
+ * growth and compression ratios can be read alongside latency. Sizes are reported per
+ * attempt by the transport itself; the in-process transport reports none, so only
+ * network channels produce samples. Not fusable: it works by adding a stream tracer
+ * factory to the call options rather than by wrapping the call.
+ */
+public class MessageSizeInterceptor implements ClientInterceptor {
+
+    private final ConcurrentHashMap<String, MessageSizes> sizesMap = new ConcurrentHashMap<>();
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+            MethodDescriptor<ReqT, RespT> method,
+            CallOptions callOptions,
+            Channel next) {
+
+        MessageSizes sizes = sizesMap.get(method.getFullMethodName());
+        if (sizes == null) {
+            sizes = sizesMap.computeIfAbsent(method.getFullMethodName(), k -> new MessageSizes());
+        }
+        return next.newCall(method, callOptions.withStreamTracerFactory(sizes.tracerFactory));
+    }
+
+    public MessageSizes getSizes(String methodName) {
+        return sizesMap.get(methodName);
+    }
+
+    /**
+     * Live view of the message sizes of every method called so far
+     */
+    public Map<String, MessageSizes> getAllSizes() {
+        return Collections.unmodifiableMap(sizesMap);
+    }
+
+    public void resetSizes() {
+        sizesMap.clear();
+    }
+
+    /**
+     * Direction of a message relative to the client
+     */
+    public enum Direction {
+        SENT,
+        RECEIVED
+    }
+
+    /**
+     * Which size of a message: as serialized, or as framed onto the wire after compression
+     */
+    public enum Encoding {
+        UNCOMPRESSED,
+        WIRE
+    }
+
+    /**
+     * Message size histograms of one method, one per direction and encoding, in bytes
+     */
+    public static class MessageSizes {
+
+        /** Two significant digits: 1% value precision with auto-resizing range */
+        private static final int SIGNIFICANT_DIGITS = 2;
+
+        private final SizeDistribution[] distributions = new SizeDistribution[4];
+
+        /**
+         * Shared by every stream of the method: the tracer holds no per-stream state
+         */
+        private final ClientStreamTracer.Factory tracerFactory;
+
+        MessageSizes() {
+            for (int i = 0; i < distributions.length; i++) {
+                distributions[i] = new SizeDistribution();
+            }
+            SizeDistribution sentWire = distribution(Direction.SENT, Encoding.WIRE);
+            SizeDistribution sentUncompressed = distribution(Direction.SENT, Encoding.UNCOMPRESSED);
+            SizeDistribution receivedWire = distribution(Direction.RECEIVED, Encoding.WIRE);
+            SizeDistribution receivedUncompressed = distribution(Direction.RECEIVED, Encoding.UNCOMPRESSED);
+
+            ClientStreamTracer tracer = new ClientStreamTracer() {
+                @Override
+                public void outboundWireSize(long bytes) {
+                    sentWire.record(bytes);
+                }
+
+                @Override
+                public void outboundUncompressedSize(long bytes) {
+                    sentUncompressed.record(bytes);
+                }
+
+                @Override
+                public void inboundWireSize(long bytes) {
+                    receivedWire.record(bytes);
+                }
+
+                @Override
+                public void inboundUncompressedSize(long bytes) {
+                    receivedUncompressed.record(bytes);
+                }
+            };
+            this.tracerFactory = new ClientStreamTracer.Factory() {
+                @Override
+                public ClientStreamTracer newClientStreamTracer(ClientStreamTracer.StreamInfo info, Metadata headers) {
+                    return tracer;
+                }
+            };
+        }
+
+        /**
+         * Messages recorded for a direction and encoding
+         */
+        public long getCount(Direction direction, Encoding encoding) {
+            return distribution(direction, encoding).count.sum();
+        }
+
+        /**
+         * Summed bytes of every message recorded for a direction and encoding
+         */
+        public long getTotalBytes(Direction direction, Encoding encoding) {
+            return distribution(direction, encoding).sumBytes.sum();
+        }
+
+        /**
+         * Message size percentile in bytes, or 0 without samples
+         *
+         * @param percentile between 0 and 100, e.g. 99.9
+         */
+        public long getSizePercentile(Direction direction, Encoding encoding, double percentile) {
+            SizeDistribution distribution = distribution(direction, encoding);
+            return distribution.count.sum() > 0 ? distribution.total().getValueAtPercentile(percentile) : 0;
+        }
+
+        /**
+         * Fill {@code intoBytes} with size percentiles without copying the histogram
+         *
+         * @param percentiles each between 0 and 100
+         */
+        public void getSizePercentiles(Direction direction, Encoding encoding, double[] percentiles, long[] intoBytes) {
+            SizeDistribution distribution = distribution(direction, encoding);
+            if (distribution.count.sum() == 0) {
+                Arrays.fill(intoBytes, 0, percentiles.length, 0);
+                return;
+            }
+            distribution.percentiles(percentiles, intoBytes);
+        }
+
+        /**
+         * Copy of all sizes recorded for a direction and encoding, in bytes
+         */
+        public Histogram getSizeHistogram(Direction direction, Encoding encoding) {
+            return distribution(direction, encoding).total();
+        }
+
+        /**
+         * Sizes recorded since the previous call of this method for the same direction and encoding
+         * Each call starts a new interval, so one reader should own interval reporting.
+         */
+        public Histogram getIntervalHistogram(Direction direction, Encoding encoding) {
+            return distribution(direction, encoding).interval();
+        }
+
+        /**
+         * Uncompressed over wire bytes for a direction, or 0 before anything reached the wire
+         * Above 1 means compression is paying off; identity encoding stays just below 1.
+         */
+        public double getCompressionRatio(Direction direction) {
+            long wire = getTotalBytes(direction, Encoding.WIRE);
+            return wire > 0 ? (double) getTotalBytes(direction, Encoding.UNCOMPRESSED) / wire : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("sent %d msgs, p50 %dB, p99 %dB, ratio %.2f; received %d msgs, p50 %dB, p99 %dB, ratio %.2f",
+                    getCount(Direction.SENT, Encoding.WIRE),
+                    getSizePercentile(Direction.SENT, Encoding.WIRE, 50),
+                    getSizePercentile(Direction.SENT, Encoding.WIRE, 99),
+                    getCompressionRatio(Direction.SENT),
+                    getCount(Direction.RECEIVED, Encoding.WIRE),
+                    getSizePercentile(Direction.RECEIVED, Encoding.WIRE, 50),
+                    getSizePercentile(Direction.RECEIVED, Encoding.WIRE, 99),
+                    getCompressionRatio(Direction.RECEIVED));
+        }
+
+        private SizeDistribution distribution(Direction direction, Encoding encoding) {
+            return distributions[direction.ordinal() * 2 + encoding.ordinal()];
+        }
+
+        /**
+         * Recorder for one direction and encoding plus the histograms its swapped-out intervals fold into
+         */
+        private static final class SizeDistribution {
+            private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+            private final LongAdder count = new LongAdder();
+            private final LongAdder sumBytes = new LongAdder();
+
+            // Guarded by this
+            private final Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+            private final Histogram sinceLastInterval = new Histogram(SIGNIFICANT_DIGITS);
+            private Histogram swapped;
+
+            /**
+             * Transports report -1 for a size they do not know
+             */
+            void record(long bytes) {
+                if (bytes < 0) {
+                    return;
+                }
+                recorder.recordValue(bytes);
+                count.increment();
+                sumBytes.add(bytes);
+            }
+
+            synchronized Histogram total() {
+                fold();
+                return total.copy();
+            }
+
+            synchronized void percentiles(double[] percentiles, long[] into) {
+                fold();
+                for (int i = 0; i < percentiles.length; i++) {
+                    into[i] = total.getValueAtPercentile(percentiles[i]);
+                }
+            }
+
+            synchronized Histogram interval() {
+                fold();
+                Histogram interval = sinceLastInterval.copy();
+                sinceLastInterval.reset();
+                return interval;
+            }
+
+            private void fold() {
+                swapped = recorder.getIntervalHistogram(swapped);
+                total.add(swapped);
+                sinceLastInterval.add(swapped);
+            }
+        }
+    }
+}
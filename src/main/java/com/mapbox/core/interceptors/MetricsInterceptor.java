@@ -2,15 +2,30 @@ package com.mapbox.core.interceptors;
 
 import io.grpc.*;
 import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Metrics interceptor for tracking gRPC call statistics
+ * Counters are striped {@link LongAdder}s and latencies go into per-method, per-status
+ * HdrHistogram recorders at microsecond resolution, so recording never contends between
+ * threads and p50/p99/p99.9 can be read at any time.
  */
 @Slf4j
-public class MetricsInterceptor implements ClientInterceptor {
+public class MetricsInterceptor implements FusableInterceptor {
 
     private final ConcurrentHashMap<String, CallMetrics> metricsMap = new ConcurrentHashMap<>();
 
@@ -26,29 +41,18 @@ public class MetricsInterceptor implements ClientInterceptor {
         return new ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT>(
                 next.newCall(method, callOptions)) {
 
-            private long startTime;
+            private long startNanos;
 
             @Override
             public void start(Listener<RespT> responseListener, Metadata headers) {
-                startTime = System.currentTimeMillis();
+                startNanos = System.nanoTime();
                 metrics.incrementTotalCalls();
 
                 super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<RespT>(responseListener) {
 
                     @Override
                     public void onClose(Status status, Metadata trailers) {
-                        long latency = System.currentTimeMillis() - startTime;
-                        metrics.recordLatency(latency);
-
-                        if (status.isOk()) {
-                            metrics.incrementSuccessfulCalls();
-                        } else {
-                            metrics.incrementFailedCalls();
-                        }
-
-                        log.debug("Method: {}, Latency: {}ms, Status: {}",
-                                methodName, latency, status.getCode());
-
+                        record(metrics, methodName, System.nanoTime() - startNanos, status);
                         super.onClose(status, trailers);
                     }
                 }, headers);
@@ -56,58 +60,241 @@ public class MetricsInterceptor implements ClientInterceptor {
         };
     }
 
+    @Override
+    public CallHook hookFor(MethodDescriptor<?, ?> method) {
+        String methodName = method.getFullMethodName();
+
+        // Looked up per call rather than captured, so resetMetrics() takes effect
+        return new CallHook(CallHook.BEGIN | CallHook.START | CallHook.CLOSE) {
+            @Override
+            public Object begin() {
+                return metricsMap.computeIfAbsent(methodName, k -> new CallMetrics());
+            }
+
+            @Override
+            public void onStart(Object state, Metadata headers) {
+                ((CallMetrics) state).incrementTotalCalls();
+            }
+
+            @Override
+            public void onClose(Object state, long elapsedNanos, Status status, Metadata trailers) {
+                record((CallMetrics) state, methodName, elapsedNanos, status);
+            }
+        };
+    }
+
+    private static void record(CallMetrics metrics, String methodName, long elapsedNanos, Status status) {
+        long latency = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        metrics.recordLatency(latency);
+        metrics.recordLatencyMicros(status.getCode(), TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+
+        if (status.isOk()) {
+            metrics.incrementSuccessfulCalls();
+            metrics.recordRecentLatencyMicros(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        } else {
+            metrics.incrementFailedCalls();
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Method: {}, Latency: {}ms, Status: {}", methodName, latency, status.getCode());
+        }
+    }
+
     public CallMetrics getMetrics(String methodName) {
         return metricsMap.get(methodName);
     }
 
+    /**
+     * Live view of the metrics of every method called so far
+     */
+    public Map<String, CallMetrics> getAllMetrics() {
+        return Collections.unmodifiableMap(metricsMap);
+    }
+
     public void resetMetrics() {
         metricsMap.clear();
     }
 
     /**
      * Metrics data class
+     * Besides the running totals, keeps a latency histogram per status code and the
+     * latencies of the last {@value #RECENT_WINDOW} successful calls for live percentile
+     * estimates. Histograms are fed through HdrHistogram {@link Recorder}s: recording is
+     * wait-free, and readers swap the active histogram out rather than locking writers.
      */
     public static class CallMetrics {
-        private final AtomicLong totalCalls = new AtomicLong(0);
-        private final AtomicLong successfulCalls = new AtomicLong(0);
-        private final AtomicLong failedCalls = new AtomicLong(0);
-        private final AtomicLong totalLatency = new AtomicLong(0);
-        private final AtomicLong minLatency = new AtomicLong(Long.MAX_VALUE);
-        private final AtomicLong maxLatency = new AtomicLong(0);
+        public static final int RECENT_WINDOW = 1024;
+
+        /** Two significant digits: 1% value precision with auto-resizing range */
+        private static final int SIGNIFICANT_DIGITS = 2;
+
+        /** p50, p99 and p99.9, read together for {@link #toString()} */
+        private static final double[] SUMMARY_PERCENTILES = {50, 99, 99.9};
+
+        private final LongAdder totalCalls = new LongAdder();
+        private final LongAdder successfulCalls = new LongAdder();
+        private final LongAdder failedCalls = new LongAdder();
+        private final LongAdder totalLatency = new LongAdder();
+        private final LongAccumulator minLatency = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0);
+        private final AtomicReferenceArray<StatusLatency> latencyByStatus =
+                new AtomicReferenceArray<>(Status.Code.values().length);
+        private final AtomicLongArray recentLatencyMicros = new AtomicLongArray(RECENT_WINDOW);
+        private final AtomicLong recentCount = new AtomicLong(0);
 
         public void incrementTotalCalls() {
-            totalCalls.incrementAndGet();
+            totalCalls.increment();
         }
 
         public void incrementSuccessfulCalls() {
-            successfulCalls.incrementAndGet();
+            successfulCalls.increment();
         }
 
         public void incrementFailedCalls() {
-            failedCalls.incrementAndGet();
+            failedCalls.increment();
         }
 
         public void recordLatency(long latency) {
-            totalLatency.addAndGet(latency);
-            minLatency.updateAndGet(current -> Math.min(current, latency));
-            maxLatency.updateAndGet(current -> Math.max(current, latency));
+            totalLatency.add(latency);
+            minLatency.accumulate(latency);
+            maxLatency.accumulate(latency);
+        }
+
+        /**
+         * Record one call's latency in the histogram of its status code
+         */
+        public void recordLatencyMicros(Status.Code code, long micros) {
+            StatusLatency latency = statusLatency(code);
+            long value = Math.max(0, micros);
+            latency.recorder.recordValue(value);
+            latency.count.increment();
+            latency.sumMicros.add(value);
+        }
+
+        public void recordRecentLatencyMicros(long micros) {
+            long slot = recentCount.getAndIncrement();
+            recentLatencyMicros.set((int) (slot % RECENT_WINDOW), micros);
+        }
+
+        /**
+         * Number of successful-call latencies currently in the recent window
+         */
+        public int getRecentSampleCount() {
+            return (int) Math.min(recentCount.get(), RECENT_WINDOW);
+        }
+
+        /**
+         * Latency percentile in microseconds over the recent window, or 0 without samples
+         *
+         * @param quantile between 0 and 1, e.g. 0.95
+         */
+        public long getRecentLatencyPercentileMicros(double quantile) {
+            int samples = getRecentSampleCount();
+            if (samples == 0) {
+                return 0;
+            }
+            long[] sorted = new long[samples];
+            for (int i = 0; i < samples; i++) {
+                sorted[i] = recentLatencyMicros.get(i);
+            }
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(samples * quantile) - 1;
+            return sorted[Math.max(0, Math.min(index, samples - 1))];
+        }
+
+        /**
+         * Latency percentile in microseconds of successful calls since the metrics were created
+         *
+         * @param percentile between 0 and 100, e.g. 99.9
+         */
+        public long getLatencyPercentileMicros(double percentile) {
+            return getLatencyPercentileMicros(Status.Code.OK, percentile);
+        }
+
+        /**
+         * Latency percentile in microseconds of calls that closed with {@code code}, or 0 without samples
+         */
+        public long getLatencyPercentileMicros(Status.Code code, double percentile) {
+            long[] intoMicros = new long[1];
+            getLatencyPercentilesMicros(code, new double[]{percentile}, intoMicros);
+            return intoMicros[0];
+        }
+
+        /**
+         * Fill {@code intoMicros} with latency percentiles of a status code without copying its histogram
+         *
+         * @param percentiles each between 0 and 100
+         */
+        public void getLatencyPercentilesMicros(Status.Code code, double[] percentiles, long[] intoMicros) {
+            StatusLatency latency = latencyByStatus.get(code.ordinal());
+            if (latency == null) {
+                Arrays.fill(intoMicros, 0, percentiles.length, 0);
+                return;
+            }
+            latency.percentiles(percentiles, intoMicros);
+        }
+
+        /**
+         * Calls that closed with {@code code}
+         */
+        public long getLatencyCount(Status.Code code) {
+            StatusLatency latency = latencyByStatus.get(code.ordinal());
+            return latency != null ? latency.count.sum() : 0;
+        }
+
+        /**
+         * Summed latency in microseconds of calls that closed with {@code code}
+         */
+        public long getLatencySumMicros(Status.Code code) {
+            StatusLatency latency = latencyByStatus.get(code.ordinal());
+            return latency != null ? latency.sumMicros.sum() : 0;
+        }
+
+        /**
+         * Copy of all latencies recorded for a status code, in microseconds
+         */
+        public Histogram getLatencyHistogram(Status.Code code) {
+            StatusLatency latency = latencyByStatus.get(code.ordinal());
+            return latency != null ? latency.total() : new Histogram(SIGNIFICANT_DIGITS);
+        }
+
+        /**
+         * Latencies recorded for a status code since the previous call of this method, in microseconds
+         * Each call starts a new interval, so one reader should own interval reporting.
+         */
+        public Histogram getIntervalHistogram(Status.Code code) {
+            StatusLatency latency = latencyByStatus.get(code.ordinal());
+            return latency != null ? latency.interval() : new Histogram(SIGNIFICANT_DIGITS);
+        }
+
+        /**
+         * Status codes that have at least one recorded latency
+         */
+        public Set<Status.Code> getStatusCodes() {
+            Set<Status.Code> codes = EnumSet.noneOf(Status.Code.class);
+            for (Status.Code code : Status.Code.values()) {
+                if (latencyByStatus.get(code.ordinal()) != null) {
+                    codes.add(code);
+                }
+            }
+            return codes;
         }
 
         public long getTotalCalls() {
-            return totalCalls.get();
+            return totalCalls.sum();
         }
 
         public long getSuccessfulCalls() {
-            return successfulCalls.get();
+            return successfulCalls.sum();
         }
 
         public long getFailedCalls() {
-            return failedCalls.get();
+            return failedCalls.sum();
         }
 
         public double getAverageLatency() {
-            long total = totalCalls.get();
-            return total > 0 ? (double) totalLatency.get() / total : 0;
+            long total = totalCalls.sum();
+            return total > 0 ? (double) totalLatency.sum() / total : 0;
         }
 
         public long getMinLatency() {
@@ -120,9 +307,64 @@ public class MetricsInterceptor implements ClientInterceptor {
         }
 
         public double getSuccessRate() {
-            long total = totalCalls.get();
-            return total > 0 ? (double) successfulCalls.get() / total * 100 : 0;
+            long total = totalCalls.sum();
+            return total > 0 ? (double) successfulCalls.sum() / total * 100 : 0;
+        }
+
+        @Override
+        public String toString() {
+            long[] micros = new long[SUMMARY_PERCENTILES.length];
+            getLatencyPercentilesMicros(Status.Code.OK, SUMMARY_PERCENTILES, micros);
+            return String.format("%d calls, %.1f%% ok, p50 %dus, p99 %dus, p99.9 %dus",
+                    getTotalCalls(), getSuccessRate(), micros[0], micros[1], micros[2]);
+        }
+
+        private StatusLatency statusLatency(Status.Code code) {
+            StatusLatency latency = latencyByStatus.get(code.ordinal());
+            if (latency == null) {
+                latencyByStatus.compareAndSet(code.ordinal(), null, new StatusLatency());
+                latency = latencyByStatus.get(code.ordinal());
+            }
+            return latency;
+        }
+
+        /**
+         * Recorder for one status code plus the histograms its swapped-out intervals fold into
+         */
+        private static final class StatusLatency {
+            private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+            private final LongAdder count = new LongAdder();
+            private final LongAdder sumMicros = new LongAdder();
+
+            // Guarded by this
+            private final Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+            private final Histogram sinceLastInterval = new Histogram(SIGNIFICANT_DIGITS);
+            private Histogram swapped;
+
+            synchronized Histogram total() {
+                fold();
+                return total.copy();
+            }
+
+            synchronized void percentiles(double[] percentiles, long[] into) {
+                fold();
+                for (int i = 0; i < percentiles.length; i++) {
+                    into[i] = total.getValueAtPercentile(percentiles[i]);
+                }
+            }
+
+            synchronized Histogram interval() {
+                fold();
+                Histogram interval = sinceLastInterval.copy();
+                sinceLastInterval.reset();
+                return interval;
+            }
+
+            private void fold() {
+                swapped = recorder.getIntervalHistogram(swapped);
+                total.add(swapped);
+                sinceLastInterval.add(swapped);
+            }
         }
     }
 }
-
@@ -0,0 +1,272 @@
+package com.mapbox.core.interceptors;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.grpc.*;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Paces calls per method with resilience4j rate limiters
+ * Each configured method gets one permit every {@code 1s / rps}, so calls are spread
+ * evenly instead of bursting at the start of each second. In {@link Mode#BLOCK} a call
+ * reserves its permit and starts on a scheduler thread once the permit is due, failing
+ * with RESOURCE_EXHAUSTED if that is more than the timeout away; no thread parks, so
+ * callers on the hedging or batch executors are never held up. In {@link Mode#REJECT}
+ * a call without an immediately available permit fails at once. Methods without a
+ * configured rate pass through. Registered outside {@link RetryInterceptor}, so a
+ * permit paces a logical call rather than each attempt.
+ */
+@Slf4j
+public class RateLimiterInterceptor implements ClientInterceptor {
+
+    /**
+     * What to do when no permit is available
+     */
+    public enum Mode {
+        /** Wait up to the timeout for the next permit */
+        BLOCK,
+        /** Fail immediately */
+        REJECT
+    }
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("grpc-rate-limiter-%d").setDaemon(true).build());
+
+    private final Map<String, RateLimiter> limiters;
+    private final Mode mode;
+    private final ConcurrentHashMap<String, AtomicLong> rejections = new ConcurrentHashMap<>();
+    private final AtomicInteger delayed = new AtomicInteger();
+
+    /**
+     * @param ratesPerSecond permits per second keyed by full method name
+     * @param timeout longest wait for a permit in {@link Mode#BLOCK}
+     */
+    public RateLimiterInterceptor(Map<String, Double> ratesPerSecond, Mode mode, Duration timeout) {
+        this.mode = mode;
+        this.limiters = new ConcurrentHashMap<>();
+        ratesPerSecond.forEach((method, rps) -> limiters.put(method, createLimiter(method, rps, timeout)));
+    }
+
+    private RateLimiter createLimiter(String method, double rps, Duration timeout) {
+        if (rps <= 0) {
+            throw new IllegalArgumentException("Rate for " + method + " must be positive, got " + rps);
+        }
+        RateLimiterConfig config = RateLimiterConfig.custom()
+                .limitForPeriod(1)
+                .limitRefreshPeriod(Duration.ofNanos(Math.max(1, (long) (1_000_000_000L / rps))))
+                .timeoutDuration(mode == Mode.BLOCK ? timeout : Duration.ZERO)
+                .build();
+        log.info("Rate limiting {} to {} calls/s ({})", method, rps, mode);
+        return RateLimiter.of(method, config);
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+            MethodDescriptor<ReqT, RespT> method,
+            CallOptions callOptions,
+            Channel next) {
+
+        RateLimiter limiter = limiters.get(method.getFullMethodName());
+        if (limiter == null) {
+            return next.newCall(method, callOptions);
+        }
+
+        return new PacedCall<>(next.newCall(method, callOptions), method.getFullMethodName(), limiter, callOptions);
+    }
+
+    /**
+     * Rate limiter for a method, or null when the method is not limited
+     */
+    public RateLimiter getRateLimiter(String fullMethodName) {
+        return limiters.get(fullMethodName);
+    }
+
+    /**
+     * Calls holding a reserved permit that is not due yet
+     */
+    public int getDelayedCount() {
+        return delayed.get();
+    }
+
+    /**
+     * Calls to a method that failed for lack of a permit
+     */
+    public long getRejectedCount(String fullMethodName) {
+        AtomicLong count = rejections.get(fullMethodName);
+        return count != null ? count.get() : 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder();
+        limiters.forEach((method, limiter) -> summary.append(String.format("%s: %d permits available, %d rejected; ",
+                method, limiter.getMetrics().getAvailablePermissions(), getRejectedCount(method))));
+        return summary.append(getDelayedCount()).append(" calls waiting").toString();
+    }
+
+    /**
+     * Call whose operations are buffered until its permit is due
+     */
+    private class PacedCall<ReqT, RespT> extends ClientCall<ReqT, RespT> {
+
+        private final ClientCall<ReqT, RespT> delegate;
+        private final String methodName;
+        private final RateLimiter limiter;
+        private final Executor callbacks;
+
+        // Guarded by this; pending is null once started and drained
+        private List<Runnable> pending = new ArrayList<>();
+        private Listener<RespT> listener;
+        private ScheduledFuture<?> delayedStart;
+        private boolean admitted;
+        private boolean closed;
+
+        PacedCall(ClientCall<ReqT, RespT> delegate, String methodName, RateLimiter limiter, CallOptions callOptions) {
+            this.delegate = delegate;
+            this.methodName = methodName;
+            this.limiter = limiter;
+            this.callbacks = LocalCallbacks.forCall(callOptions);
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            synchronized (this) {
+                listener = responseListener;
+                pending.add(() -> delegate.start(responseListener, headers));
+            }
+
+            // The limiter's timeout is zero in REJECT mode, so only BLOCK mode is ever delayed
+            long waitNanos = limiter.reservePermission();
+            if (waitNanos < 0) {
+                rejections.computeIfAbsent(methodName, k -> new AtomicLong()).incrementAndGet();
+                closeLocally(Status.RESOURCE_EXHAUSTED.withDescription("Client rate limit reached for " + methodName));
+            } else if (waitNanos == 0) {
+                admit();
+            } else {
+                synchronized (this) {
+                    if (!closed) {
+                        delayed.incrementAndGet();
+                        delayedStart = scheduler.schedule(() -> {
+                            delayed.decrementAndGet();
+                            admit();
+                        }, waitNanos, TimeUnit.NANOSECONDS);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void request(int numMessages) {
+            runOrBuffer(() -> delegate.request(numMessages));
+        }
+
+        @Override
+        public void setMessageCompression(boolean enabled) {
+            runOrBuffer(() -> delegate.setMessageCompression(enabled));
+        }
+
+        @Override
+        public void sendMessage(ReqT message) {
+            runOrBuffer(() -> delegate.sendMessage(message));
+        }
+
+        @Override
+        public void halfClose() {
+            runOrBuffer(delegate::halfClose);
+        }
+
+        @Override
+        public void cancel(String message, Throwable cause) {
+            boolean closeNow;
+            synchronized (this) {
+                // Still waiting for its permit: the delegate never starts
+                closeNow = !admitted && (delayedStart == null || delayedStart.cancel(false));
+            }
+            if (closeNow) {
+                if (delayedStart != null) {
+                    delayed.decrementAndGet();
+                }
+                closeLocally(Status.CANCELLED.withDescription(message).withCause(cause));
+            } else {
+                runOrBuffer(() -> delegate.cancel(message, cause));
+            }
+        }
+
+        @Override
+        public synchronized boolean isReady() {
+            return pending == null && !closed && delegate.isReady();
+        }
+
+        @Override
+        public Attributes getAttributes() {
+            return delegate.getAttributes();
+        }
+
+        private void runOrBuffer(Runnable operation) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (pending != null) {
+                    pending.add(operation);
+                    return;
+                }
+            }
+            operation.run();
+        }
+
+        /**
+         * Start the delegate and replay buffered operations in order, including any added while replaying
+         */
+        private void admit() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                admitted = true;
+            }
+            while (true) {
+                List<Runnable> operations;
+                synchronized (this) {
+                    if (pending.isEmpty()) {
+                        pending = null;
+                        return;
+                    }
+                    operations = pending;
+                    pending = new ArrayList<>();
+                }
+                operations.forEach(Runnable::run);
+            }
+        }
+
+        /**
+         * Close a call that never reached the delegate, on the call's executor
+         */
+        private void closeLocally(Status status) {
+            Listener<RespT> target;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                pending = List.of();
+                target = listener;
+            }
+            callbacks.execute(() -> target.onClose(status, new Metadata()));
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.mapbox.core.interceptors;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.MessageLite;
+import com.mapbox.core.cache.ResponseCache;
+import io.grpc.*;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves repeated unary calls from a size-bounded {@link ResponseCache}
+ * Only methods in the configured set are cached, keyed by method name plus request wire
+ * bytes. OK responses are stored for the default TTL unless the server sends a
+ * {@code cache-control} header or trailer: {@code max-age=N} sets the TTL in seconds and
+ * {@code no-store}/{@code no-cache} skip caching. Hits never reach the inner interceptors
+ * or the network, carry an {@code x-client-cache: hit} response header, and are delivered
+ * on the call's executor like any transport response.
+ * Registered last in the chain (outermost), so {@link MetricsInterceptor} only measures
+ * origin calls.
+ */
+@Slf4j
+public class ResponseCacheInterceptor implements ClientInterceptor {
+
+    public static final Metadata.Key<String> CACHE_CONTROL =
+            Metadata.Key.of("cache-control", Metadata.ASCII_STRING_MARSHALLER);
+
+    /** Response header marking a call answered from the client cache */
+    public static final Metadata.Key<String> CACHE_STATUS =
+            Metadata.Key.of("x-client-cache", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final ResponseCache cache;
+    private final Set<String> methods;
+    private final long defaultTtlNanos;
+
+    public ResponseCacheInterceptor(Set<String> methods, long defaultTtlMs, long maxBytes) {
+        this.cache = new ResponseCache(maxBytes);
+        this.methods = Set.copyOf(methods);
+        this.defaultTtlNanos = TimeUnit.MILLISECONDS.toNanos(defaultTtlMs);
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+            MethodDescriptor<ReqT, RespT> method,
+            CallOptions callOptions,
+            Channel next) {
+
+        if (method.getType() != MethodDescriptor.MethodType.UNARY
+                || !methods.contains(method.getFullMethodName())) {
+            return next.newCall(method, callOptions);
+        }
+        return new CachingCall<>(next.newCall(method, callOptions), method.getFullMethodName(), callOptions);
+    }
+
+    public ResponseCache.Stats getStats() {
+        return cache.getStats();
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * TTL for a response from its cache-control metadata, 0 when it must not be cached
+     */
+    private long ttlNanos(Metadata headers, Metadata trailers) {
+        String cacheControl = trailers != null ? trailers.get(CACHE_CONTROL) : null;
+        if (cacheControl == null && headers != null) {
+            cacheControl = headers.get(CACHE_CONTROL);
+        }
+        if (cacheControl == null) {
+            return defaultTtlNanos;
+        }
+
+        for (String directive : cacheControl.split(",")) {
+            String value = directive.trim().toLowerCase();
+            if (value.equals("no-store") || value.equals("no-cache")) {
+                return 0;
+            }
+            if (value.startsWith("max-age=")) {
+                try {
+                    return TimeUnit.SECONDS.toNanos(Long.parseLong(value.substring("max-age=".length())));
+                } catch (NumberFormatException e) {
+                    log.debug("Ignoring malformed cache-control directive: {}", directive);
+                }
+            }
+        }
+        return defaultTtlNanos;
+    }
+
+    /**
+     * Unary call that holds back {@code start} until the request is known, then either
+     * answers from the cache once half-closed and a message is requested, or starts the
+     * real call
+     */
+    private class CachingCall<ReqT, RespT> extends ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT> {
+
+        private final String methodName;
+        private final CallOptions callOptions;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private Listener<RespT> listener;
+        private Metadata requestHeaders;
+        private int requested;
+        private Boolean compression;
+        private boolean started;
+        private boolean halfClosed;
+        private ByteString requestBytes;
+        private MessageLite cached;
+
+        CachingCall(ClientCall<ReqT, RespT> delegate, String methodName, CallOptions callOptions) {
+            super(delegate);
+            this.methodName = methodName;
+            this.callOptions = callOptions;
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            this.listener = responseListener;
+            this.requestHeaders = headers;
+        }
+
+        @Override
+        public void request(int numMessages) {
+            if (started) {
+                super.request(numMessages);
+            } else {
+                requested += numMessages;
+                deliverCached();
+            }
+        }
+
+        @Override
+        public void setMessageCompression(boolean enabled) {
+            if (started) {
+                super.setMessageCompression(enabled);
+            } else {
+                compression = enabled;
+            }
+        }
+
+        @Override
+        public void sendMessage(ReqT message) {
+            if (message instanceof MessageLite) {
+                requestBytes = ((MessageLite) message).toByteString();
+                cached = cache.get(methodName, requestBytes);
+            }
+            if (cached == null) {
+                startDelegate();
+                super.sendMessage(message);
+            }
+        }
+
+        @Override
+        public void halfClose() {
+            if (cached == null) {
+                // No request was sent, so let the real call report whatever the server makes of that
+                if (!started) {
+                    startDelegate();
+                }
+                super.halfClose();
+                return;
+            }
+            halfClosed = true;
+            deliverCached();
+        }
+
+        @Override
+        public void cancel(String message, Throwable cause) {
+            if (cached == null) {
+                if (!started && listener != null) {
+                    startDelegate();
+                }
+                super.cancel(message, cause);
+            } else if (closed.compareAndSet(false, true)) {
+                Listener<RespT> target = listener;
+                Status status = Status.CANCELLED.withDescription(message).withCause(cause);
+                LocalCallbacks.forCall(callOptions).execute(() -> target.onClose(status, new Metadata()));
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return !started || super.isReady();
+        }
+
+        /**
+         * Answers from the cache once the request is complete and the caller has flow-control
+         * credit for the response, mirroring what the transport would allow
+         */
+        @SuppressWarnings("unchecked")
+        private void deliverCached() {
+            if (!halfClosed || requested <= 0 || !closed.compareAndSet(false, true)) {
+                return;
+            }
+            Listener<RespT> target = listener;
+            RespT response = (RespT) cached;
+            LocalCallbacks.forCall(callOptions).execute(() -> {
+                Metadata responseHeaders = new Metadata();
+                responseHeaders.put(CACHE_STATUS, "hit");
+                target.onHeaders(responseHeaders);
+                target.onMessage(response);
+                target.onClose(Status.OK, new Metadata());
+            });
+        }
+
+        private void startDelegate() {
+            started = true;
+            super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<RespT>(listener) {
+
+                private Metadata responseHeaders;
+                private RespT response;
+
+                @Override
+                public void onHeaders(Metadata headers) {
+                    responseHeaders = headers;
+                    super.onHeaders(headers);
+                }
+
+                @Override
+                public void onMessage(RespT message) {
+                    response = message;
+                    super.onMessage(message);
+                }
+
+                @Override
+                public void onClose(Status status, Metadata trailers) {
+                    if (status.isOk() && requestBytes != null && response instanceof MessageLite) {
+                        cache.put(methodName, requestBytes, (MessageLite) response,
+                                ttlNanos(responseHeaders, trailers));
+                    }
+                    super.onClose(status, trailers);
+                }
+            }, requestHeaders);
+
+            if (compression != null) {
+                super.setMessageCompression(compression);
+            }
+            if (requested > 0) {
+                super.request(requested);
+            }
+        }
+    }
+}
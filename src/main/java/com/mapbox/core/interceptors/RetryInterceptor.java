@@ -1,22 +1,57 @@
 package com.mapbox.core.interceptors;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mapbox.core.retry.RetryBudget;
 import io.grpc.*;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Retry interceptor with exponential backoff
+ * Retry interceptor with exponential backoff and full jitter
+ * Unary calls are buffered (headers, request, flow control) and re-issued on a scheduler
+ * thread when an attempt fails with a retryable status. The delay of retry {@code n} is
+ * uniformly random in {@code [0, min(maxBackoff, backoff * 2^(n-1))]}; no retry is made
+ * if it could not start before the call's deadline, or when the shared
+ * {@link RetryBudget} is exhausted. Calls rejected by {@link ConcurrencyLimitInterceptor}
+ * are not retried and do not spend the budget. Responses are only delivered once an attempt is
+ * committed, so the application never sees a failed attempt. Other call types pass through.
  */
 @Slf4j
 public class RetryInterceptor implements ClientInterceptor {
 
+    /** Per-call attempt counter; bind one to the context to learn how many attempts were sent */
+    public static final Context.Key<Attempts> ATTEMPTS_KEY = Context.key("mapbox-retry-attempts");
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("grpc-retry-%d").setDaemon(true).build());
+
     private final int maxRetries;
     private final long backoffMs;
+    private final long maxBackoffMs;
+    private final RetryBudget budget;
+
+    private final AtomicLong retries = new AtomicLong(0);
+    private final AtomicLong throttled = new AtomicLong(0);
 
     public RetryInterceptor(int maxRetries, long backoffMs) {
+        this(maxRetries, backoffMs, backoffMs * (1L << Math.min(Math.max(maxRetries - 1, 0), 20)),
+                new RetryBudget(10, 0.1));
+    }
+
+    public RetryInterceptor(int maxRetries, long backoffMs, long maxBackoffMs, RetryBudget budget) {
         this.maxRetries = maxRetries;
         this.backoffMs = backoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.budget = budget;
     }
 
     @Override
@@ -25,43 +60,436 @@ public class RetryInterceptor implements ClientInterceptor {
             CallOptions callOptions,
             Channel next) {
 
-        return new ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT>(
-                next.newCall(method, callOptions)) {
+        if (method.getType() != MethodDescriptor.MethodType.UNARY) {
+            return next.newCall(method, callOptions);
+        }
+        return new RetryingCall<>(method, callOptions, next, Context.current());
+    }
+
+    /**
+     * Retries scheduled so far
+     */
+    public long getRetryCount() {
+        return retries.get();
+    }
 
-            @Override
-            public void start(Listener<RespT> responseListener, Metadata headers) {
-                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<RespT>(responseListener) {
-
-                    private int attemptCount = 0;
-
-                    @Override
-                    public void onClose(Status status, Metadata trailers) {
-                        if (shouldRetry(status) && attemptCount < maxRetries) {
-                            attemptCount++;
-                            long delay = backoffMs * (long) Math.pow(2, attemptCount - 1);
-                            log.warn("Retry attempt {} for method {} after {}ms. Status: {}",
-                                    attemptCount, method.getFullMethodName(), delay, status.getCode());
-
-                            try {
-                                TimeUnit.MILLISECONDS.sleep(delay);
-                            } catch (InterruptedException e) {
-                                Thread.currentThread().interrupt();
-                            }
-
-                            // Note: In production, you'd want to reissue the call here
-                            // This is a simplified version showing the retry logic
-                        }
-                        super.onClose(status, trailers);
-                    }
-                }, headers);
-            }
-        };
+    /**
+     * Retryable failures not retried because the retry budget was exhausted
+     */
+    public long getThrottledCount() {
+        return throttled.get();
     }
 
-    private boolean shouldRetry(Status status) {
+    public RetryBudget getBudget() {
+        return budget;
+    }
+
+    /**
+     * Whether a failed attempt may be retried; local limiter rejections never are
+     */
+    private boolean shouldRetry(Status status, Metadata trailers) {
+        if (trailers.containsKey(ConcurrencyLimitInterceptor.REJECTED)) {
+            return false;
+        }
         return status.getCode() == Status.Code.UNAVAILABLE ||
                status.getCode() == Status.Code.DEADLINE_EXCEEDED ||
                status.getCode() == Status.Code.RESOURCE_EXHAUSTED;
     }
-}
 
+    /**
+     * Full-jitter backoff before retry number {@code retry} (1-based)
+     */
+    private long backoffNanos(int retry) {
+        long cap = Math.min(maxBackoffMs, backoffMs << Math.min(retry - 1, 20));
+        return TimeUnit.MILLISECONDS.toNanos(ThreadLocalRandom.current().nextLong(Math.max(cap, 0) + 1));
+    }
+
+    /**
+     * Number of attempts sent for one call
+     */
+    public static final class Attempts {
+        private final AtomicInteger count = new AtomicInteger();
+
+        public int get() {
+            return count.get();
+        }
+
+        void increment() {
+            count.incrementAndGet();
+        }
+    }
+
+    /**
+     * Unary call that replays its buffered request on a fresh attempt after a retryable failure
+     * State is guarded by {@code this}, but the current attempt is never called while holding
+     * the lock: inner interceptors may park or close inline. Whichever thread finds work to
+     * forward drains it in order, so one thread at a time talks to the attempt.
+     */
+    private class RetryingCall<ReqT, RespT> extends ClientCall<ReqT, RespT> {
+
+        private final MethodDescriptor<ReqT, RespT> method;
+        private final CallOptions callOptions;
+        private final Channel next;
+        private final Context context;
+        private final Deadline deadline;
+        private final Attempts attempts;
+
+        private Listener<RespT> listener;
+        private Metadata headers;
+        private int requested;
+        private ReqT message;
+        private boolean halfClosed;
+        private Boolean compression;
+        private int attemptCount;
+        private ScheduledFuture<?> pendingRetry;
+        private Status cancelStatus;
+        private boolean committed;
+
+        /** Set when a new attempt must be started, by start() and by each retry */
+        private boolean attemptPending;
+        private ClientCall<ReqT, RespT> current;
+        /** Current attempt once its start() has returned */
+        private ClientCall<ReqT, RespT> started;
+        private boolean attemptClosed;
+        private int forwardedRequests;
+        private Boolean forwardedCompression;
+        private boolean messageForwarded;
+        private boolean halfCloseForwarded;
+        private boolean cancelForwarded;
+        private boolean draining;
+
+        RetryingCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next, Context context) {
+            this.method = method;
+            this.callOptions = callOptions;
+            this.next = next;
+            this.context = context;
+            this.attempts = ATTEMPTS_KEY.get(context);
+
+            Deadline callDeadline = callOptions.getDeadline();
+            Deadline contextDeadline = context.getDeadline();
+            this.deadline = callDeadline == null ? contextDeadline
+                    : contextDeadline == null ? callDeadline
+                    : callDeadline.minimum(contextDeadline);
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            synchronized (this) {
+                this.listener = responseListener;
+                this.headers = headers;
+                attemptPending = true;
+            }
+            drain();
+        }
+
+        @Override
+        public void request(int numMessages) {
+            synchronized (this) {
+                requested += numMessages;
+            }
+            drain();
+        }
+
+        @Override
+        public void setMessageCompression(boolean enabled) {
+            synchronized (this) {
+                compression = enabled;
+            }
+            drain();
+        }
+
+        @Override
+        public void sendMessage(ReqT message) {
+            synchronized (this) {
+                this.message = message;
+            }
+            drain();
+        }
+
+        @Override
+        public void halfClose() {
+            synchronized (this) {
+                halfClosed = true;
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel(String cancelMessage, Throwable cause) {
+            boolean closeNow = false;
+            synchronized (this) {
+                if (committed || cancelStatus != null) {
+                    return;
+                }
+                cancelStatus = Status.CANCELLED.withDescription(cancelMessage).withCause(cause);
+                // Between attempts: nothing is running that would report the cancellation
+                if (pendingRetry != null && pendingRetry.cancel(false)) {
+                    pendingRetry = null;
+                    closeNow = true;
+                }
+            }
+
+            if (closeNow) {
+                commit(cancelStatus, new Metadata(), null, List.of());
+            } else {
+                drain();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            ClientCall<ReqT, RespT> call;
+            synchronized (this) {
+                call = started;
+            }
+            return call != null && call.isReady();
+        }
+
+        @Override
+        public Attributes getAttributes() {
+            ClientCall<ReqT, RespT> call;
+            synchronized (this) {
+                call = started;
+            }
+            return call != null ? call.getAttributes() : Attributes.EMPTY;
+        }
+
+        /**
+         * Forward everything the current attempt has not seen yet, unless another thread already is
+         */
+        private void drain() {
+            synchronized (this) {
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            boolean done = false;
+            try {
+                Runnable action;
+                while ((action = nextAction()) != null) {
+                    Context previous = context.attach();
+                    try {
+                        action.run();
+                    } finally {
+                        context.detach(previous);
+                    }
+                }
+                done = true;
+            } finally {
+                if (!done) {
+                    synchronized (this) {
+                        draining = false;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Next call to make on the current attempt; clears {@code draining} when there is none
+         */
+        private synchronized Runnable nextAction() {
+            if (committed) {
+                draining = false;
+                return null;
+            }
+            if (attemptPending) {
+                attemptPending = false;
+                if (cancelStatus != null) {
+                    Status status = cancelStatus;
+                    return () -> commit(status, new Metadata(), null, List.of());
+                }
+                return this::startAttempt;
+            }
+            ClientCall<ReqT, RespT> call = started;
+            if (call == null || attemptClosed) {
+                draining = false;
+                return null;
+            }
+            if (cancelStatus != null) {
+                if (cancelForwarded) {
+                    draining = false;
+                    return null;
+                }
+                cancelForwarded = true;
+                Status status = cancelStatus;
+                return () -> call.cancel(status.getDescription(), status.getCause());
+            }
+            if (compression != null && !compression.equals(forwardedCompression)) {
+                boolean enabled = compression;
+                forwardedCompression = enabled;
+                return () -> call.setMessageCompression(enabled);
+            }
+            if (requested > forwardedRequests) {
+                int numMessages = requested - forwardedRequests;
+                forwardedRequests = requested;
+                return () -> call.request(numMessages);
+            }
+            if (message != null && !messageForwarded) {
+                messageForwarded = true;
+                ReqT toSend = message;
+                return () -> call.sendMessage(toSend);
+            }
+            if (halfClosed && !halfCloseForwarded) {
+                halfCloseForwarded = true;
+                return call::halfClose;
+            }
+            draining = false;
+            return null;
+        }
+
+        /**
+         * Start a new attempt; the drain loop then replays what the application has sent so far
+         */
+        private void startAttempt() {
+            ClientCall<ReqT, RespT> call = next.newCall(method, callOptions);
+            Metadata attemptHeaders = new Metadata();
+            Listener<RespT> attemptListener = new AttemptListener(call);
+            synchronized (this) {
+                current = call;
+                started = null;
+                attemptClosed = false;
+                forwardedRequests = 0;
+                forwardedCompression = null;
+                messageForwarded = false;
+                halfCloseForwarded = false;
+                cancelForwarded = false;
+                attemptCount++;
+                // Inner interceptors add headers, so every attempt starts from a pristine copy
+                attemptHeaders.merge(headers);
+            }
+            if (attempts != null) {
+                attempts.increment();
+            }
+
+            call.start(attemptListener, attemptHeaders);
+            synchronized (this) {
+                if (call == current) {
+                    started = call;
+                }
+            }
+        }
+
+        private void retry() {
+            Status status;
+            synchronized (this) {
+                pendingRetry = null;
+                if (committed) {
+                    return;
+                }
+                status = cancelStatus;
+                if (status == null) {
+                    attemptPending = true;
+                }
+            }
+            // A cancel that lost the race to cancel this task is reported here
+            if (status != null) {
+                commit(status, new Metadata(), null, List.of());
+            } else {
+                drain();
+            }
+        }
+
+        /**
+         * Decide what to do with a closed attempt: schedule a retry or deliver its outcome
+         */
+        private void onAttemptClosed(ClientCall<ReqT, RespT> call, Status status, Metadata trailers,
+                                     Metadata responseHeaders, List<RespT> messages) {
+            synchronized (this) {
+                if (committed || call != current) {
+                    return;
+                }
+                attemptClosed = true;
+                if (status.isOk()) {
+                    budget.onSuccess();
+                } else if (cancelStatus == null && shouldRetry(status, trailers)) {
+                    long delayNanos = nextRetryDelay(status);
+                    if (delayNanos >= 0) {
+                        retries.incrementAndGet();
+                        log.warn("Retry attempt {} for method {} after {}ms. Status: {}",
+                                attemptCount, method.getFullMethodName(),
+                                TimeUnit.NANOSECONDS.toMillis(delayNanos), status.getCode());
+                        pendingRetry = scheduler.schedule(this::retry, delayNanos, TimeUnit.NANOSECONDS);
+                        return;
+                    }
+                }
+            }
+            commit(status, trailers, responseHeaders, messages);
+        }
+
+        /**
+         * Backoff before the next retry, or -1 when the call must not be retried
+         * Must be called holding the lock.
+         */
+        private long nextRetryDelay(Status status) {
+            if (attemptCount > maxRetries) {
+                return -1;
+            }
+            if (!budget.onRetryableFailure()) {
+                throttled.incrementAndGet();
+                log.warn("Retry budget exhausted, not retrying {} after {}", method.getFullMethodName(), status.getCode());
+                return -1;
+            }
+            long delayNanos = backoffNanos(attemptCount);
+            if (deadline != null && delayNanos >= deadline.timeRemaining(TimeUnit.NANOSECONDS)) {
+                return -1;
+            }
+            return delayNanos;
+        }
+
+        private void commit(Status status, Metadata trailers, Metadata responseHeaders, List<RespT> messages) {
+            Listener<RespT> target;
+            synchronized (this) {
+                if (committed) {
+                    return;
+                }
+                committed = true;
+                target = listener;
+            }
+            if (responseHeaders != null) {
+                target.onHeaders(responseHeaders);
+            }
+            messages.forEach(target::onMessage);
+            target.onClose(status, trailers);
+        }
+
+        /**
+         * Buffers one attempt's response until the attempt is committed
+         */
+        private class AttemptListener extends Listener<RespT> {
+            private final ClientCall<ReqT, RespT> call;
+            private final List<RespT> messages = new ArrayList<>(1);
+            private Metadata responseHeaders;
+
+            AttemptListener(ClientCall<ReqT, RespT> call) {
+                this.call = call;
+            }
+
+            @Override
+            public void onHeaders(Metadata headers) {
+                responseHeaders = headers;
+            }
+
+            @Override
+            public void onMessage(RespT message) {
+                messages.add(message);
+            }
+
+            @Override
+            public void onReady() {
+                Listener<RespT> target;
+                synchronized (RetryingCall.this) {
+                    target = call == current && !committed ? listener : null;
+                }
+                if (target != null) {
+                    target.onReady();
+                }
+            }
+
+            @Override
+            public void onClose(Status status, Metadata trailers) {
+                onAttemptClosed(call, status, trailers, responseHeaders, messages);
+            }
+        }
+    }
+}
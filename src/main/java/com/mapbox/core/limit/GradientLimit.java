@@ -0,0 +1,82 @@
+package com.mapbox.core.limit;
+
+/**
+ * Adaptive concurrency limit driven by observed round-trip time (gradient algorithm)
+ * Compares each RTT sample against a slow-moving average RTT. While the sample stays
+ * within {@code rttTolerance} of the average the limit grows by about {@code sqrt(limit)};
+ * as queueing inflates RTT the gradient drops below 1 and the limit shrinks
+ * proportionally. Drops (overload statuses) cut the limit by 10%. The limit only grows
+ * while at least half of it is in use, so an idle client does not inflate it.
+ */
+public class GradientLimit {
+
+    private static final int LONG_RTT_WINDOW = 600;
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double smoothing;
+
+    // Guarded by this
+    private double limit;
+    private double longRttNanos;
+    private long samples;
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double rttTolerance, double smoothing) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Require 1 <= minLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = Math.max(1.0, rttTolerance);
+        this.smoothing = Math.min(1.0, Math.max(0.0, smoothing));
+        this.limit = clamp(initialLimit);
+    }
+
+    /**
+     * Feed one completed call
+     *
+     * @param inFlight calls in flight when this one completed, including it
+     * @param dropped whether the call failed with an overload status
+     */
+    public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+        if (dropped) {
+            limit = clamp(limit * DROP_BACKOFF);
+            return;
+        }
+        if (rttNanos <= 0) {
+            return;
+        }
+
+        // Average over the first samples, then an exponential moving average
+        samples++;
+        double weight = samples < LONG_RTT_WINDOW ? 1.0 / samples : 2.0 / (LONG_RTT_WINDOW + 1);
+        longRttNanos += (rttNanos - longRttNanos) * weight;
+
+        // After a recovery the average lags far behind; let it catch up quickly
+        if (longRttNanos / rttNanos > 2) {
+            longRttNanos = longRttNanos * 0.95 + rttNanos * 0.05;
+        }
+
+        if (inFlight < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / rttNanos));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = clamp(limit * (1 - smoothing) + target * smoothing);
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized long getLongRttNanos() {
+        return (long) longRttNanos;
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
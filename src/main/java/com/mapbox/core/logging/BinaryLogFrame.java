@@ -0,0 +1,50 @@
+package com.mapbox.core.logging;
+
+import io.grpc.Metadata;
+import io.grpc.Status;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * One event of a captured call as read back from a binary log segment
+ * Which fields are set depends on {@link Type}: the method name only on
+ * {@link Type#CLIENT_HEADERS}, raw protobuf bytes on messages, and status with
+ * trailers on {@link Type#CLOSE}.
+ */
+@Value
+@Builder
+public class BinaryLogFrame {
+
+    public enum Type {
+        CLIENT_HEADERS, REQUEST, SERVER_HEADERS, RESPONSE, CLOSE;
+
+        private static final Type[] VALUES = values();
+
+        static Type of(int ordinal) {
+            if (ordinal < 0 || ordinal >= VALUES.length) {
+                throw new IllegalStateException("Unknown binary log frame type " + ordinal);
+            }
+            return VALUES[ordinal];
+        }
+    }
+
+    /** Call this frame belongs to, unique within one writer */
+    long callId;
+
+    /** Wall-clock time of the event in nanoseconds since the epoch */
+    long timestampNanos;
+
+    Type type;
+
+    /** Full method name, on client headers only */
+    String method;
+
+    /** Request headers, response headers or trailers */
+    Metadata metadata;
+
+    /** Serialized request or response message */
+    byte[] payload;
+
+    /** Call outcome, on close only */
+    Status status;
+}
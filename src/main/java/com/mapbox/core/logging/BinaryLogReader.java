@@ -0,0 +1,241 @@
+package com.mapbox.core.logging;
+
+import com.google.common.collect.Iterators;
+import io.grpc.Metadata;
+import io.grpc.Status;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+/**
+ * Reads back the segment files written by {@link BinaryLogWriter}
+ * Iterating yields each call once its close frame is read, in order of completion,
+ * followed by calls that never closed. Segments are memory-mapped and read lazily, one at
+ * a time; only calls still open are held in memory. Call ids restart with every writer
+ * run, so frames are only grouped within a run: a reader for the whole directory goes
+ * through the runs one after another, oldest first.
+ */
+public class BinaryLogReader implements Iterable<CapturedCall> {
+
+    private final Path directory;
+    private final String runId;
+
+    public BinaryLogReader(Path directory) {
+        this(directory, null);
+    }
+
+    /**
+     * Reader for one writer's segments, see {@link BinaryLogWriter#getRunId()}
+     */
+    public BinaryLogReader(Path directory, String runId) {
+        this.directory = directory;
+        this.runId = runId;
+    }
+
+    /**
+     * Run ids in the directory, oldest first
+     */
+    public List<String> runs() {
+        return segments().stream()
+                .map(BinaryLogWriter::runId)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Segment files in write order, limited to this reader's run if it has one
+     */
+    public List<Path> segments() {
+        try {
+            return BinaryLogWriter.segmentFiles(directory).stream()
+                    .filter(path -> runId == null || BinaryLogWriter.runId(path).equals(runId))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list binary log segments in " + directory, e);
+        }
+    }
+
+    /**
+     * Every frame in write order
+     */
+    public Iterator<BinaryLogFrame> frames() {
+        return new FrameIterator(segments().iterator());
+    }
+
+    @Override
+    public Iterator<CapturedCall> iterator() {
+        if (runId == null) {
+            return Iterators.concat(Iterators.transform(runs().iterator(),
+                    run -> new BinaryLogReader(directory, run).iterator()));
+        }
+        Iterator<BinaryLogFrame> frames = frames();
+        Map<Long, List<BinaryLogFrame>> open = new LinkedHashMap<>();
+
+        return new Iterator<CapturedCall>() {
+            private CapturedCall next;
+            private Iterator<List<BinaryLogFrame>> unclosed;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null) {
+                    if (frames.hasNext()) {
+                        BinaryLogFrame frame = frames.next();
+                        List<BinaryLogFrame> call = open.computeIfAbsent(frame.getCallId(), id -> new ArrayList<>());
+                        call.add(frame);
+                        if (frame.getType() == BinaryLogFrame.Type.CLOSE) {
+                            next = CapturedCall.of(runId, open.remove(frame.getCallId()));
+                        }
+                    } else {
+                        if (unclosed == null) {
+                            unclosed = open.values().iterator();
+                        }
+                        if (!unclosed.hasNext()) {
+                            return false;
+                        }
+                        next = CapturedCall.of(runId, unclosed.next());
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public CapturedCall next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                CapturedCall call = next;
+                next = null;
+                return call;
+            }
+        };
+    }
+
+    /**
+     * Decode the frame at the buffer's position, or return null at the end of the segment
+     */
+    static BinaryLogFrame readFrame(ByteBuffer buffer) {
+        if (buffer.remaining() < 4) {
+            return null;
+        }
+        int length = buffer.getInt();
+        if (length <= 0 || length > buffer.remaining()) {
+            return null;
+        }
+        ByteBuffer body = buffer.slice();
+        body.limit(length);
+        buffer.position(buffer.position() + length);
+
+        BinaryLogFrame.BinaryLogFrameBuilder frame = BinaryLogFrame.builder()
+                .callId(body.getLong())
+                .timestampNanos(body.getLong());
+        BinaryLogFrame.Type type = BinaryLogFrame.Type.of(body.get());
+        frame.type(type);
+        switch (type) {
+            case CLIENT_HEADERS:
+                frame.method(readString(body)).metadata(readMetadata(body));
+                break;
+            case SERVER_HEADERS:
+                frame.metadata(readMetadata(body));
+                break;
+            case REQUEST:
+            case RESPONSE:
+                byte[] payload = new byte[body.remaining()];
+                body.get(payload);
+                frame.payload(payload);
+                break;
+            case CLOSE:
+                Status status = Status.fromCodeValue(body.getInt());
+                String description = readString(body);
+                frame.status(description != null ? status.withDescription(description) : status)
+                        .metadata(readMetadata(body));
+                break;
+        }
+        return frame.build();
+    }
+
+    private static String readString(ByteBuffer body) {
+        int length = body.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Metadata readMetadata(ByteBuffer body) {
+        Metadata metadata = new Metadata();
+        int count = body.getInt();
+        for (int i = 0; i < count; i++) {
+            String name = readString(body);
+            byte[] value = new byte[body.getInt()];
+            body.get(value);
+            if (name.endsWith(Metadata.BINARY_HEADER_SUFFIX)) {
+                metadata.put(Metadata.Key.of(name, Metadata.BINARY_BYTE_MARSHALLER), value);
+            } else {
+                metadata.put(Metadata.Key.of(name, BinaryLogWriter.AsciiBytes.MARSHALLER), value);
+            }
+        }
+        return metadata;
+    }
+
+    /**
+     * Walks the frames of each segment in turn, mapping one segment at a time
+     */
+    private static final class FrameIterator implements Iterator<BinaryLogFrame> {
+        private final Iterator<Path> segments;
+        private ByteBuffer current;
+        private BinaryLogFrame next;
+
+        FrameIterator(Iterator<Path> segments) {
+            this.segments = segments;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (current != null) {
+                    next = readFrame(current);
+                    if (next != null) {
+                        break;
+                    }
+                }
+                if (!segments.hasNext()) {
+                    return false;
+                }
+                current = map(segments.next());
+            }
+            return true;
+        }
+
+        @Override
+        public BinaryLogFrame next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            BinaryLogFrame frame = next;
+            next = null;
+            return frame;
+        }
+
+        private static ByteBuffer map(Path segment) {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read binary log segment " + segment, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package com.mapbox.core.logging;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.protobuf.MessageLite;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Appends call events as length-prefixed binary frames to rolling memory-mapped segment files
+ * Callers only enqueue the event (the message object itself, not its bytes) on a lock-free
+ * {@link RingBuffer}; a background thread serializes it and copies the frame into the
+ * current segment, rolling to a new file of {@code segmentBytes} when it does not fit and
+ * deleting the oldest segments in the directory, from this run or earlier ones, beyond
+ * {@code maxSegments}. Events that find the ring full are dropped and counted, so capture
+ * never slows the call down.
+ *
+ * <p>Segment files are named {@code <runId>-<index>.binlog}. Call ids restart with every
+ * interceptor, so {@link BinaryLogReader} uses the run id to keep calls of different
+ * writers apart.
+ *
+ * <p>Frame layout, big-endian: {@code int length} of the rest, {@code long callId},
+ * {@code long timestampNanos}, {@code byte type}, then per type: client headers carry the
+ * method name and metadata, messages their raw bytes, server headers metadata, and close
+ * the status code, description and trailers. A zero length marks the end of a segment.
+ * {@link BinaryLogReader} reads the files back.
+ */
+@Slf4j
+public class BinaryLogWriter implements AutoCloseable {
+
+    static final String SEGMENT_SUFFIX = ".binlog";
+
+    private static final long EPOCH_OFFSET_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()) - System.nanoTime();
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final String runId;
+    private final RingBuffer<Event> queue;
+    private final Thread worker;
+    private volatile boolean idle;
+    private volatile boolean closed;
+
+    // Worker thread only
+    private final ByteArrayOutputStream frame = new ByteArrayOutputStream(256);
+    private final DataOutputStream frameOut = new DataOutputStream(frame);
+    private MappedByteBuffer segment;
+    private int segmentIndex;
+
+    private final AtomicLong written = new AtomicLong(0);
+    private final AtomicLong writtenBytes = new AtomicLong(0);
+    private final AtomicLong dropped = new AtomicLong(0);
+    private final AtomicLong failed = new AtomicLong(0);
+
+    /**
+     * @param segmentBytes size of each segment file; larger frames are dropped
+     * @param maxSegments segment files kept in the directory across runs, oldest deleted first
+     * @param queueSize events buffered between callers and the writer thread
+     */
+    public BinaryLogWriter(Path directory, int segmentBytes, int maxSegments, int queueSize) throws IOException {
+        if (segmentBytes < 64) {
+            throw new IllegalArgumentException("Segment size must be at least 64 bytes, got " + segmentBytes);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = Math.max(1, maxSegments);
+        // Start time first, so runs sort in the order they began
+        this.runId = String.format("calls-%d-%06x", System.currentTimeMillis(),
+                ThreadLocalRandom.current().nextInt(1 << 24));
+        this.queue = new RingBuffer<>(queueSize);
+        this.worker = new ThreadFactoryBuilder().setNameFormat("grpc-binlog-%d").setDaemon(true).build()
+                .newThread(this::drain);
+        worker.start();
+        log.info("Capturing binary call log to {} ({} byte segments, {} kept)", directory, segmentBytes, this.maxSegments);
+    }
+
+    public void logClientHeaders(long callId, String method, Metadata headers) {
+        enqueue(new Event(callId, BinaryLogFrame.Type.CLIENT_HEADERS, method, headers, null, null, null));
+    }
+
+    public void logServerHeaders(long callId, Metadata headers) {
+        enqueue(new Event(callId, BinaryLogFrame.Type.SERVER_HEADERS, null, headers, null, null, null));
+    }
+
+    /**
+     * @param type {@link BinaryLogFrame.Type#REQUEST} or {@link BinaryLogFrame.Type#RESPONSE}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void logMessage(long callId, BinaryLogFrame.Type type, MethodDescriptor.Marshaller<T> marshaller, T message) {
+        enqueue(new Event(callId, type, null, null, message, (MethodDescriptor.Marshaller<Object>) marshaller, null));
+    }
+
+    public void logClose(long callId, Status status, Metadata trailers) {
+        enqueue(new Event(callId, BinaryLogFrame.Type.CLOSE, null, trailers, null, null, status));
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Prefix of this writer's segment files, see {@link BinaryLogReader#BinaryLogReader(Path, String)}
+     */
+    public String getRunId() {
+        return runId;
+    }
+
+    /**
+     * Frames written to segment files
+     */
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getWrittenBytes() {
+        return writtenBytes.get();
+    }
+
+    /**
+     * Events dropped because the ring was full or the writer closed
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Events that could not be encoded or written, including frames larger than a segment
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Write everything still queued and stop the writer thread
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d frames, %d bytes written to %s; %d dropped, %d failed",
+                getWrittenCount(), getWrittenBytes(), directory, getDroppedCount(), getFailedCount());
+    }
+
+    private void enqueue(Event event) {
+        if (closed || !queue.offer(event)) {
+            dropped.incrementAndGet();
+        } else if (idle) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    /**
+     * Background loop writing queued events; parks while the ring is empty
+     * Same handshake as the logging interceptor's drain: the worker raises {@code idle}
+     * before its last look at the ring and producers check it after offering.
+     */
+    private void drain() {
+        while (true) {
+            Event event = queue.poll();
+            if (event != null) {
+                write(event);
+                continue;
+            }
+            if (closed) {
+                break;
+            }
+            idle = true;
+            event = queue.poll();
+            if (event == null && !closed) {
+                LockSupport.park(this);
+            }
+            idle = false;
+            if (event != null) {
+                write(event);
+            }
+        }
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    private void write(Event event) {
+        try {
+            frame.reset();
+            encode(event);
+            int length = frame.size();
+            if (length + 4 > segmentBytes) {
+                failed.incrementAndGet();
+                log.warn("Dropping {} byte binary log frame, larger than a {} byte segment", length + 4, segmentBytes);
+                return;
+            }
+            if (segment == null || segment.remaining() < length + 4) {
+                roll();
+            }
+
+            // Length goes in last, so a concurrent reader never sees a partial frame
+            int start = segment.position();
+            segment.position(start + 4);
+            segment.put(frame.toByteArray());
+            segment.putInt(start, length);
+            written.incrementAndGet();
+            writtenBytes.addAndGet(length + 4);
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            log.warn("Failed to write binary log frame for call {}", event.callId, e);
+        }
+    }
+
+    private void encode(Event event) throws IOException {
+        frameOut.writeLong(event.callId);
+        frameOut.writeLong(event.timestampNanos);
+        frameOut.writeByte(event.type.ordinal());
+        switch (event.type) {
+            case CLIENT_HEADERS:
+                writeString(event.method);
+                writeMetadata(event.metadata);
+                break;
+            case SERVER_HEADERS:
+                writeMetadata(event.metadata);
+                break;
+            case REQUEST:
+            case RESPONSE:
+                if (event.message instanceof MessageLite) {
+                    ((MessageLite) event.message).writeTo(frameOut);
+                } else {
+                    try (InputStream stream = event.marshaller.stream(event.message)) {
+                        stream.transferTo(frameOut);
+                    }
+                }
+                break;
+            case CLOSE:
+                frameOut.writeInt(event.status.getCode().value());
+                writeString(event.status.getDescription());
+                writeMetadata(event.metadata);
+                break;
+        }
+        frameOut.flush();
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            frameOut.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        frameOut.writeInt(bytes.length);
+        frameOut.write(bytes);
+    }
+
+    private void writeMetadata(Metadata metadata) throws IOException {
+        List<String> names = new ArrayList<>();
+        List<byte[]> values = new ArrayList<>();
+        if (metadata != null) {
+            for (String name : metadata.keys()) {
+                Iterable<byte[]> all = metadata.getAll(key(name));
+                if (all != null) {
+                    for (byte[] value : all) {
+                        names.add(name);
+                        values.add(value);
+                    }
+                }
+            }
+        }
+        frameOut.writeInt(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            writeString(names.get(i));
+            frameOut.writeInt(values.get(i).length);
+            frameOut.write(values.get(i));
+        }
+    }
+
+    /**
+     * Raw-bytes key for any metadata name, so values are copied without decoding
+     */
+    private static Metadata.Key<byte[]> key(String name) {
+        return name.endsWith(Metadata.BINARY_HEADER_SUFFIX)
+                ? Metadata.Key.of(name, Metadata.BINARY_BYTE_MARSHALLER)
+                : Metadata.Key.of(name, AsciiBytes.MARSHALLER);
+    }
+
+    /**
+     * Map the next segment file and delete the oldest in the directory beyond the retention limit
+     */
+    private void roll() throws IOException {
+        if (segment != null) {
+            segment.force();
+        }
+        Path path = directory.resolve(String.format("%s-%06d%s", runId, ++segmentIndex, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+        List<Path> segments = segmentFiles(directory);
+        for (int i = 0, excess = segments.size() - maxSegments; i < segments.size() && excess > 0; i++) {
+            if (!segments.get(i).equals(path)) {
+                Files.deleteIfExists(segments.get(i));
+                excess--;
+            }
+        }
+    }
+
+    /**
+     * Segment files in the directory, ordered by run start and then by index
+     */
+    static List<Path> segmentFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Run id of a segment file, its name without the index and suffix
+     */
+    static String runId(Path segment) {
+        String name = segment.getFileName().toString();
+        return name.substring(0, name.lastIndexOf('-', name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    static long epochNanos() {
+        return System.nanoTime() + EPOCH_OFFSET_NANOS;
+    }
+
+    /**
+     * ASCII metadata values as their raw bytes
+     */
+    static final class AsciiBytes implements Metadata.AsciiMarshaller<byte[]> {
+        static final AsciiBytes MARSHALLER = new AsciiBytes();
+
+        @Override
+        public String toAsciiString(byte[] value) {
+            return new String(value, StandardCharsets.US_ASCII);
+        }
+
+        @Override
+        public byte[] parseAsciiString(String serialized) {
+            return serialized.getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private static final class Event {
+        final long callId;
+        final long timestampNanos = epochNanos();
+        final BinaryLogFrame.Type type;
+        final String method;
+        final Metadata metadata;
+        final Object message;
+        final MethodDescriptor.Marshaller<Object> marshaller;
+        final Status status;
+
+        Event(long callId, BinaryLogFrame.Type type, String method, Metadata metadata,
+              Object message, MethodDescriptor.Marshaller<Object> marshaller, Status status) {
+            this.callId = callId;
+            this.type = type;
+            this.method = method;
+            this.metadata = metadata;
+            this.message = message;
+            this.marshaller = marshaller;
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.mapbox.core.logging;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Parser;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * All captured frames of one call, assembled by {@link BinaryLogReader}
+ * Messages stay as raw protobuf bytes; parse them with the generated message's parser.
+ * A call whose close frame was not captured (still running, or dropped) has a null status.
+ * Call ids are only unique within the writer run named by {@code runId}.
+ */
+@Value
+public class CapturedCall {
+
+    String runId;
+    long callId;
+    String method;
+    long startNanos;
+    long endNanos;
+    Metadata requestHeaders;
+    Metadata responseHeaders;
+    List<byte[]> requests;
+    List<byte[]> responses;
+    Status status;
+    Metadata trailers;
+
+    static CapturedCall of(String runId, List<BinaryLogFrame> frames) {
+        String method = null;
+        Metadata requestHeaders = null;
+        Metadata responseHeaders = null;
+        List<byte[]> requests = new ArrayList<>();
+        List<byte[]> responses = new ArrayList<>();
+        Status status = null;
+        Metadata trailers = null;
+
+        for (BinaryLogFrame frame : frames) {
+            switch (frame.getType()) {
+                case CLIENT_HEADERS:
+                    method = frame.getMethod();
+                    requestHeaders = frame.getMetadata();
+                    break;
+                case REQUEST:
+                    requests.add(frame.getPayload());
+                    break;
+                case SERVER_HEADERS:
+                    responseHeaders = frame.getMetadata();
+                    break;
+                case RESPONSE:
+                    responses.add(frame.getPayload());
+                    break;
+                case CLOSE:
+                    status = frame.getStatus();
+                    trailers = frame.getMetadata();
+                    break;
+            }
+        }
+
+        BinaryLogFrame first = frames.get(0);
+        BinaryLogFrame last = frames.get(frames.size() - 1);
+        return new CapturedCall(runId, first.getCallId(), method, first.getTimestampNanos(), last.getTimestampNanos(),
+                requestHeaders, responseHeaders, List.copyOf(requests), List.copyOf(responses), status, trailers);
+    }
+
+    public boolean isComplete() {
+        return status != null;
+    }
+
+    public long getDurationNanos() {
+        return endNanos - startNanos;
+    }
+
+    public <T> List<T> parseRequests(Parser<T> parser) throws InvalidProtocolBufferException {
+        return parse(requests, parser);
+    }
+
+    public <T> List<T> parseResponses(Parser<T> parser) throws InvalidProtocolBufferException {
+        return parse(responses, parser);
+    }
+
+    private static <T> List<T> parse(List<byte[]> messages, Parser<T> parser) throws InvalidProtocolBufferException {
+        List<T> parsed = new ArrayList<>(messages.size());
+        for (byte[] message : messages) {
+            parsed.add(parser.parseFrom(message));
+        }
+        return parsed;
+    }
+}
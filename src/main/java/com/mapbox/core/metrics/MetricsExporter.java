@@ -0,0 +1,311 @@
+package com.mapbox.core.metrics;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mapbox.core.channel.ChannelPool;
+import com.mapbox.core.channel.ChannelProfile;
+import com.mapbox.core.channel.GrpcChannelFactory;
+import com.mapbox.core.channel.StripedChannel;
+import com.mapbox.core.interceptors.MessageSizeInterceptor;
+import com.mapbox.core.interceptors.MetricsInterceptor;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.grpc.ConnectivityState;
+import io.grpc.Status;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves call metrics, pooled channel states and JVM stats in OpenMetrics text format
+ * An embedded JDK {@link HttpServer} answers scrapes on one daemon thread. Each scrape
+ * renders into a text buffer and a byte buffer that are reused across scrapes, and
+ * numbers are written digit by digit, so a frequent scraper adds little garbage to the
+ * load being measured. Latency is exported as a summary per method and status code,
+ * message sizes as a summary per method, direction and encoding.
+ */
+@Slf4j
+public class MetricsExporter implements AutoCloseable {
+
+    public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] QUANTILE_LABELS = {"0.5", "0.9", "0.99", "0.999"};
+    private static final Status.Code[] CODES = Status.Code.values();
+    private static final ConnectivityState[] STATES = ConnectivityState.values();
+    private static final MessageSizeInterceptor.Direction[] DIRECTIONS = MessageSizeInterceptor.Direction.values();
+    private static final MessageSizeInterceptor.Encoding[] ENCODINGS = MessageSizeInterceptor.Encoding.values();
+    private static final String[] DIRECTION_LABELS = {"sent", "received"};
+    private static final String[] ENCODING_LABELS = {"uncompressed", "wire"};
+
+    private final GrpcChannelFactory channelFactory;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    // Guarded by this; reused by every scrape
+    private final StringBuilder text = new StringBuilder(16 * 1024);
+    private final long[] quantileValues = new long[PERCENTILES.length];
+    private byte[] bytes = new byte[16 * 1024];
+
+    /**
+     * Bind the endpoint; call {@link #start()} to begin serving
+     *
+     * @param port port to listen on, 0 for any free port
+     */
+    public MetricsExporter(GrpcChannelFactory channelFactory, int port, String path) throws IOException {
+        this.channelFactory = channelFactory;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("metrics-exporter-%d").setDaemon(true).build());
+        server.createContext(path, this::handle);
+        server.setExecutor(executor);
+    }
+
+    public MetricsExporter start() {
+        server.start();
+        log.info("Serving OpenMetrics on port {}", getPort());
+        return this;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Render the current metrics as OpenMetrics text
+     */
+    public synchronized String scrape() {
+        render();
+        return text.toString();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            synchronized (this) {
+                render();
+                int length = encode();
+                exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+                exchange.sendResponseHeaders(200, length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(bytes, 0, length);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy the rendered text into the reusable byte buffer; output is ASCII after escaping
+     */
+    private int encode() {
+        int length = text.length();
+        if (bytes.length < length) {
+            bytes = new byte[Math.max(length, bytes.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            bytes[i] = c < 128 ? (byte) c : (byte) '?';
+        }
+        return length;
+    }
+
+    private void render() {
+        text.setLength(0);
+        MetricsInterceptor metrics = channelFactory.getMetricsInterceptor();
+        if (metrics != null) {
+            renderCalls(metrics.getAllMetrics());
+        }
+        MessageSizeInterceptor sizes = channelFactory.getMessageSizeInterceptor();
+        if (sizes != null) {
+            renderMessageSizes(sizes.getAllSizes());
+        }
+        renderChannels(GrpcChannelFactory.getPooledChannels(), GrpcChannelFactory.getPoolStats());
+        renderJvm();
+        text.append("# EOF\n");
+    }
+
+    private void renderCalls(Map<String, MetricsInterceptor.CallMetrics> calls) {
+        family("grpc_client_calls", "counter", "Calls started per method");
+        calls.forEach((method, metrics) -> sample("grpc_client_calls_total", "method", method, metrics.getTotalCalls()));
+
+        family("grpc_client_calls_failed", "counter", "Calls closed with a non-OK status per method");
+        calls.forEach((method, metrics) -> sample("grpc_client_calls_failed_total", "method", method, metrics.getFailedCalls()));
+
+        family("grpc_client_call_latency_seconds", "summary", "Call latency per method and status code");
+        calls.forEach((method, metrics) -> {
+            for (Status.Code code : CODES) {
+                long count = metrics.getLatencyCount(code);
+                if (count == 0) {
+                    continue;
+                }
+                metrics.getLatencyPercentilesMicros(code, PERCENTILES, quantileValues);
+                for (int i = 0; i < PERCENTILES.length; i++) {
+                    text.append("grpc_client_call_latency_seconds{method=\"");
+                    escape(method);
+                    text.append("\",code=\"").append(code.name())
+                            .append("\",quantile=\"").append(QUANTILE_LABELS[i]).append("\"} ");
+                    appendSeconds(quantileValues[i]);
+                    text.append('\n');
+                }
+                text.append("grpc_client_call_latency_seconds_count{method=\"");
+                escape(method);
+                text.append("\",code=\"").append(code.name()).append("\"} ").append(count).append('\n');
+                text.append("grpc_client_call_latency_seconds_sum{method=\"");
+                escape(method);
+                text.append("\",code=\"").append(code.name()).append("\"} ");
+                appendSeconds(metrics.getLatencySumMicros(code));
+                text.append('\n');
+            }
+        });
+    }
+
+    private void renderMessageSizes(Map<String, MessageSizeInterceptor.MessageSizes> methods) {
+        family("grpc_client_message_size_bytes", "summary", "Message size per method, direction and encoding");
+        methods.forEach((method, sizes) -> {
+            for (MessageSizeInterceptor.Direction direction : DIRECTIONS) {
+                for (MessageSizeInterceptor.Encoding encoding : ENCODINGS) {
+                    long count = sizes.getCount(direction, encoding);
+                    if (count == 0) {
+                        continue;
+                    }
+                    sizes.getSizePercentiles(direction, encoding, PERCENTILES, quantileValues);
+                    for (int i = 0; i < PERCENTILES.length; i++) {
+                        sizeLabels("grpc_client_message_size_bytes", method, direction, encoding);
+                        text.append(",quantile=\"").append(QUANTILE_LABELS[i]).append("\"} ")
+                                .append(quantileValues[i]).append('\n');
+                    }
+                    sizeLabels("grpc_client_message_size_bytes_count", method, direction, encoding);
+                    text.append("} ").append(count).append('\n');
+                    sizeLabels("grpc_client_message_size_bytes_sum", method, direction, encoding);
+                    text.append("} ").append(sizes.getTotalBytes(direction, encoding)).append('\n');
+                }
+            }
+        });
+    }
+
+    /**
+     * Sample name and labels of a message size series, leaving the label set open
+     */
+    private void sizeLabels(String name, String method,
+                            MessageSizeInterceptor.Direction direction, MessageSizeInterceptor.Encoding encoding) {
+        text.append(name).append("{method=\"");
+        escape(method);
+        text.append("\",direction=\"").append(DIRECTION_LABELS[direction.ordinal()])
+                .append("\",encoding=\"").append(ENCODING_LABELS[encoding.ordinal()]).append('"');
+    }
+
+    private void renderChannels(Map<ChannelProfile, StripedChannel> channels, ChannelPool.Stats stats) {
+        family("grpc_client_channel_state", "stateset", "Connectivity state of each pooled channel");
+        channels.forEach((profile, channel) -> {
+            ConnectivityState current = channel.getState(false);
+            for (ConnectivityState state : STATES) {
+                text.append("grpc_client_channel_state{target=\"");
+                escape(profile.getTarget());
+                text.append("\",channel=\"").append(Integer.toHexString(System.identityHashCode(channel)))
+                        .append("\",grpc_client_channel_state=\"").append(state.name()).append("\"} ")
+                        .append(state == current ? 1 : 0).append('\n');
+            }
+        });
+
+        family("grpc_client_channel_in_flight", "gauge", "Calls in flight on each pooled channel");
+        channels.forEach((profile, channel) -> {
+            text.append("grpc_client_channel_in_flight{target=\"");
+            escape(profile.getTarget());
+            text.append("\",channel=\"").append(Integer.toHexString(System.identityHashCode(channel)))
+                    .append("\"} ").append(channel.getTotalInFlight()).append('\n');
+        });
+
+        family("grpc_client_channel_pool_hits", "counter", "Channel lookups served from the pool");
+        text.append("grpc_client_channel_pool_hits_total ").append(stats.getHits()).append('\n');
+        family("grpc_client_channel_pool_misses", "counter", "Channel lookups that created a channel");
+        text.append("grpc_client_channel_pool_misses_total ").append(stats.getMisses()).append('\n');
+    }
+
+    private void renderJvm() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        MemoryUsage heap = memory.getHeapMemoryUsage();
+        MemoryUsage nonHeap = memory.getNonHeapMemoryUsage();
+
+        family("jvm_memory_used_bytes", "gauge", "Used memory by area");
+        sample("jvm_memory_used_bytes", "area", "heap", heap.getUsed());
+        sample("jvm_memory_used_bytes", "area", "nonheap", nonHeap.getUsed());
+        family("jvm_memory_committed_bytes", "gauge", "Committed memory by area");
+        sample("jvm_memory_committed_bytes", "area", "heap", heap.getCommitted());
+        sample("jvm_memory_committed_bytes", "area", "nonheap", nonHeap.getCommitted());
+        family("jvm_memory_max_bytes", "gauge", "Maximum heap size");
+        sample("jvm_memory_max_bytes", "area", "heap", heap.getMax());
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        family("jvm_threads_current", "gauge", "Live threads");
+        text.append("jvm_threads_current ").append(threads.getThreadCount()).append('\n');
+
+        List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        family("jvm_gc_collections", "counter", "Collections per garbage collector");
+        for (GarbageCollectorMXBean gc : collectors) {
+            sample("jvm_gc_collections_total", "gc", gc.getName(), Math.max(0, gc.getCollectionCount()));
+        }
+        family("jvm_gc_collection_seconds", "counter", "Time spent collecting per garbage collector");
+        for (GarbageCollectorMXBean gc : collectors) {
+            text.append("jvm_gc_collection_seconds_total{gc=\"");
+            escape(gc.getName());
+            text.append("\"} ");
+            appendSeconds(Math.max(0, gc.getCollectionTime()) * 1000);
+            text.append('\n');
+        }
+    }
+
+    private void family(String name, String type, String help) {
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    }
+
+    private void sample(String name, String label, String value, long number) {
+        text.append(name).append('{').append(label).append("=\"");
+        escape(value);
+        text.append("\"} ").append(number).append('\n');
+    }
+
+    /**
+     * Microseconds as decimal seconds, without going through a double
+     */
+    private void appendSeconds(long micros) {
+        text.append(micros / 1_000_000).append('.');
+        long fraction = micros % 1_000_000;
+        for (long digit = 100_000; digit > 1 && fraction < digit; digit /= 10) {
+            text.append('0');
+        }
+        text.append(fraction);
+    }
+
+    private void escape(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                text.append('\\').append(c);
+            } else if (c == '\n') {
+                text.append("\\n");
+            } else {
+                text.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.mapbox.core.retry;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.protobuf.Message;
+import com.mapbox.core.assertions.GrpcResponse;
+import com.mapbox.core.interceptors.MetricsInterceptor;
+import io.grpc.Context;
+import io.grpc.Status;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Client-side hedging for idempotent unary calls
+ * Sends the original attempt, then another one every hedge delay while no attempt has
+ * succeeded, up to {@link HedgingPolicy#getMaxAttempts()}. The first OK response wins and
+ * the other attempts are cancelled. A failure only completes the call once no other
+ * attempt is still outstanding; it does not trigger an early hedge (that is retry's job).
+ */
+@Slf4j
+public class HedgingExecutor {
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("grpc-hedging-%d").setDaemon(true).build());
+
+    private final HedgingPolicy policy;
+    private final ConcurrentHashMap<String, Stats> statsMap = new ConcurrentHashMap<>();
+
+    public HedgingExecutor(HedgingPolicy policy) {
+        this.policy = policy;
+    }
+
+    public boolean isHedged(String fullMethodName) {
+        return policy.isHedged(fullMethodName);
+    }
+
+    /**
+     * Hedge delay for a method: its recent latency percentile when configured and
+     * sampled enough, otherwise the fixed delay
+     *
+     * @param metrics the method's call metrics, or null when metrics are disabled
+     */
+    public long hedgeDelayNanos(MetricsInterceptor.CallMetrics metrics) {
+        if (policy.getDelayPercentile() > 0 && metrics != null
+                && metrics.getRecentSampleCount() >= policy.getMinSamples()) {
+            long micros = metrics.getRecentLatencyPercentileMicros(policy.getDelayPercentile() / 100.0);
+            if (micros > 0) {
+                return TimeUnit.MICROSECONDS.toNanos(micros);
+            }
+        }
+        return TimeUnit.MILLISECONDS.toNanos(policy.getDelayMs());
+    }
+
+    /**
+     * Run a hedged call
+     * Every attempt is started in the caller's gRPC context. The returned future never
+     * completes exceptionally; its latency covers the whole hedged call. Cancelling it
+     * cancels every outstanding attempt.
+     *
+     * @param attempt starts one attempt; must never complete exceptionally except by cancellation
+     */
+    public <RespT extends Message> CompletableFuture<GrpcResponse<RespT>> execute(
+            String fullMethodName,
+            long delayNanos,
+            Supplier<CompletableFuture<GrpcResponse<RespT>>> attempt) {
+
+        Stats stats = statsMap.computeIfAbsent(fullMethodName, k -> new Stats());
+        stats.calls.incrementAndGet();
+
+        HedgedCall<RespT> call = new HedgedCall<>(attempt, delayNanos, stats, Context.current());
+        call.launch(0);
+        return call.result;
+    }
+
+    public Stats getStats(String fullMethodName) {
+        return statsMap.get(fullMethodName);
+    }
+
+    public Map<String, Stats> getAllStats() {
+        return Map.copyOf(statsMap);
+    }
+
+    public void resetStats() {
+        statsMap.clear();
+    }
+
+    /**
+     * State of one hedged call and its attempts
+     */
+    private class HedgedCall<RespT extends Message> {
+        private final CompletableFuture<GrpcResponse<RespT>> result = new CompletableFuture<>();
+        private final Supplier<CompletableFuture<GrpcResponse<RespT>>> attempt;
+        private final long delayNanos;
+        private final Stats stats;
+        private final Context context;
+        private final long startNanos = System.nanoTime();
+
+        // Guarded by this
+        private final List<CompletableFuture<GrpcResponse<RespT>>> attempts = new ArrayList<>();
+        private int outstanding;
+        private boolean committed;
+        private ScheduledFuture<?> nextHedge;
+
+        HedgedCall(Supplier<CompletableFuture<GrpcResponse<RespT>>> attempt, long delayNanos,
+                   Stats stats, Context context) {
+            this.attempt = attempt;
+            this.delayNanos = delayNanos;
+            this.stats = stats;
+            this.context = context;
+
+            result.whenComplete((response, error) -> {
+                if (result.isCancelled()) {
+                    cancel(commit(null));
+                }
+            });
+        }
+
+        void launch(int index) {
+            CompletableFuture<GrpcResponse<RespT>> future;
+            synchronized (this) {
+                if (committed) {
+                    return;
+                }
+                Context previous = context.attach();
+                try {
+                    future = attempt.get();
+                } finally {
+                    context.detach(previous);
+                }
+                attempts.add(future);
+                outstanding++;
+                if (index + 1 < policy.getMaxAttempts()) {
+                    nextHedge = scheduler.schedule(() -> launch(index + 1), delayNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+
+            if (index > 0) {
+                stats.hedges.incrementAndGet();
+                if (index == 1) {
+                    stats.hedgedCalls.incrementAndGet();
+                }
+                log.debug("Sent hedge attempt {} after {}us", index + 1, TimeUnit.NANOSECONDS.toMicros(delayNanos));
+            }
+            future.whenComplete((response, error) -> onAttemptComplete(index, future, response, error));
+        }
+
+        private void onAttemptComplete(int index, CompletableFuture<GrpcResponse<RespT>> future,
+                                       GrpcResponse<RespT> response, Throwable error) {
+            boolean success = response != null && response.isSuccess();
+            List<CompletableFuture<GrpcResponse<RespT>>> losers;
+            synchronized (this) {
+                outstanding--;
+                if (committed || (!success && outstanding > 0)) {
+                    return;
+                }
+                losers = commit(future);
+            }
+
+            if (success && index > 0) {
+                stats.hedgeWins.incrementAndGet();
+            }
+            cancel(losers);
+
+            GrpcResponse<RespT> committedResponse = response != null
+                    ? response
+                    : GrpcResponse.failure(Status.fromThrowable(error), 0);
+            committedResponse.setLatencyMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            result.complete(committedResponse);
+        }
+
+        /**
+         * Stop further hedges and return every attempt other than the winner
+         */
+        private synchronized List<CompletableFuture<GrpcResponse<RespT>>> commit(
+                CompletableFuture<GrpcResponse<RespT>> winner) {
+            if (committed) {
+                return List.of();
+            }
+            committed = true;
+            if (nextHedge != null) {
+                nextHedge.cancel(false);
+            }
+            List<CompletableFuture<GrpcResponse<RespT>>> losers = new ArrayList<>(attempts);
+            losers.remove(winner);
+            return losers;
+        }
+
+        private void cancel(List<CompletableFuture<GrpcResponse<RespT>>> losers) {
+            losers.forEach(loser -> loser.cancel(true));
+        }
+    }
+
+    /**
+     * Hedging counters for one method
+     */
+    public static class Stats {
+        private final AtomicLong calls = new AtomicLong(0);
+        private final AtomicLong hedgedCalls = new AtomicLong(0);
+        private final AtomicLong hedges = new AtomicLong(0);
+        private final AtomicLong hedgeWins = new AtomicLong(0);
+
+        public long getCalls() {
+            return calls.get();
+        }
+
+        /**
+         * Calls that sent at least one hedge attempt
+         */
+        public long getHedgedCalls() {
+            return hedgedCalls.get();
+        }
+
+        /**
+         * Hedge attempts sent, not counting original attempts
+         */
+        public long getHedges() {
+            return hedges.get();
+        }
+
+        /**
+         * Calls won by a hedge attempt rather than the original
+         */
+        public long getHedgeWins() {
+            return hedgeWins.get();
+        }
+
+        /**
+         * Percentage of calls that sent a hedge
+         */
+        public double getHedgeRate() {
+            long total = calls.get();
+            return total > 0 ? (double) hedgedCalls.get() / total * 100 : 0;
+        }
+
+        /**
+         * Percentage of hedged calls won by a hedge attempt
+         */
+        public double getWinRate() {
+            long hedged = hedgedCalls.get();
+            return hedged > 0 ? (double) hedgeWins.get() / hedged * 100 : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d calls, %d hedged (%.1f%%), %d hedges sent, %d won by hedge (%.1f%%)",
+                    getCalls(), getHedgedCalls(), getHedgeRate(), getHedges(), getHedgeWins(), getWinRate());
+        }
+    }
+}
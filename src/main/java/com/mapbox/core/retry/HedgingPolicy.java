@@ -0,0 +1,35 @@
+package com.mapbox.core.retry;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Set;
+
+/**
+ * Client-side hedging settings for idempotent unary methods
+ * The hedge delay is {@code delayMs}, or the live {@code delayPercentile} latency of
+ * the method once {@code minSamples} successful calls have been observed.
+ */
+@Value
+@Builder
+public class HedgingPolicy {
+
+    /** Full method names (e.g. {@code campaign.CampaignService/GetCampaign}) that may be hedged */
+    Set<String> methods;
+
+    /** Total attempts per call including the original, at least 2 to hedge at all */
+    int maxAttempts;
+
+    /** Fixed hedge delay, also used until enough latency samples exist */
+    long delayMs;
+
+    /** Percentile (0-100) of recent latency used as hedge delay; 0 keeps the fixed delay */
+    double delayPercentile;
+
+    /** Successful calls needed before the percentile delay is trusted */
+    int minSamples;
+
+    public boolean isHedged(String fullMethodName) {
+        return maxAttempts > 1 && methods.contains(fullMethodName);
+    }
+}
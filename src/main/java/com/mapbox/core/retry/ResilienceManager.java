@@ -1,37 +1,62 @@
 package com.mapbox.core.retry;
 
+import com.google.protobuf.Message;
+import com.mapbox.core.assertions.GrpcResponse;
+import com.mapbox.core.config.ConfigManager;
+import com.mapbox.core.config.FrameworkConfig;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryConfig;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.grpc.MethodDescriptor;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 /**
- * Resilience manager for retry and circuit breaker patterns
+ * Resilience manager for retry, circuit breaker and bulkhead patterns
+ * Besides the global retry and circuit breaker, keeps one circuit breaker and one
+ * bulkhead per gRPC full method name, so an outage of one method never short-circuits
+ * another. Settings come from {@code resilience.*} in {@link FrameworkConfig}, each
+ * overridable per method with a {@code [full method name]} key suffix.
  */
 @Slf4j
 public class ResilienceManager {
 
+    private final FrameworkConfig config;
     private final Retry retry;
     private final CircuitBreaker circuitBreaker;
+    private final ConcurrentHashMap<String, CircuitBreaker> methodCircuitBreakers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Bulkhead> methodBulkheads = new ConcurrentHashMap<>();
 
     public ResilienceManager() {
+        this(ConfigManager.getConfig());
+    }
+
+    public ResilienceManager(FrameworkConfig config) {
+        this.config = config;
         this.retry = createRetry();
-        this.circuitBreaker = createCircuitBreaker();
+        this.circuitBreaker = createCircuitBreaker("grpcCircuitBreaker");
     }
 
     /**
      * Create retry configuration
      */
     private Retry createRetry() {
-        RetryConfig config = RetryConfig.custom()
-                .maxAttempts(3)
-                .waitDuration(Duration.ofMillis(1000))
+        RetryConfig retryConfig = RetryConfig.custom()
+                .maxAttempts(config.maxRetryAttempts())
+                .waitDuration(Duration.ofMillis(config.retryBackoffMs()))
                 .retryExceptions(StatusRuntimeException.class)
                 .retryOnException(throwable -> {
                     if (throwable instanceof StatusRuntimeException) {
@@ -44,7 +69,7 @@ public class ResilienceManager {
                 })
                 .build();
 
-        Retry retry = Retry.of("grpcRetry", config);
+        Retry retry = Retry.of("grpcRetry", retryConfig);
 
         retry.getEventPublisher()
                 .onRetry(event -> log.warn("Retry attempt {} due to {}",
@@ -56,26 +81,87 @@ public class ResilienceManager {
 
     /**
      * Create circuit breaker configuration
+     * Failed calls are StatusRuntimeExceptions or non-OK {@link GrpcResponse}s with a
+     * server-health status; client errors such as INVALID_ARGUMENT or NOT_FOUND do not count.
+     *
+     * @param name breaker name; a full method name picks up that method's overrides
      */
-    private CircuitBreaker createCircuitBreaker() {
-        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
-                .failureRateThreshold(50)
-                .waitDurationInOpenState(Duration.ofSeconds(30))
-                .slidingWindowSize(10)
-                .minimumNumberOfCalls(5)
+    private CircuitBreaker createCircuitBreaker(String name) {
+        CircuitBreakerConfig breakerConfig = CircuitBreakerConfig.custom()
+                .failureRateThreshold(setting("resilience.circuitbreaker.failure.rate", name,
+                        config.circuitBreakerFailureRate()).floatValue())
+                .waitDurationInOpenState(Duration.ofSeconds(setting("resilience.circuitbreaker.open.seconds", name,
+                        config.circuitBreakerOpenSeconds()).longValue()))
+                .slidingWindowSize(setting("resilience.circuitbreaker.window.size", name,
+                        config.circuitBreakerWindowSize()).intValue())
+                .minimumNumberOfCalls(setting("resilience.circuitbreaker.min.calls", name,
+                        config.circuitBreakerMinCalls()).intValue())
+                .recordException(ResilienceManager::isServerFailure)
+                .recordResult(result -> result instanceof GrpcResponse
+                        && !((GrpcResponse<?>) result).isSuccess()
+                        && isServerFailure(((GrpcResponse<?>) result).getStatus()))
                 .build();
 
-        CircuitBreaker circuitBreaker = CircuitBreaker.of("grpcCircuitBreaker", config);
+        CircuitBreaker circuitBreaker = CircuitBreaker.of(name, breakerConfig);
 
         circuitBreaker.getEventPublisher()
                 .onStateTransition(event ->
-                        log.warn("Circuit breaker state changed from {} to {}",
+                        log.warn("Circuit breaker {} state changed from {} to {}",
+                                name,
                                 event.getStateTransition().getFromState(),
                                 event.getStateTransition().getToState()));
 
         return circuitBreaker;
     }
 
+    /**
+     * Create a semaphore bulkhead capping concurrent calls to one method
+     */
+    private Bulkhead createBulkhead(String fullMethodName) {
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(setting("resilience.bulkhead.max.concurrent", fullMethodName,
+                        config.bulkheadMaxConcurrent()).intValue())
+                .maxWaitDuration(Duration.ofMillis(setting("resilience.bulkhead.max.wait.ms", fullMethodName,
+                        config.bulkheadMaxWaitMs()).longValue()))
+                .build();
+
+        Bulkhead bulkhead = Bulkhead.of(fullMethodName, bulkheadConfig);
+
+        bulkhead.getEventPublisher()
+                .onCallRejected(event -> log.debug("Bulkhead {} full, call rejected", fullMethodName));
+
+        return bulkhead;
+    }
+
+    /**
+     * Per-method override {@code key[name]} if set, otherwise the configured default
+     */
+    private Number setting(String key, String name, Number defaultValue) {
+        String override = config.getProperty(key + "[" + name + "]");
+        return override != null ? Double.valueOf(override.trim()) : defaultValue;
+    }
+
+    private static boolean isServerFailure(Throwable throwable) {
+        return throwable instanceof StatusRuntimeException
+                && isServerFailure(((StatusRuntimeException) throwable).getStatus());
+    }
+
+    private static boolean isServerFailure(Status status) {
+        if (status == null) {
+            return true;
+        }
+        switch (status.getCode()) {
+            case UNAVAILABLE:
+            case DEADLINE_EXCEEDED:
+            case RESOURCE_EXHAUSTED:
+            case INTERNAL:
+            case UNKNOWN:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     /**
      * Execute supplier with retry
      */
@@ -102,6 +188,53 @@ public class ResilienceManager {
         return decoratedSupplier.get();
     }
 
+    /**
+     * Execute supplier behind the method's bulkhead and circuit breaker
+     */
+    public <T> T executeWithResilience(String fullMethodName, Supplier<T> supplier) {
+        Supplier<T> decoratedSupplier = Bulkhead.decorateSupplier(getBulkhead(fullMethodName),
+                CircuitBreaker.decorateSupplier(getCircuitBreaker(fullMethodName), supplier));
+        return decoratedSupplier.get();
+    }
+
+    /**
+     * Run an async call behind the method's bulkhead and circuit breaker without blocking
+     * The bulkhead permit is held until the stage completes. When the bulkhead is full or
+     * the breaker is open the returned stage fails at once with
+     * {@link BulkheadFullException} or {@link CallNotPermittedException}, and the call is
+     * never started.
+     */
+    public <T> CompletionStage<T> executeAsync(String fullMethodName, Supplier<CompletionStage<T>> supplier) {
+        Supplier<CompletionStage<T>> decoratedSupplier = Bulkhead.decorateCompletionStage(getBulkhead(fullMethodName),
+                CircuitBreaker.decorateCompletionStage(getCircuitBreaker(fullMethodName), supplier));
+        return decoratedSupplier.get();
+    }
+
+    /**
+     * Run an async gRPC call behind its method's bulkhead and circuit breaker
+     * Like the client's async calls, the returned future never completes exceptionally:
+     * an open breaker is reported as UNAVAILABLE and a full bulkhead as RESOURCE_EXHAUSTED.
+     */
+    public <RespT extends Message> CompletableFuture<GrpcResponse<RespT>> executeAsync(
+            MethodDescriptor<?, RespT> method,
+            Supplier<CompletableFuture<GrpcResponse<RespT>>> call) {
+
+        return executeAsync(method.getFullMethodName(), call::get)
+                .toCompletableFuture()
+                .exceptionally(error -> GrpcResponse.failure(rejectionStatus(error), 0));
+    }
+
+    private static Status rejectionStatus(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof CallNotPermittedException) {
+            return Status.UNAVAILABLE.withDescription(cause.getMessage()).withCause(cause);
+        }
+        if (cause instanceof BulkheadFullException) {
+            return Status.RESOURCE_EXHAUSTED.withDescription(cause.getMessage()).withCause(cause);
+        }
+        return Status.fromThrowable(cause);
+    }
+
     /**
      * Get retry instance for custom decoration
      */
@@ -115,5 +248,18 @@ public class ResilienceManager {
     public CircuitBreaker getCircuitBreaker() {
         return circuitBreaker;
     }
-}
 
+    /**
+     * Get the circuit breaker of a method, creating it on first use
+     */
+    public CircuitBreaker getCircuitBreaker(String fullMethodName) {
+        return methodCircuitBreakers.computeIfAbsent(fullMethodName, this::createCircuitBreaker);
+    }
+
+    /**
+     * Get the bulkhead of a method, creating it on first use
+     */
+    public Bulkhead getBulkhead(String fullMethodName) {
+        return methodBulkheads.computeIfAbsent(fullMethodName, this::createBulkhead);
+    }
+}
@@ -0,0 +1,44 @@
+package com.mapbox.core.retry;
+
+/**
+ * Token-bucket retry throttle shared by all calls of a channel factory
+ * Follows gRPC's retryThrottling policy: the bucket starts full, every retryable failure
+ * takes one token, every success returns {@code tokenRatio} tokens, and retries are only
+ * allowed while more than half the tokens remain. During an outage the bucket drains and
+ * calls fail on their first attempt instead of multiplying load.
+ */
+public class RetryBudget {
+
+    private final double maxTokens;
+    private final double tokenRatio;
+    private final double threshold;
+
+    // Guarded by this
+    private double tokens;
+
+    public RetryBudget(double maxTokens, double tokenRatio) {
+        if (maxTokens <= 0 || tokenRatio <= 0) {
+            throw new IllegalArgumentException("maxTokens and tokenRatio must be positive");
+        }
+        this.maxTokens = maxTokens;
+        this.tokenRatio = tokenRatio;
+        this.threshold = maxTokens / 2;
+        this.tokens = maxTokens;
+    }
+
+    public synchronized void onSuccess() {
+        tokens = Math.min(maxTokens, tokens + tokenRatio);
+    }
+
+    /**
+     * Record a retryable failure and return whether a retry is still allowed
+     */
+    public synchronized boolean onRetryableFailure() {
+        tokens = Math.max(0, tokens - 1);
+        return tokens > threshold;
+    }
+
+    public synchronized double getTokens() {
+        return tokens;
+    }
+}
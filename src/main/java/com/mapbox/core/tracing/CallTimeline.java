@@ -0,0 +1,244 @@
+package com.mapbox.core.tracing;
+
+import io.grpc.ClientStreamTracer;
+import io.grpc.Context;
+import io.grpc.Metadata;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Nanosecond timestamps for each phase of a single client call
+ * Created per call by {@code BaseGrpcClient}, carried through {@link Context}, and filled in
+ * by {@code CallTimelineInterceptor} and the stream tracer it installs. All timestamps are
+ * {@link System#nanoTime()} values; 0 means the phase was not reached. When a call is
+ * retried, every phase after {@code callStart} reflects the latest attempt.
+ */
+public class CallTimeline {
+
+    public static final Context.Key<CallTimeline> CONTEXT_KEY = Context.key("mapbox-call-timeline");
+
+    private final long callStart;
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    private volatile long streamCreated;
+    private volatile long headersSent;
+    private volatile long outboundMessageSerialized;
+    private volatile long firstInboundByte;
+    private volatile long headersReceived;
+    private volatile long messageReceived;
+    private volatile long messageParsed;
+    private volatile long closed;
+
+    private final ClientStreamTracer.Factory tracerFactory = new ClientStreamTracer.Factory() {
+        @Override
+        public ClientStreamTracer newClientStreamTracer(ClientStreamTracer.StreamInfo info, Metadata headers) {
+            onStreamCreated();
+            return new TimelineStreamTracer();
+        }
+    };
+
+    public CallTimeline() {
+        this.callStart = System.nanoTime();
+    }
+
+    /**
+     * Timeline bound to the current call context, or null outside a traced call
+     */
+    public static CallTimeline current() {
+        return CONTEXT_KEY.get();
+    }
+
+    /**
+     * Stream tracer factory recording transport-level phases into this timeline
+     */
+    public ClientStreamTracer.Factory tracerFactory() {
+        return tracerFactory;
+    }
+
+    private void onStreamCreated() {
+        attempts.incrementAndGet();
+        // A new attempt starts a fresh set of transport phases
+        headersSent = 0;
+        outboundMessageSerialized = 0;
+        firstInboundByte = 0;
+        headersReceived = 0;
+        messageReceived = 0;
+        messageParsed = 0;
+        streamCreated = System.nanoTime();
+    }
+
+    /**
+     * Response headers delivered to the application listener
+     */
+    public void recordHeadersReceived() {
+        headersReceived = System.nanoTime();
+    }
+
+    /**
+     * First response message delivered to the application listener, i.e. after deserialization
+     */
+    public void recordMessageParsed() {
+        if (messageParsed == 0) {
+            messageParsed = System.nanoTime();
+        }
+    }
+
+    /**
+     * Call closed with a status
+     */
+    public void recordClosed() {
+        closed = System.nanoTime();
+    }
+
+    public long getCallStart() {
+        return callStart;
+    }
+
+    public long getStreamCreated() {
+        return streamCreated;
+    }
+
+    public long getHeadersSent() {
+        return headersSent;
+    }
+
+    public long getOutboundMessageSerialized() {
+        return outboundMessageSerialized;
+    }
+
+    public long getFirstInboundByte() {
+        return firstInboundByte;
+    }
+
+    public long getHeadersReceived() {
+        return headersReceived;
+    }
+
+    public long getMessageReceived() {
+        return messageReceived;
+    }
+
+    public long getMessageParsed() {
+        return messageParsed;
+    }
+
+    public long getClosed() {
+        return closed;
+    }
+
+    /**
+     * Number of transport streams (attempts) created for the call
+     */
+    public int getAttempts() {
+        return attempts.get();
+    }
+
+    /**
+     * Client-side time before a stream existed: interceptors, name resolution, load balancing
+     */
+    public long getQueueingNanos() {
+        return between(callStart, streamCreated);
+    }
+
+    /**
+     * Time to put headers and the request on the wire
+     */
+    public long getSendNanos() {
+        return between(streamCreated, outboundMessageSerialized);
+    }
+
+    /**
+     * Network round trip plus server processing, up to the first response bytes
+     */
+    public long getServerNanos() {
+        return between(outboundMessageSerialized, firstInboundByte);
+    }
+
+    /**
+     * Receiving the response message from the transport
+     */
+    public long getReceiveNanos() {
+        return between(firstInboundByte, messageReceived);
+    }
+
+    /**
+     * Deserialization and hand-off to the application executor
+     */
+    public long getDeserializationNanos() {
+        return between(messageReceived, messageParsed);
+    }
+
+    /**
+     * Whole call, from start until close
+     */
+    public long getTotalNanos() {
+        return between(callStart, closed);
+    }
+
+    private static long between(long from, long to) {
+        return from > 0 && to >= from ? to - from : -1;
+    }
+
+    @Override
+    public String toString() {
+        return "CallTimeline[attempts=" + attempts.get()
+                + ", queueing=" + micros(getQueueingNanos())
+                + ", send=" + micros(getSendNanos())
+                + ", server=" + micros(getServerNanos())
+                + ", receive=" + micros(getReceiveNanos())
+                + ", deserialize=" + micros(getDeserializationNanos())
+                + ", total=" + micros(getTotalNanos()) + "]";
+    }
+
+    private static String micros(long nanos) {
+        return nanos < 0 ? "n/a" : TimeUnit.NANOSECONDS.toMicros(nanos) + "us";
+    }
+
+    /**
+     * Transport callbacks for one attempt; runs on transport threads, so it only stores timestamps
+     */
+    private class TimelineStreamTracer extends ClientStreamTracer {
+
+        @Override
+        public void outboundHeaders() {
+            headersSent = System.nanoTime();
+        }
+
+        @Override
+        public void outboundMessageSent(int seqNo, long optionalWireSize, long optionalUncompressedSize) {
+            if (seqNo == 0) {
+                outboundMessageSerialized = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void inboundHeaders() {
+            if (firstInboundByte == 0) {
+                firstInboundByte = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void inboundTrailers(Metadata trailers) {
+            // Trailers-only responses (most errors) carry no headers or messages
+            if (firstInboundByte == 0) {
+                firstInboundByte = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void inboundMessage(int seqNo) {
+            if (firstInboundByte == 0) {
+                firstInboundByte = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void inboundMessageRead(int seqNo, long optionalWireSize, long optionalUncompressedSize) {
+            if (seqNo == 0) {
+                messageReceived = System.nanoTime();
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.mapbox.core.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import lombok.Setter;
+
+/**
+ * Flight Recorder event spanning one client call attempt
+ * Disabled unless a recording enables {@value #NAME}. Phase durations come from the
+ * call's {@link CallTimeline} and are -1 when the phase was not reached or the call
+ * was made without a timeline. Byte counts are wire sizes as reported by the transport,
+ * which stay 0 on the in-process transport.
+ */
+@Name(GrpcCallEvent.NAME)
+@Label("gRPC Call")
+@Category({"gRPC", "Client"})
+@Description("One client call attempt, from start until close")
+@Enabled(false)
+@StackTrace(true)
+@Setter
+public class GrpcCallEvent extends Event {
+
+    public static final String NAME = "com.mapbox.grpc.Call";
+
+    @Label("Method")
+    String method;
+
+    @Label("Method Type")
+    String methodType;
+
+    @Label("Status")
+    String status;
+
+    @Label("Status Description")
+    String description;
+
+    @Label("Attempt")
+    @Description("1 for the original call, higher for retries and hedges")
+    int attempt;
+
+    @Label("Messages Sent")
+    long messagesSent;
+
+    @Label("Messages Received")
+    long messagesReceived;
+
+    @Label("Bytes Sent")
+    @DataAmount
+    long bytesSent;
+
+    @Label("Bytes Received")
+    @DataAmount
+    long bytesReceived;
+
+    @Label("Queueing")
+    @Timespan
+    long queueingNanos;
+
+    @Label("Send")
+    @Timespan
+    long sendNanos;
+
+    @Label("Server")
+    @Timespan
+    long serverNanos;
+
+    @Label("Receive")
+    @Timespan
+    long receiveNanos;
+
+    @Label("Deserialization")
+    @Timespan
+    long deserializationNanos;
+}
@@ -0,0 +1,42 @@
+package com.mapbox.core.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Flight Recorder event for one message sent or received on a streaming call
+ * Disabled unless a recording enables {@value #NAME}; unary calls only emit {@link GrpcCallEvent}.
+ */
+@Name(GrpcMessageEvent.NAME)
+@Label("gRPC Stream Message")
+@Category({"gRPC", "Client"})
+@Description("A message sent or received on a streaming call")
+@Enabled(false)
+@StackTrace(true)
+@Setter
+public class GrpcMessageEvent extends Event {
+
+    public static final String NAME = "com.mapbox.grpc.StreamMessage";
+
+    @Label("Method")
+    String method;
+
+    @Label("Direction")
+    @Description("SENT or RECEIVED")
+    String direction;
+
+    @Label("Sequence")
+    @Description("Position of the message in its direction, starting at 0")
+    long sequence;
+
+    @Label("Serialized Size")
+    @DataAmount
+    long size;
+}
@@ -1,14 +1,21 @@
 package com.mapbox.services.campaign;
 
 import com.mapbox.client.BaseGrpcClient;
+import com.mapbox.client.BatchExecutor;
+import com.mapbox.client.BatchResult;
+import com.mapbox.client.BatchSummary;
 import com.mapbox.core.assertions.GrpcResponse;
 import com.mapbox.core.channel.GrpcChannelFactory;
 import com.mapbox.core.streaming.StreamingResponseCollector;
 import com.mapbox.grpc.campaign.*;
+import io.grpc.MethodDescriptor;
 import io.grpc.stub.StreamObserver;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Campaign Service Client
@@ -18,27 +25,76 @@ import java.util.concurrent.TimeUnit;
 public class CampaignClient extends BaseGrpcClient<CampaignServiceGrpc.CampaignServiceBlockingStub> {
 
     private CampaignServiceGrpc.CampaignServiceStub asyncStubInternal;
+    private CampaignServiceGrpc.CampaignServiceFutureStub futureStub;
 
     public CampaignClient(GrpcChannelFactory channelFactory) {
         super(channelFactory);
     }
 
+    public CampaignClient(GrpcChannelFactory channelFactory, String target) {
+        super(channelFactory, target);
+    }
+
     @Override
     protected void initializeStubs() {
         this.blockingStub = CampaignServiceGrpc.newBlockingStub(channel);
         this.asyncStubInternal = CampaignServiceGrpc.newStub(channel);
+        this.futureStub = CampaignServiceGrpc.newFutureStub(channel);
     }
 
     /**
      * Get campaign details
+     * Hedged or coalesced when GetCampaign is listed in {@code hedging.methods}
+     * or {@code coalescing.methods}
      */
     public GrpcResponse<GetCampaignResponse> getCampaign(GetCampaignRequest request) {
         log.info("Getting campaign for caller: {}, receiver: {}",
                 request.getCaller(), request.getReceiver());
 
+        MethodDescriptor<GetCampaignRequest, GetCampaignResponse> method = CampaignServiceGrpc.getGetCampaignMethod();
+        if (isHedged(method) || isCoalesced(method)) {
+            return executeUnaryCoalesced(request, futureStub::getCampaign, method).join();
+        }
         return executeUnaryCall(request, blockingStub::getCampaign);
     }
 
+    /**
+     * Get campaign details without blocking the calling thread
+     */
+    public CompletableFuture<GrpcResponse<GetCampaignResponse>> getCampaignAsync(GetCampaignRequest request) {
+        log.debug("Getting campaign asynchronously for caller: {}, receiver: {}",
+                request.getCaller(), request.getReceiver());
+
+        return executeUnaryCoalesced(request, futureStub::getCampaign, CampaignServiceGrpc.getGetCampaignMethod());
+    }
+
+    /**
+     * Get many campaigns with at most {@code maxInFlight} calls outstanding
+     * Results reach the sink in completion or request order; blocks until all are delivered.
+     */
+    public BatchSummary getCampaignBatch(
+            Iterable<GetCampaignRequest> requests,
+            int maxInFlight,
+            BatchExecutor.Order order,
+            Consumer<BatchResult<GetCampaignRequest, GetCampaignResponse>> sink) {
+
+        log.info("Getting campaign batch with max {} in flight, {} order", maxInFlight, order);
+        return executeBatch(requests.iterator(), maxInFlight, order, futureStub::getCampaign, sink);
+    }
+
+    /**
+     * Get many campaigns from a stream of requests
+     */
+    public BatchSummary getCampaignBatch(
+            Stream<GetCampaignRequest> requests,
+            int maxInFlight,
+            BatchExecutor.Order order,
+            Consumer<BatchResult<GetCampaignRequest, GetCampaignResponse>> sink) {
+
+        log.info("Getting campaign batch with max {} in flight, {} order", maxInFlight, order);
+        return executeBatch(requests.iterator(), maxInFlight, order, futureStub::getCampaign, sink);
+    }
+
     /**
      * Get campaign with custom deadline
      */
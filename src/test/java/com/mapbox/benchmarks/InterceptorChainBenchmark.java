@@ -0,0 +1,130 @@
+package com.mapbox.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.mapbox.core.interceptors.AuthTokenInterceptor;
+import com.mapbox.core.interceptors.FusableInterceptor;
+import com.mapbox.core.interceptors.FusedInterceptor;
+import com.mapbox.core.interceptors.HeaderCaptureInterceptor;
+import com.mapbox.core.interceptors.LoggingInterceptor;
+import com.mapbox.core.interceptors.MetricsInterceptor;
+import com.mapbox.grpc.campaign.CampaignServiceGrpc;
+import com.mapbox.grpc.campaign.GetCampaignRequest;
+import com.mapbox.grpc.campaign.GetCampaignResponse;
+import io.grpc.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of the stacked interceptor chain against the same interceptors fused
+ * Both chains run over a channel that answers every call synchronously, so only the
+ * interceptors are measured. Run with {@code -prof gc} (the benchmark profile does) to
+ * compare allocation per call alongside ns per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InterceptorChainBenchmark {
+
+    private static final MethodDescriptor<GetCampaignRequest, GetCampaignResponse> METHOD =
+            CampaignServiceGrpc.getGetCampaignMethod();
+
+    private Channel stacked;
+    private Channel fused;
+    private GetCampaignRequest request;
+
+    @Setup
+    public void setUp() {
+        // Per-call debug logging would dwarf the interceptors themselves
+        ((Logger) LoggerFactory.getLogger("com.mapbox")).setLevel(Level.INFO);
+
+        // The factory's order, innermost first; payload sampling off as in a load run
+        List<FusableInterceptor> chain = List.of(
+                new LoggingInterceptor(true, true, Integer.MAX_VALUE, 0, 4096, 0),
+                new AuthTokenInterceptor("benchmark-token"),
+                new MetricsInterceptor(),
+                new HeaderCaptureInterceptor());
+        stacked = ClientInterceptors.intercept(new AnsweringChannel(), chain);
+        fused = ClientInterceptors.intercept(new AnsweringChannel(), new FusedInterceptor(chain));
+        request = GetCampaignRequest.newBuilder().setCampaignId("campaign-1").build();
+    }
+
+    @Benchmark
+    public void stackedChain(Blackhole blackhole) {
+        call(stacked, blackhole);
+    }
+
+    @Benchmark
+    public void fusedChain(Blackhole blackhole) {
+        call(fused, blackhole);
+    }
+
+    private void call(Channel channel, Blackhole blackhole) {
+        ClientCall<GetCampaignRequest, GetCampaignResponse> call = channel.newCall(METHOD, CallOptions.DEFAULT);
+        call.start(new ClientCall.Listener<>() {
+            @Override
+            public void onMessage(GetCampaignResponse message) {
+                blackhole.consume(message);
+            }
+
+            @Override
+            public void onClose(Status status, Metadata trailers) {
+                blackhole.consume(status);
+            }
+        }, new Metadata());
+        call.request(1);
+        call.sendMessage(request);
+        call.halfClose();
+    }
+
+    /**
+     * Channel whose calls answer with headers, one response and OK on half-close
+     */
+    private static final class AnsweringChannel extends Channel {
+        private static final GetCampaignResponse RESPONSE = GetCampaignResponse.getDefaultInstance();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(MethodDescriptor<ReqT, RespT> method, CallOptions options) {
+            return new ClientCall<>() {
+                private Listener<RespT> listener;
+
+                @Override
+                public void start(Listener<RespT> listener, Metadata headers) {
+                    this.listener = listener;
+                }
+
+                @Override
+                public void request(int numMessages) {
+                }
+
+                @Override
+                public void cancel(String message, Throwable cause) {
+                }
+
+                @Override
+                public void halfClose() {
+                    listener.onHeaders(new Metadata());
+                    listener.onMessage((RespT) RESPONSE);
+                    listener.onClose(Status.OK, new Metadata());
+                }
+
+                @Override
+                public void sendMessage(ReqT message) {
+                }
+            };
+        }
+
+        @Override
+        public String authority() {
+            return "benchmark";
+        }
+    }
+}
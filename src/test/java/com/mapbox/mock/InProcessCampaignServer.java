@@ -0,0 +1,61 @@
+package com.mapbox.mock;
+
+import io.grpc.ClientInterceptor;
+import io.grpc.ManagedChannel;
+import io.grpc.ServerInterceptor;
+import io.grpc.inprocess.InProcessChannelBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Started in-process mock server under a unique name, plus the channels opened against it
+ * Closing it shuts every channel down and stops the server, so a test needs a single
+ * try-with-resources block instead of its own naming, startup and cleanup code.
+ */
+public final class InProcessCampaignServer implements AutoCloseable {
+
+    private final String name;
+    private final MockCampaignServer server;
+    private final List<ManagedChannel> channels = new CopyOnWriteArrayList<>();
+
+    private InProcessCampaignServer(String name, MockCampaignServer server) {
+        this.name = name;
+        this.server = server;
+    }
+
+    /**
+     * Start a mock server named {@code prefix} plus a unique suffix
+     *
+     * @param interceptors server interceptors in front of the normal responses, e.g. injected failures
+     */
+    public static InProcessCampaignServer start(String prefix, ServerInterceptor... interceptors) throws IOException {
+        String name = prefix + "-" + System.nanoTime();
+        MockCampaignServer server = MockCampaignServer.inProcess(name, interceptors);
+        server.start();
+        return new InProcessCampaignServer(name, server);
+    }
+
+    /**
+     * In-process name the server is registered under
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Open a channel to the server through the given interceptors; it is closed with the server
+     */
+    public ManagedChannel newChannel(ClientInterceptor... interceptors) {
+        ManagedChannel channel = InProcessChannelBuilder.forName(name).intercept(interceptors).build();
+        channels.add(channel);
+        return channel;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        channels.forEach(ManagedChannel::shutdownNow);
+        server.stop();
+    }
+}
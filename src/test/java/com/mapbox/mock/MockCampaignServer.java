@@ -3,11 +3,23 @@ package com.mapbox.mock;
 import com.mapbox.grpc.campaign.*;
 import io.grpc.Server;
 import io.grpc.ServerBuilder;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
 import io.grpc.Status;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollServerDomainSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.unix.DomainSocketAddress;
 import io.grpc.stub.StreamObserver;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -17,22 +29,82 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class MockCampaignServer {
 
-    private final int port;
+    private final String address;
     private final Server server;
+    private final List<EventLoopGroup> eventLoopGroups = new ArrayList<>();
+    private Path socketPath;
 
     public MockCampaignServer(int port) {
-        this.port = port;
+        this.address = "port " + port;
         this.server = ServerBuilder.forPort(port)
                 .addService(new CampaignServiceImpl())
                 .build();
     }
 
+    private MockCampaignServer(String address, Server server) {
+        this.address = address;
+        this.server = server;
+    }
+
+    /**
+     * Create a mock server reachable only in-process under the given name
+     * Pair with {@code grpc.transport=inprocess} and a matching {@code grpc.inprocess.name}
+     */
+    public static MockCampaignServer inProcess(String name) {
+        Server server = InProcessServerBuilder.forName(name)
+                .addService(new CampaignServiceImpl())
+                .build();
+        return new MockCampaignServer("in-process name '" + name + "'", server);
+    }
+
+    /**
+     * Create an in-process mock server whose calls pass through the given server interceptors
+     * Useful for injecting failures or latency in front of the normal responses
+     */
+    public static MockCampaignServer inProcess(String name, ServerInterceptor... interceptors) {
+        Server server = InProcessServerBuilder.forName(name)
+                .addService(ServerInterceptors.intercept(new CampaignServiceImpl(), interceptors))
+                .build();
+        return new MockCampaignServer("in-process name '" + name + "'", server);
+    }
+
+    /**
+     * Create a mock server listening on a Unix domain socket (requires native epoll)
+     * Clients connect with the target {@code unix://<socketPath>}
+     */
+    public static MockCampaignServer unixSocket(Path socketPath) throws IOException {
+        // A stale socket file from a previous run would make bind fail
+        Files.deleteIfExists(socketPath);
+
+        EventLoopGroup boss = new EpollEventLoopGroup(1);
+        EventLoopGroup workers = new EpollEventLoopGroup();
+        Server server = NettyServerBuilder.forAddress(new DomainSocketAddress(socketPath.toString()))
+                .channelType(EpollServerDomainSocketChannel.class)
+                .bossEventLoopGroup(boss)
+                .workerEventLoopGroup(workers)
+                .addService(new CampaignServiceImpl())
+                .build();
+
+        MockCampaignServer mockServer = new MockCampaignServer("unix socket " + socketPath, server);
+        mockServer.eventLoopGroups.add(boss);
+        mockServer.eventLoopGroups.add(workers);
+        mockServer.socketPath = socketPath;
+        return mockServer;
+    }
+
+    /**
+     * Port the server is bound to (useful when created with port 0)
+     */
+    public int getPort() {
+        return server.getPort();
+    }
+
     /**
      * Start the mock server
      */
     public void start() throws IOException {
         server.start();
-        log.info("Mock gRPC server started on port {}", port);
+        log.info("Mock gRPC server started on {}", address);
 
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             log.info("Shutting down mock gRPC server...");
@@ -52,6 +124,15 @@ public class MockCampaignServer {
             server.shutdown().awaitTermination(5, TimeUnit.SECONDS);
             log.info("Mock gRPC server stopped");
         }
+        eventLoopGroups.forEach(group -> group.shutdownGracefully(0, 1, TimeUnit.SECONDS));
+        eventLoopGroups.clear();
+        if (socketPath != null) {
+            try {
+                Files.deleteIfExists(socketPath);
+            } catch (IOException e) {
+                log.warn("Could not delete socket file {}", socketPath, e);
+            }
+        }
     }
 
     /**
@@ -90,9 +171,16 @@ public class MockCampaignServer {
                 return;
             }
 
+            if (!request.getCampaignId().matches("campaign-\\d+")) {
+                responseObserver.onError(Status.INVALID_ARGUMENT
+                        .withDescription("Invalid campaign ID format, expected campaign-<number>")
+                        .asRuntimeException());
+                return;
+            }
+
             if (request.getCampaignId().equals("campaign-999")) {
                 responseObserver.onError(Status.NOT_FOUND
-                        .withDescription("Campaign not found")
+                        .withDescription("No campaign found with ID " + request.getCampaignId())
                         .asRuntimeException());
                 return;
             }
@@ -1,15 +1,25 @@
 package com.mapbox.tests.base;
 
 import com.mapbox.core.channel.GrpcChannelFactory;
+import com.mapbox.core.channel.WarmUpReport;
 import com.mapbox.core.config.ConfigManager;
+import com.mapbox.core.config.FrameworkConfig;
+import com.mapbox.core.metrics.MetricsExporter;
+import com.mapbox.grpc.campaign.GetCampaignRequest;
+import com.mapbox.mock.MockCampaignServer;
 import com.mapbox.services.campaign.CampaignClient;
+import com.mapbox.testdata.campaign.CampaignRequestBuilder;
+import com.mapbox.testdata.campaign.CampaignTestData;
 import io.qameta.allure.Allure;
 import lombok.extern.slf4j.Slf4j;
 import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.BeforeSuite;
 
+import java.io.IOException;
 import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Base test class providing common setup and teardown
@@ -19,16 +29,31 @@ import java.lang.reflect.Method;
 public abstract class BaseTest {
 
     protected static GrpcChannelFactory channelFactory;
+    private static MockCampaignServer inProcessServer;
+    private static MetricsExporter metricsExporter;
     protected CampaignClient campaignClient;
 
     @BeforeSuite(alwaysRun = true)
-    public void globalSetup() {
+    public void globalSetup() throws IOException {
         log.info("=== Starting Test Suite ===");
         log.info("Environment: {}", ConfigManager.getConfig().environment());
         log.info("gRPC Host: {}", ConfigManager.getConfig().grpcHost());
         log.info("gRPC Port: {}", ConfigManager.getConfig().grpcPort());
 
+        if (GrpcChannelFactory.isInProcess()) {
+            // No network: serve the suite from the mock server inside this JVM
+            inProcessServer = MockCampaignServer.inProcess(ConfigManager.getConfig().inProcessName());
+            inProcessServer.start();
+        }
+
         channelFactory = new GrpcChannelFactory();
+        warmUpChannels();
+
+        FrameworkConfig config = ConfigManager.getConfig();
+        if (config.metricsExportEnabled()) {
+            metricsExporter = new MetricsExporter(channelFactory, config.metricsExportPort(),
+                    config.metricsExportPath()).start();
+        }
 
         // Add environment info to Allure report
         Allure.addAttachment("Environment", "text/plain",
@@ -37,6 +62,37 @@ public abstract class BaseTest {
                 ConfigManager.getConfig().grpcHost() + ":" + ConfigManager.getConfig().grpcPort());
     }
 
+    /**
+     * Establish connections and warm up the JIT before any latency is measured
+     */
+    private void warmUpChannels() {
+        FrameworkConfig config = ConfigManager.getConfig();
+        if (!config.warmUpEnabled()) {
+            return;
+        }
+
+        CampaignClient warmUpClient = new CampaignClient(channelFactory);
+        GetCampaignRequest warmUpRequest = CampaignRequestBuilder.getCampaign()
+                .withCaller(CampaignTestData.PhoneNumbers.VALID_CALLER)
+                .withReceiver(CampaignTestData.PhoneNumbers.VALID_RECEIVER)
+                .withCampaignId(CampaignTestData.CampaignIds.VALID_CAMPAIGN)
+                .build();
+
+        WarmUpReport report = channelFactory.warmUp(
+                channelFactory.defaultTarget(),
+                config.warmUpTimeoutSeconds(),
+                TimeUnit.SECONDS,
+                config.warmUpRpcsPerMethod(),
+                List.of(() -> warmUpClient.getCampaign(warmUpRequest).isSuccess()));
+
+        if (report.getWarmUpRpcs() > 0) {
+            // Nothing is measured yet, so warm-up latencies and cached responses can go
+            channelFactory.resetMeasurements();
+        }
+
+        Allure.addAttachment("Channel Warm-up", "text/plain", report.toString());
+    }
+
     @BeforeMethod(alwaysRun = true)
     public void testSetup(Method method) {
         log.info("=== Starting Test: {} ===", method.getName());
@@ -49,12 +105,40 @@ public abstract class BaseTest {
     }
 
     @AfterSuite(alwaysRun = true)
-    public void globalTeardown() {
+    public void globalTeardown() throws InterruptedException {
         log.info("=== Test Suite Completed ===");
 
         if (channelFactory != null) {
+            channelFactory.getHedgingExecutor().getAllStats()
+                    .forEach((method, stats) -> log.info("Hedging {}: {}", method, stats));
+            channelFactory.getRequestCoalescer().getAllStats()
+                    .forEach((method, stats) -> log.info("Coalescing {}: {}", method, stats));
+            if (channelFactory.getBinaryLogInterceptor() != null) {
+                log.info("Binary call log: {}", channelFactory.getBinaryLogInterceptor().getWriter());
+            }
+            if (channelFactory.getLoggingInterceptor() != null) {
+                log.info("Payload logging: {}", channelFactory.getLoggingInterceptor());
+            }
+            if (channelFactory.getConcurrencyLimitInterceptor() != null) {
+                log.info("Concurrency limiter: {}", channelFactory.getConcurrencyLimitInterceptor());
+            }
+            if (channelFactory.getRateLimiterInterceptor() != null) {
+                log.info("Rate limits: {}", channelFactory.getRateLimiterInterceptor());
+            }
+            if (channelFactory.getResponseCacheInterceptor() != null) {
+                log.info("Response cache: {}", channelFactory.getResponseCacheInterceptor().getStats());
+            }
             channelFactory.shutdownAll();
         }
+        GrpcChannelFactory.shutdownPool();
+
+        if (metricsExporter != null) {
+            metricsExporter.close();
+        }
+
+        if (inProcessServer != null) {
+            inProcessServer.stop();
+        }
     }
 
     /**
@@ -0,0 +1,487 @@
+package com.mapbox.tests.channel;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.mapbox.core.channel.ChannelPool;
+import com.mapbox.core.channel.ChannelProfile;
+import com.mapbox.core.channel.GrpcChannelFactory;
+import com.mapbox.core.channel.LeasedChannel;
+import com.mapbox.core.channel.StripedChannel;
+import com.mapbox.core.channel.TransportResources;
+import com.mapbox.core.channel.WarmUpReport;
+import com.mapbox.core.interceptors.MetricsInterceptor;
+import com.mapbox.grpc.campaign.CampaignServiceGrpc;
+import com.mapbox.grpc.campaign.GetCampaignRequest;
+import com.mapbox.grpc.campaign.GetCampaignResponse;
+import com.mapbox.mock.InProcessCampaignServer;
+import com.mapbox.mock.MockCampaignServer;
+import com.mapbox.testdata.campaign.CampaignRequestBuilder;
+import com.mapbox.testdata.campaign.CampaignTestData;
+import com.mapbox.tests.base.BaseTest;
+import io.grpc.*;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.Epoll;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.nio.NioEventLoopGroup;
+import io.grpc.stub.MetadataUtils;
+import io.qameta.allure.*;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.testng.Assert.*;
+
+/**
+ * Channel tests
+ * Validates sub-channel striping and selection, channel pooling and leases,
+ * the transport resources shared by pooled channels, and channel warm-up
+ */
+@Epic("Campaign Service")
+@Feature("Channels")
+public class CampaignChannelTests extends BaseTest {
+
+    /** Calls carrying this header are held by the server until the test releases them */
+    private static final Metadata.Key<String> HOLD = Metadata.Key.of("x-hold", Metadata.ASCII_STRING_MARSHALLER);
+
+    @Test(description = "Verify striped channels pick sub-channels round-robin or by fewest calls in flight")
+    @Story("Striping - Sub-channel Selection")
+    @Severity(SeverityLevel.NORMAL)
+    public void testStripedChannelSelectsSubChannelsByStrategy() throws Exception {
+        // Arrange - a server holding marked calls, so one sub-channel can be kept busy
+        CountDownLatch release = new CountDownLatch(1);
+        ServerInterceptor holding = new ServerInterceptor() {
+            @Override
+            public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+                    ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+                if (headers.containsKey(HOLD)) {
+                    awaitQuietly(release);
+                }
+                return next.startCall(call, headers);
+            }
+        };
+
+        try (InProcessCampaignServer server = InProcessCampaignServer.start("striped-campaign", holding)) {
+            // Act - one held call on sub-channel 0, then two quick calls through each strategy
+            AtomicIntegerArray roundRobin = new AtomicIntegerArray(2);
+            StripedChannel roundRobinChannel = stripe(server, StripedChannel.SelectionStrategy.ROUND_ROBIN, roundRobin);
+            AtomicIntegerArray leastInFlight = new AtomicIntegerArray(2);
+            StripedChannel leastInFlightChannel = stripe(server, StripedChannel.SelectionStrategy.LEAST_IN_FLIGHT, leastInFlight);
+
+            List<ListenableFuture<GetCampaignResponse>> held = new ArrayList<>();
+            for (StripedChannel channel : List.of(roundRobinChannel, leastInFlightChannel)) {
+                held.add(holdCall(channel));
+                awaitInFlight(channel, 1);
+                assertEquals(channel.getInFlightCounts(), new int[]{1, 0}, "The held call should occupy sub-channel 0");
+
+                CampaignServiceGrpc.CampaignServiceBlockingStub stub = CampaignServiceGrpc.newBlockingStub(channel);
+                stub.getCampaign(validRequest());
+                stub.getCampaign(validRequest());
+            }
+
+            // Assert - round-robin returns to the busy sub-channel, least-in-flight avoids it
+            assertEquals(roundRobin.get(0), 2);
+            assertEquals(roundRobin.get(1), 1);
+            assertEquals(leastInFlight.get(0), 1);
+            assertEquals(leastInFlight.get(1), 2);
+
+            release.countDown();
+            for (ListenableFuture<GetCampaignResponse> call : held) {
+                assertNotNull(call.get(5, TimeUnit.SECONDS));
+            }
+            awaitInFlight(roundRobinChannel, 0);
+            awaitInFlight(leastInFlightChannel, 0);
+            assertEquals(leastInFlightChannel.getInFlightCounts(), new int[]{0, 0});
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test(description = "Verify striped channel state callbacks follow the ManagedChannel contract")
+    @Story("Striping - Connectivity State")
+    @Severity(SeverityLevel.NORMAL)
+    public void testStripedChannelNotifiesAggregateStateChanges() throws Exception {
+        try (InProcessCampaignServer server = InProcessCampaignServer.start("state-campaign")) {
+            StripedChannel channel = stripe(server, StripedChannel.SelectionStrategy.ROUND_ROBIN, new AtomicIntegerArray(2));
+            assertEquals(channel.getState(false), ConnectivityState.IDLE);
+
+            // A source that already differs from the aggregate state fires at once
+            CountDownLatch stale = new CountDownLatch(1);
+            channel.notifyWhenStateChanged(ConnectivityState.READY, stale::countDown);
+            assertEquals(stale.getCount(), 0, "Callback should run immediately for a stale source");
+
+            // Otherwise the callback waits for the aggregate to leave the source
+            CountDownLatch changed = new CountDownLatch(1);
+            channel.notifyWhenStateChanged(ConnectivityState.IDLE, changed::countDown);
+            assertEquals(changed.getCount(), 1, "Callback should wait while the state is unchanged");
+            channel.getState(true);
+            assertTrue(changed.await(5, TimeUnit.SECONDS), "Callback should run once a sub-channel connects");
+            assertNotEquals(channel.getState(false), ConnectivityState.IDLE);
+        }
+    }
+
+    @Test(description = "Verify factories with equal settings share pooled connections but not interceptors")
+    @Story("Pooling - Profile Sharing")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testEqualProfilesShareOnePooledChannel() throws Exception {
+        GrpcChannelFactory otherFactory = new GrpcChannelFactory();
+        String target = channelFactory.defaultTarget();
+        LeasedChannel mine = (LeasedChannel) channelFactory.getChannel(target);
+        LeasedChannel theirs = (LeasedChannel) otherFactory.getChannel(target);
+        try {
+            // Profiles are values, so a second factory with the same settings hits the same pooled channel
+            assertEquals(otherFactory.profileFor(target), channelFactory.profileFor(target));
+            assertSame(theirs.getPooledChannel(), mine.getPooledChannel(), "Equal profiles should share a channel");
+
+            // Each lease still runs its own factory's chain
+            CampaignServiceGrpc.newBlockingStub(theirs).getCampaign(validRequest());
+            MetricsInterceptor.CallMetrics metrics = otherFactory.getMetricsInterceptor()
+                    .getMetrics(CampaignServiceGrpc.getGetCampaignMethod().getFullMethodName());
+            assertNotNull(metrics, "The other factory's interceptors should see its own call");
+            assertEquals(metrics.getTotalCalls(), 1);
+
+            // A released lease lets its open call finish, fails new calls and terminates once the call closes
+            ClientCall<GetCampaignRequest, GetCampaignResponse> held =
+                    theirs.newCall(CampaignServiceGrpc.getGetCampaignMethod(), CallOptions.DEFAULT);
+            CompletableFuture<Status> heldClosed = closeStatus(held);
+            held.sendMessage(validRequest());
+            theirs.shutdown();
+            assertTrue(theirs.isShutdown());
+            assertEquals(theirs.getActiveCalls(), 1);
+            assertFalse(theirs.awaitTermination(100, TimeUnit.MILLISECONDS), "The open call should keep the lease alive");
+            StatusRuntimeException rejected = expectThrows(StatusRuntimeException.class,
+                    () -> CampaignServiceGrpc.newBlockingStub(theirs).getCampaign(validRequest()));
+            assertEquals(rejected.getStatus().getCode(), Status.Code.UNAVAILABLE);
+            held.halfClose();
+            assertTrue(heldClosed.get(5, TimeUnit.SECONDS).isOk(), "The open call should finish normally");
+            assertTrue(theirs.awaitTermination(5, TimeUnit.SECONDS));
+            assertTrue(theirs.isTerminated());
+
+            // Shutting the other factory down leaves the shared connections to this one
+            otherFactory.shutdownAll();
+            assertFalse(mine.isShutdown(), "Another factory's shutdown must not close a leased pooled channel");
+            assertSame(GrpcChannelFactory.getPooledChannels().get(channelFactory.profileFor(target)),
+                    mine.getPooledChannel());
+            CampaignServiceGrpc.newBlockingStub(mine).getCampaign(validRequest());
+        } finally {
+            mine.shutdown();
+            otherFactory.shutdownAll();
+        }
+    }
+
+    @Test(description = "Verify the pool isolates profiles, evicts only unleased channels and counts it all")
+    @Story("Pooling - Eviction")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testChannelPoolEvictsOnlyUnleasedChannels() throws Exception {
+        try (InProcessCampaignServer server = InProcessCampaignServer.start("pooled-campaign")) {
+            ChannelPool pool = new ChannelPool(2, 1);
+            Function<ChannelProfile, StripedChannel> factory = profile -> new StripedChannel(
+                    List.of(server.newChannel()), profile.getSelection());
+
+            // Arrange - a leased profile, an equal copy of it, and an unleased profile with other settings
+            StripedChannel leased = pool.acquire(profile(server, 4096), factory);
+            assertSame(pool.acquire(profile(server, 4096), factory), leased, "Equal profiles should share a channel");
+            StripedChannel unleased = pool.getOrCreate(profile(server, 8192), factory);
+            assertNotSame(unleased, leased, "Profiles with different settings should not share a channel");
+            assertStats(pool.getStats(), 2, 2, 1, 2, 0, 0);
+
+            // Act - a third profile over capacity evicts the unleased channel, although it is more recent
+            StripedChannel third = pool.acquire(profile(server, 16384), factory);
+
+            // Assert
+            assertTrue(unleased.isShutdown(), "The unleased channel should be evicted");
+            assertFalse(leased.isShutdown(), "A leased channel must never be evicted");
+            assertStats(pool.getStats(), 2, 3, 1, 3, 1, 0);
+
+            // Once both leases on the first channel are released it idles out; the third stays leased
+            pool.release(profile(server, 4096), leased);
+            pool.release(profile(server, 4096), leased);
+            Thread.sleep(1100);
+            pool.evictIdle();
+            assertTrue(leased.isShutdown(), "A released channel should be evicted once idle");
+            assertFalse(third.isShutdown(), "A leased channel must never be evicted");
+            assertStats(pool.getStats(), 1, 1, 1, 3, 1, 1);
+            assertNull(pool.get(profile(server, 4096)));
+        }
+    }
+
+    @Test(description = "Verify pooled channels share one event-loop group and executor, using epoll when available")
+    @Story("Transport - Shared Resources")
+    @Severity(SeverityLevel.NORMAL)
+    public void testTransportResourcesShareOneEventLoopAndExecutor() throws Exception {
+        MockCampaignServer server = new MockCampaignServer(0);
+        server.start();
+        TransportResources nativeResources = new TransportResources(
+                TransportResources.TransportMode.NATIVE, TransportResources.ExecutorMode.FIXED, 1, 2);
+        TransportResources nioResources = new TransportResources(
+                TransportResources.TransportMode.NIO, TransportResources.ExecutorMode.FIXED, 1, 2);
+        List<ManagedChannel> channels = new ArrayList<>();
+        try {
+            // Arrange - two channels on the native resources, one on NIO
+            channels.add(tcpChannel(server, nativeResources));
+            EventLoopGroup eventLoopGroup = nativeResources.getEventLoopGroup();
+            ExecutorService executor = nativeResources.getExecutor();
+            channels.add(tcpChannel(server, nativeResources));
+            channels.add(tcpChannel(server, nioResources));
+
+            // Assert - epoll when the platform has it, NIO otherwise, and NIO whenever asked for
+            assertEquals(nativeResources.isNativeTransport(), Epoll.isAvailable());
+            assertTrue(Epoll.isAvailable()
+                            ? eventLoopGroup instanceof EpollEventLoopGroup
+                            : eventLoopGroup instanceof NioEventLoopGroup,
+                    "Unexpected event-loop group " + eventLoopGroup);
+            assertFalse(nioResources.isNativeTransport());
+            assertTrue(nioResources.getEventLoopGroup() instanceof NioEventLoopGroup);
+
+            // The second channel reuses the first one's group and executor
+            assertSame(nativeResources.getEventLoopGroup(), eventLoopGroup);
+            assertSame(nativeResources.getExecutor(), executor);
+            Set<String> callbackThreads = new HashSet<>();
+            for (ManagedChannel channel : channels.subList(0, 2)) {
+                for (int i = 0; i < 4; i++) {
+                    callbackThreads.add(callbackThread(channel).getName());
+                }
+            }
+            callbackThreads.forEach(name -> assertTrue(name.startsWith("grpc-client-executor-"),
+                    "Callbacks should run on the shared executor, ran on " + name));
+            assertTrue(callbackThreads.size() <= 2, "Two channels should share a 2-thread executor: " + callbackThreads);
+
+            // Released only by the last of its users, so one user letting go leaves the others running
+            nativeResources.acquire();
+            nativeResources.acquire();
+            assertFalse(nativeResources.release(), "Another user still holds the resources");
+            assertEquals(nativeResources.getUsers(), 1);
+            assertFalse(eventLoopGroup.isShuttingDown());
+            assertFalse(executor.isShutdown());
+            assertTrue(callbackThread(channels.get(0)).getName().startsWith("grpc-client-executor-"));
+        } finally {
+            shutdown(channels);
+            nativeResources.release();
+            nioResources.release();
+            server.stop();
+        }
+    }
+
+    @Test(description = "Verify every executor mode builds a working channel running callbacks where configured")
+    @Story("Transport - Executor Modes")
+    @Severity(SeverityLevel.NORMAL)
+    public void testEveryExecutorModeBuildsWorkingChannel() throws Exception {
+        MockCampaignServer server = new MockCampaignServer(0);
+        server.start();
+        try {
+            for (TransportResources.ExecutorMode mode : TransportResources.ExecutorMode.values()) {
+                TransportResources resources = new TransportResources(TransportResources.TransportMode.NIO, mode, 1, 2);
+                ManagedChannel channel = tcpChannel(server, resources);
+                try {
+                    Thread thread = callbackThread(channel);
+                    String name = thread.getName();
+                    switch (mode) {
+                        case DIRECT:
+                            assertTrue(name.startsWith("grpc-client-eventloop-"), mode + " ran callbacks on " + name);
+                            break;
+                        case FIXED:
+                            assertTrue(name.startsWith("grpc-client-executor-"), mode + " ran callbacks on " + name);
+                            break;
+                        case VIRTUAL:
+                            // Java 17 has no virtual threads and falls back to the fixed pool
+                            assertTrue(isVirtual(thread) || name.startsWith("grpc-client-executor-"),
+                                    mode + " ran callbacks on " + name);
+                            break;
+                        default:
+                            assertTrue(name.startsWith("grpc-default-executor"), mode + " ran callbacks on " + name);
+                    }
+                } finally {
+                    shutdown(List.of(channel));
+                    resources.release();
+                }
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test(description = "Verify warm-up connects every sub-channel and reports its calls without resetting metrics")
+    @Story("Warm-up - Report")
+    @Severity(SeverityLevel.NORMAL)
+    public void testWarmUpConnectsEverySubChannelAndReports() {
+        // Arrange
+        String target = channelFactory.defaultTarget();
+        MetricsInterceptor.CallMetrics metrics = channelFactory.getMetricsInterceptor()
+                .getMetrics(CampaignServiceGrpc.getGetCampaignMethod().getFullMethodName());
+        long callsBefore = metrics != null ? metrics.getTotalCalls() : 0;
+        AtomicInteger invocations = new AtomicInteger();
+
+        // Act - three real calls and three that report failure
+        WarmUpReport report = channelFactory.warmUp(target, 5, TimeUnit.SECONDS, 3, List.of(
+                () -> {
+                    invocations.incrementAndGet();
+                    return campaignClient.getCampaign(validRequest()).isSuccess();
+                },
+                () -> false));
+
+        // Assert
+        assertEquals(report.getTarget(), channelFactory.profileFor(target).getTarget());
+        assertEquals(report.getSubChannels(), channelFactory.profileFor(target).getPoolSize());
+        assertTrue(report.isFullyReady(), "Every sub-channel should be READY: " + report);
+        assertEquals(report.getWarmUpRpcs(), 6);
+        assertEquals(report.getFailedWarmUpRpcs(), 3);
+        assertEquals(invocations.get(), 3);
+        assertTrue(report.getConnectMs() >= 0 && report.getTotalMs() >= report.getConnectMs(),
+                "Timings should be consistent: " + report);
+
+        // Warm-up calls stay in the metrics; only BaseTest resets them, before the suite measures anything
+        MetricsInterceptor.CallMetrics after = channelFactory.getMetricsInterceptor()
+                .getMetrics(CampaignServiceGrpc.getGetCampaignMethod().getFullMethodName());
+        assertNotNull(after);
+        if (metrics != null) {
+            assertSame(after, metrics, "Warm-up must not replace the metrics");
+        }
+        assertTrue(after.getTotalCalls() >= callsBefore + 3, "Warm-up calls should be recorded");
+    }
+
+    private static ManagedChannel tcpChannel(MockCampaignServer server, TransportResources resources) {
+        NettyChannelBuilder builder = NettyChannelBuilder.forAddress("localhost", server.getPort()).usePlaintext();
+        resources.apply(builder);
+        return builder.build();
+    }
+
+    /**
+     * Make one call through the channel's own executor and return the thread its close callback ran on
+     */
+    private static Thread callbackThread(ManagedChannel channel) throws Exception {
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        ClientInterceptor recording = new ClientInterceptor() {
+            @Override
+            public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+                    MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+                return new ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT>(next.newCall(method, callOptions)) {
+                    @Override
+                    public void start(Listener<RespT> responseListener, Metadata headers) {
+                        super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<RespT>(
+                                responseListener) {
+                            @Override
+                            public void onClose(Status status, Metadata trailers) {
+                                thread.set(Thread.currentThread());
+                                super.onClose(status, trailers);
+                            }
+                        }, headers);
+                    }
+                };
+            }
+        };
+        // Future stubs run callbacks on the channel executor; blocking stubs would use the calling thread
+        assertNotNull(CampaignServiceGrpc.newFutureStub(ClientInterceptors.intercept(channel, recording))
+                .getCampaign(validRequest()).get(5, TimeUnit.SECONDS));
+        return thread.get();
+    }
+
+    /**
+     * Start a call asking for its response, and complete with the status it closes with
+     */
+    private static CompletableFuture<Status> closeStatus(ClientCall<GetCampaignRequest, GetCampaignResponse> call) {
+        CompletableFuture<Status> closed = new CompletableFuture<>();
+        call.start(new ClientCall.Listener<>() {
+            @Override
+            public void onClose(Status status, Metadata trailers) {
+                closed.complete(status);
+            }
+        }, new Metadata());
+        call.request(1);
+        return closed;
+    }
+
+    private static boolean isVirtual(Thread thread) {
+        try {
+            return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    private static void shutdown(List<ManagedChannel> channels) throws InterruptedException {
+        for (ManagedChannel channel : channels) {
+            channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static ChannelProfile profile(InProcessCampaignServer server, int maxInboundMessageSize) {
+        return ChannelProfile.builder()
+                .target(server.getName())
+                .maxInboundMessageSize(maxInboundMessageSize)
+                .poolSize(1)
+                .selection(StripedChannel.SelectionStrategy.ROUND_ROBIN)
+                .build();
+    }
+
+    private static void assertStats(ChannelPool.Stats stats, int profiles, int leases, long hits, long misses,
+                                    long lruEvictions, long idleEvictions) {
+        assertEquals(stats.getProfiles(), profiles, "profiles");
+        assertEquals(stats.getLeases(), leases, "leases");
+        assertEquals(stats.getHits(), hits, "hits");
+        assertEquals(stats.getMisses(), misses, "misses");
+        assertEquals(stats.getLruEvictions(), lruEvictions, "LRU evictions");
+        assertEquals(stats.getIdleEvictions(), idleEvictions, "idle evictions");
+    }
+
+    /**
+     * Two in-process sub-channels, each counting the calls it carries
+     */
+    private static StripedChannel stripe(InProcessCampaignServer server, StripedChannel.SelectionStrategy strategy,
+                                         AtomicIntegerArray callsPerSubChannel) {
+        List<ManagedChannel> subChannels = new ArrayList<>();
+        for (int i = 0; i < callsPerSubChannel.length(); i++) {
+            int index = i;
+            subChannels.add(server.newChannel(new ClientInterceptor() {
+                @Override
+                public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+                        MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+                    callsPerSubChannel.incrementAndGet(index);
+                    return next.newCall(method, callOptions);
+                }
+            }));
+        }
+        return new StripedChannel(subChannels, strategy);
+    }
+
+    private ListenableFuture<GetCampaignResponse> holdCall(Channel channel) {
+        Metadata headers = new Metadata();
+        headers.put(HOLD, "true");
+        return CampaignServiceGrpc.newFutureStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers))
+                .getCampaign(validRequest());
+    }
+
+    private static void awaitInFlight(StripedChannel channel, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (channel.getTotalInFlight() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(channel.getTotalInFlight(), expected);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static GetCampaignRequest validRequest() {
+        return CampaignRequestBuilder.getCampaign()
+                .withCaller(CampaignTestData.PhoneNumbers.VALID_CALLER)
+                .withReceiver(CampaignTestData.PhoneNumbers.VALID_RECEIVER)
+                .withCampaignId(CampaignTestData.CampaignIds.VALID_CAMPAIGN)
+                .build();
+    }
+}
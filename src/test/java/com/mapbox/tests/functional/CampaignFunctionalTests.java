@@ -1,18 +1,43 @@
 package com.mapbox.tests.functional;
 
 import com.mapbox.core.assertions.GrpcResponse;
+import com.mapbox.core.auth.AccessToken;
+import com.mapbox.core.auth.FileTokenProvider;
+import com.mapbox.core.auth.StubTokenProvider;
+import com.mapbox.core.auth.TokenCache;
+import com.mapbox.core.interceptors.AuthTokenInterceptor;
+import com.mapbox.core.interceptors.HeaderCaptureInterceptor;
+import com.mapbox.core.tracing.CallTimeline;
+import com.mapbox.grpc.campaign.CampaignServiceGrpc;
 import com.mapbox.grpc.campaign.CampaignStatus;
 import com.mapbox.grpc.campaign.GetCampaignRequest;
 import com.mapbox.grpc.campaign.GetCampaignResponse;
+import com.mapbox.mock.InProcessCampaignServer;
 import com.mapbox.services.campaign.CampaignAssertions;
 import com.mapbox.testdata.campaign.CampaignRequestBuilder;
 import com.mapbox.testdata.campaign.CampaignTestData;
 import com.mapbox.tests.base.BaseTest;
+import io.grpc.*;
+import io.grpc.stub.MetadataUtils;
 import io.qameta.allure.*;
 import org.testng.annotations.Test;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import static com.mapbox.core.assertions.GrpcResponseAssert.assertThat;
 import static com.mapbox.services.campaign.CampaignAssertions.*;
+import static org.testng.Assert.*;
 
 /**
  * Functional tests for Campaign Service
@@ -143,5 +168,248 @@ public class CampaignFunctionalTests extends BaseTest {
         // Assert
         assertLatencyWithin(response, 500);
     }
-}
 
+    @Test(description = "Verify every call phase is timed, in order, and attached to the response")
+    @Story("Get Campaign - Call Timeline")
+    @Severity(SeverityLevel.NORMAL)
+    public void testCallTimelinePhasesRecordedInOrder() {
+        // Arrange
+        GetCampaignRequest request = CampaignRequestBuilder.getCampaign()
+                .withCaller(CampaignTestData.PhoneNumbers.VALID_CALLER)
+                .withReceiver(CampaignTestData.PhoneNumbers.VALID_RECEIVER)
+                .withCampaignId(CampaignTestData.CampaignIds.VALID_CAMPAIGN)
+                .build();
+
+        // Act
+        GrpcResponse<GetCampaignResponse> response = campaignClient.getCampaign(request);
+
+        // Assert - one attempt whose phases were all reached, in call order
+        assertThat(response).hasStatusOk();
+        CallTimeline timeline = response.getTimeline();
+        assertNotNull(timeline, "The timeline should be attached to the response");
+        assertEquals(timeline.getAttempts(), 1);
+
+        long[] phases = {
+                timeline.getCallStart(),
+                timeline.getStreamCreated(),
+                timeline.getOutboundMessageSerialized(),
+                timeline.getFirstInboundByte(),
+                timeline.getMessageReceived(),
+                timeline.getMessageParsed(),
+                timeline.getClosed()
+        };
+        for (int i = 0; i < phases.length; i++) {
+            assertTrue(phases[i] > 0, "Phase " + i + " should be recorded: " + timeline);
+            if (i > 0) {
+                assertTrue(phases[i] >= phases[i - 1], "Phase " + i + " should not precede phase " + (i - 1));
+            }
+        }
+        // Netty writes headers on the event loop while the caller serializes the message, so
+        // those two may land in either order
+        assertTrue(timeline.getHeadersSent() >= timeline.getStreamCreated()
+                        && timeline.getHeadersSent() <= timeline.getFirstInboundByte(),
+                "Headers should be sent between stream creation and the first inbound byte");
+        assertTrue(timeline.getHeadersReceived() >= timeline.getFirstInboundByte()
+                        && timeline.getHeadersReceived() <= timeline.getMessageParsed(),
+                "Headers should reach the listener between the first inbound byte and the message");
+
+        // The phases partition the call; the timeline starts just before the latency clock
+        long phaseSum = timeline.getQueueingNanos() + timeline.getSendNanos() + timeline.getServerNanos()
+                + timeline.getReceiveNanos() + timeline.getDeserializationNanos();
+        assertTrue(phaseSum <= timeline.getTotalNanos(), "Phases should fit within the call: " + timeline);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(timeline.getTotalNanos()) <= response.getLatencyMs() + 1,
+                "The timeline should match the measured latency: " + timeline);
+    }
+
+    @Test(description = "Verify headers and trailers are captured per call and kept on the response")
+    @Story("Get Campaign - Metadata")
+    @Severity(SeverityLevel.NORMAL)
+    public void testHeadersAndTrailersCapturedPerCall() throws Exception {
+        // Arrange - a server echoing each call's request id into its headers and trailers
+        Metadata.Key<String> requestId = Metadata.Key.of("x-request-id", Metadata.ASCII_STRING_MARSHALLER);
+        Metadata.Key<String> noise = Metadata.Key.of("x-noise", Metadata.ASCII_STRING_MARSHALLER);
+        ServerInterceptor echo = new ServerInterceptor() {
+            @Override
+            public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+                    ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+                String id = headers.get(requestId);
+                return next.startCall(new ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT>(call) {
+                    @Override
+                    public void sendHeaders(Metadata responseHeaders) {
+                        responseHeaders.put(requestId, id);
+                        responseHeaders.put(noise, "x".repeat(1024));
+                        super.sendHeaders(responseHeaders);
+                    }
+
+                    @Override
+                    public void close(Status status, Metadata trailers) {
+                        trailers.put(requestId, id);
+                        super.close(status, trailers);
+                    }
+                }, headers);
+            }
+        };
+        GetCampaignRequest request = CampaignRequestBuilder.getCampaign()
+                .withCaller(CampaignTestData.PhoneNumbers.VALID_CALLER)
+                .withReceiver(CampaignTestData.PhoneNumbers.VALID_RECEIVER)
+                .withCampaignId(CampaignTestData.CampaignIds.VALID_CAMPAIGN)
+                .build();
+        int totalCalls = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try (InProcessCampaignServer server = InProcessCampaignServer.start("header-campaign", echo)) {
+            ManagedChannel channel = server.newChannel(new HeaderCaptureInterceptor(List.of("x-request-id")));
+
+            // Act - concurrent calls to the same method, each with its own capture
+            List<Future<HeaderCaptureInterceptor.Capture>> futures = new ArrayList<>();
+            for (int i = 0; i < totalCalls; i++) {
+                String id = "request-" + i;
+                futures.add(executor.submit(() -> {
+                    Metadata outgoing = new Metadata();
+                    outgoing.put(requestId, id);
+                    CampaignServiceGrpc.CampaignServiceBlockingStub stub = CampaignServiceGrpc.newBlockingStub(channel)
+                            .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(outgoing));
+                    HeaderCaptureInterceptor.Capture capture = new HeaderCaptureInterceptor.Capture();
+                    Context.current()
+                            .withValue(HeaderCaptureInterceptor.CAPTURE_KEY, capture)
+                            .call(() -> stub.getCampaign(request));
+                    return capture;
+                }));
+            }
+
+            // Assert - every call sees its own id, and only allowlisted keys are kept
+            for (int i = 0; i < totalCalls; i++) {
+                HeaderCaptureInterceptor.Capture capture = futures.get(i).get();
+                assertEquals(capture.getHeaders().get(requestId), "request-" + i);
+                assertEquals(capture.getTrailers().get(requestId), "request-" + i);
+                assertFalse(capture.getHeaders().containsKey(noise), "Keys outside the allowlist should be dropped");
+                assertEquals(capture.getHeaders().keys().size(), 1);
+            }
+
+            // Full metadata is only kept when asked for explicitly
+            Metadata outgoing = new Metadata();
+            outgoing.put(requestId, "request-all");
+            HeaderCaptureInterceptor.Capture everything = new HeaderCaptureInterceptor.Capture();
+            ManagedChannel capturingAll = server.newChannel(
+                    new HeaderCaptureInterceptor(List.of(HeaderCaptureInterceptor.ALL_KEYS)));
+            Context.current()
+                    .withValue(HeaderCaptureInterceptor.CAPTURE_KEY, everything)
+                    .call(() -> CampaignServiceGrpc.newBlockingStub(capturingAll)
+                            .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(outgoing))
+                            .getCampaign(request));
+            assertTrue(everything.getHeaders().containsKey(noise), "The * allowlist should keep every key");
+
+            GrpcResponse<GetCampaignResponse> response = campaignClient.getCampaign(request);
+            assertNotNull(response.getTrailers(), "Client responses should carry their trailers");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(description = "Verify auth tokens are kept per virtual user and refreshed ahead of expiry")
+    @Story("Get Campaign - Authentication")
+    @Severity(SeverityLevel.NORMAL)
+    public void testVirtualUserTokensRefreshAheadOfExpiry() throws Exception {
+        // Arrange - a server recording the Authorization header of every call
+        Metadata.Key<String> authorization = Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER);
+        Queue<String> received = new ConcurrentLinkedQueue<>();
+        ServerInterceptor recorder = new ServerInterceptor() {
+            @Override
+            public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+                    ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+                received.add(String.valueOf(headers.get(authorization)));
+                return next.startCall(call, headers);
+            }
+        };
+        GetCampaignRequest request = CampaignRequestBuilder.getCampaign()
+                .withCaller(CampaignTestData.PhoneNumbers.VALID_CALLER)
+                .withReceiver(CampaignTestData.PhoneNumbers.VALID_RECEIVER)
+                .withCampaignId(CampaignTestData.CampaignIds.VALID_CAMPAIGN)
+                .build();
+
+        // 1s tokens refreshed halfway through, well before they expire
+        StubTokenProvider provider = new StubTokenProvider(Duration.ofSeconds(1));
+        TokenCache tokens = new TokenCache(provider, Duration.ofMillis(800), Duration.ofMillis(50));
+
+        try (InProcessCampaignServer server = InProcessCampaignServer.start("auth-campaign", recorder)) {
+            ManagedChannel channel = server.newChannel();
+            CampaignServiceGrpc.newBlockingStub(channel).getCampaign(request);
+            received.clear();
+            CampaignServiceGrpc.CampaignServiceBlockingStub stub = CampaignServiceGrpc.newBlockingStub(channel)
+                    .withInterceptors(new AuthTokenInterceptor(tokens));
+
+            // Act - one call per virtual user, then again once the background refresh ran
+            for (String user : List.of("user-a", "user-b", "user-a")) {
+                Context.current().withValue(AuthTokenInterceptor.VIRTUAL_USER_KEY, user)
+                        .call(() -> stub.getCampaign(request));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (tokens.getRefreshCount() < 4 && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            Context.current().withValue(AuthTokenInterceptor.VIRTUAL_USER_KEY, "user-a")
+                    .call(() -> stub.getCampaign(request));
+
+            // Assert
+            List<String> headers = new ArrayList<>(received);
+            assertEquals(headers.get(0), "Bearer stub-user-a-1");
+            assertEquals(headers.get(1), "Bearer stub-user-b-2");
+            assertEquals(headers.get(2), headers.get(0), "A cached token should be reused");
+            assertTrue(headers.get(3).startsWith("Bearer stub-user-a-"));
+            assertNotEquals(headers.get(3), headers.get(0), "The token should have been refreshed in the background");
+            assertEquals(tokens.size(), 2);
+            assertEquals(tokens.getFailedRefreshCount(), 0);
+
+            // Act - stop calling, so both subjects go unread for a whole refresh period
+            deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (tokens.size() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            long refreshesWhenIdle = tokens.getRefreshCount();
+            Thread.sleep(700);
+
+            // Assert - idle subjects are dropped rather than refreshed forever
+            assertEquals(tokens.size(), 0, "Unread subjects should be dropped");
+            assertEquals(tokens.getEvictedCount(), 2);
+            assertEquals(tokens.getRefreshCount(), refreshesWhenIdle, "Dropped subjects should not be refreshed");
+        } finally {
+            tokens.close();
+        }
+
+        // A token file gives virtual users their own tokens and falls back to the default one
+        Path file = Files.createTempFile("tokens", ".txt");
+        Files.writeString(file, "# rotated by the token agent\ndefault-token==\nuser-a token-a\n");
+        FileTokenProvider fileTokens = new FileTokenProvider(file, Duration.ofMinutes(5));
+        AccessToken userToken = fileTokens.fetch("user-a");
+        assertEquals(userToken.getValue(), "token-a");
+        assertNotNull(userToken.getExpiresAt());
+        assertEquals(fileTokens.fetch("user-b").getValue(), "default-token==");
+
+        // Calls fail as UNAUTHENTICATED without reaching the server when no token can be fetched
+        Files.delete(file);
+        received.clear();
+        TokenCache missing = new TokenCache(fileTokens, Duration.ofSeconds(1), Duration.ofSeconds(1));
+        try (InProcessCampaignServer server = InProcessCampaignServer.start("auth-campaign", recorder)) {
+            ManagedChannel unauthenticated = server.newChannel(new AuthTokenInterceptor(missing));
+            CompletableFuture<Thread> closedOn = new CompletableFuture<>();
+            ClientCall<GetCampaignRequest, GetCampaignResponse> call =
+                    unauthenticated.newCall(CampaignServiceGrpc.getGetCampaignMethod(), CallOptions.DEFAULT);
+            call.start(new ClientCall.Listener<>() {
+                @Override
+                public void onClose(Status status, Metadata trailers) {
+                    closedOn.complete(Thread.currentThread());
+                }
+            }, new Metadata());
+            assertNotSame(closedOn.get(5, TimeUnit.SECONDS), Thread.currentThread(),
+                    "The failure should not be delivered inline from start");
+
+            CampaignServiceGrpc.newBlockingStub(unauthenticated).getCampaign(request);
+            fail("Call without a token should fail");
+        } catch (StatusRuntimeException e) {
+            assertEquals(e.getStatus().getCode(), Status.Code.UNAUTHENTICATED);
+            assertTrue(received.isEmpty(), "The call should not have reached the server");
+        } finally {
+            missing.close();
+        }
+    }
+}
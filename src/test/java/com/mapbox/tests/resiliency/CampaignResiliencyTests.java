@@ -1,23 +1,56 @@
 package com.mapbox.tests.resiliency;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.mapbox.core.assertions.GrpcResponse;
 import com.mapbox.core.chaos.GrpcFailureSimulator;
+import com.mapbox.core.coalescing.RequestCoalescer;
+import com.mapbox.core.config.ConfigManager;
+import com.mapbox.core.interceptors.ConcurrencyLimitInterceptor;
+import com.mapbox.core.interceptors.RateLimiterInterceptor;
+import com.mapbox.core.interceptors.RetryInterceptor;
+import com.mapbox.core.limit.GradientLimit;
+import com.mapbox.core.retry.HedgingExecutor;
+import com.mapbox.core.retry.HedgingPolicy;
 import com.mapbox.core.retry.ResilienceManager;
+import com.mapbox.core.retry.RetryBudget;
+import com.mapbox.grpc.campaign.CampaignServiceGrpc;
 import com.mapbox.grpc.campaign.GetCampaignRequest;
+import com.mapbox.grpc.campaign.GetCampaignResponse;
+import com.mapbox.mock.InProcessCampaignServer;
 import com.mapbox.testdata.campaign.CampaignRequestBuilder;
 import com.mapbox.testdata.campaign.CampaignTestData;
 import com.mapbox.tests.base.BaseTest;
-import io.grpc.Status;
-import io.grpc.StatusRuntimeException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.grpc.*;
 import io.qameta.allure.*;
 import org.testng.annotations.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import static org.testng.Assert.*;
 
 /**
  * Resiliency tests for Campaign Service
- * Validates retry, timeout, and failure handling
+ * Validates retry, hedging, coalescing, timeout, and failure handling
  */
 @Epic("Campaign Service")
 @Feature("Resiliency")
@@ -43,6 +76,479 @@ public class CampaignResiliencyTests extends BaseTest {
         }
     }
 
+    @Test(description = "Verify RetryInterceptor re-issues calls that fail with UNAVAILABLE")
+    @Story("Retry - Re-issued Attempts")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testRetryInterceptorReissuesUnavailableCalls() throws Exception {
+        // Arrange - a server that rejects every other call with UNAVAILABLE
+        AtomicInteger received = new AtomicInteger();
+        ServerInterceptor flaky = new ServerInterceptor() {
+            @Override
+            public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+                    ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+                if (received.getAndIncrement() % 2 == 0) {
+                    call.close(Status.UNAVAILABLE.withDescription("Injected failure"), new Metadata());
+                    return new ServerCall.Listener<ReqT>() {
+                    };
+                }
+                return next.startCall(call, headers);
+            }
+        };
+        RetryInterceptor retryInterceptor = new RetryInterceptor(3, 5, 50, new RetryBudget(10, 0.1));
+        GetCampaignRequest request = CampaignRequestBuilder.getCampaign()
+                .withCaller(CampaignTestData.PhoneNumbers.VALID_CALLER)
+                .withReceiver(CampaignTestData.PhoneNumbers.VALID_RECEIVER)
+                .withCampaignId(CampaignTestData.CampaignIds.VALID_CAMPAIGN)
+                .build();
+
+        try (InProcessCampaignServer server = InProcessCampaignServer.start("flaky-campaign", flaky)) {
+            ManagedChannel channel = server.newChannel(retryInterceptor);
+            CampaignServiceGrpc.CampaignServiceBlockingStub stub = CampaignServiceGrpc.newBlockingStub(channel);
+            RetryInterceptor.Attempts attempts = new RetryInterceptor.Attempts();
+
+            // Act
+            GetCampaignResponse response = Context.current()
+                    .withValue(RetryInterceptor.ATTEMPTS_KEY, attempts)
+                    .call(() -> stub.getCampaign(request));
+
+            // Assert - the first attempt failed and the retry succeeded
+            assertNotNull(response);
+            assertEquals(attempts.get(), 2, "Call should succeed on its second attempt");
+            assertEquals(retryInterceptor.getRetryCount(), 1);
+            assertEquals(received.get(), 2);
+        }
+    }
+
+    @Test(description = "Verify RetryInterceptor cancels without waiting for an attempt parked in start")
+    @Story("Retry - Cancellation")
+    @Severity(SeverityLevel.NORMAL)
+    public void testRetryInterceptorCancelsWhileAttemptStartIsParked() throws Exception {
+        // Arrange - an inner interceptor whose start parks, as a blocking rate limiter does
+        CountDownLatch parked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ClientInterceptor parking = new ClientInterceptor() {
+            @Override
+            public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+                    MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+                return new ForwardingClientCall.SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
+                    @Override
+                    public void start(Listener<RespT> responseListener, Metadata headers) {
+                        parked.countDown();
+                        try {
+                            release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        super.start(responseListener, headers);
+                    }
+                };
+            }
+        };
+        RetryInterceptor retryInterceptor = new RetryInterceptor(3, 5, 50, new RetryBudget(10, 0.1));
+        GetCampaignRequest request = CampaignRequestBuilder.getCampaign()
+                .withCaller(CampaignTestData.PhoneNumbers.VALID_CALLER)
+                .withReceiver(CampaignTestData.PhoneNumbers.VALID_RECEIVER)
+                .withCampaignId(CampaignTestData.CampaignIds.VALID_CAMPAIGN)
+                .build();
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+
+        try (InProcessCampaignServer server = InProcessCampaignServer.start("parked-campaign")) {
+            ManagedChannel channel = server.newChannel(retryInterceptor, parking);
+            ClientCall<GetCampaignRequest, GetCampaignResponse> call =
+                    channel.newCall(CampaignServiceGrpc.getGetCampaignMethod(), CallOptions.DEFAULT);
+            CompletableFuture<Status> closed = new CompletableFuture<>();
+
+            // Act - the caller parks inside start while another thread cancels
+            caller.execute(() -> {
+                call.start(new ClientCall.Listener<>() {
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        closed.complete(status);
+                    }
+                }, new Metadata());
+                call.request(1);
+                call.sendMessage(request);
+                call.halfClose();
+            });
+            assertTrue(parked.await(5, TimeUnit.SECONDS), "Attempt should reach the parking interceptor");
+            CompletableFuture<Void> cancelled = CompletableFuture.runAsync(() -> call.cancel("Caller gave up", null));
+
+            // Assert - cancel does not wait for the parked start, and the call still closes once it returns
+            cancelled.get(1, TimeUnit.SECONDS);
+            assertFalse(closed.isDone(), "Call cannot close before its attempt has started");
+            release.countDown();
+            Status status = closed.get(5, TimeUnit.SECONDS);
+            assertEquals(status.getCode(), Status.Code.CANCELLED);
+            assertEquals(status.getDescription(), "Caller gave up");
+            assertEquals(retryInterceptor.getRetryCount(), 0, "A cancelled call must not be retried");
+        } finally {
+            release.countDown();
+            caller.shutdownNow();
+        }
+    }
+
+    @Test(description = "Verify the concurrency limiter rejects or queues calls over its limit")
+    @Story("Overload - Concurrency Limit")
+    @Severity(SeverityLevel.NORMAL)
+    public void testConcurrencyLimiterRejectsOrQueuesExcessCalls() throws Exception {
+        // Arrange - a server that holds every call for 200ms
+        ServerInterceptor slow = new ServerInterceptor() {
+            @Override
+            public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+                    ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+                GrpcFailureSimulator.simulateTimeout(200);
+                return next.startCall(call, headers);
+            }
+        };
+        // Limit pinned at one call; the first limiter fails fast, the second queues
+        ConcurrencyLimitInterceptor failFast = new ConcurrencyLimitInterceptor(
+                new GradientLimit(1, 1, 1, 1.5, 0.2), 0, 0);
+        ConcurrencyLimitInterceptor queueing = new ConcurrencyLimitInterceptor(
+                new GradientLimit(1, 1, 1, 1.5, 0.2), 1, 5000);
+        GetCampaignRequest request = CampaignRequestBuilder.getCampaign()
+                .withCaller(CampaignTestData.PhoneNumbers.VALID_CALLER)
+                .withReceiver(CampaignTestData.PhoneNumbers.VALID_RECEIVER)
+                .withCampaignId(CampaignTestData.CampaignIds.VALID_CAMPAIGN)
+                .build();
+
+        try (InProcessCampaignServer server = InProcessCampaignServer.start("slow-campaign", slow)) {
+            ManagedChannel failFastChannel = server.newChannel(failFast);
+            ManagedChannel queueingChannel = server.newChannel(queueing);
+
+            // Act - two concurrent calls through each limiter
+            CampaignServiceGrpc.CampaignServiceFutureStub failFastStub = CampaignServiceGrpc.newFutureStub(failFastChannel);
+            Future<GetCampaignResponse> admitted = failFastStub.getCampaign(request);
+            Future<GetCampaignResponse> overLimit = failFastStub.getCampaign(request);
+
+            CampaignServiceGrpc.CampaignServiceFutureStub queueingStub = CampaignServiceGrpc.newFutureStub(queueingChannel);
+            Future<GetCampaignResponse> first = queueingStub.getCampaign(request);
+            Future<GetCampaignResponse> queued = queueingStub.getCampaign(request);
+            assertEquals(queueing.getQueueDepth(), 1, "Second call should wait in the queue");
+
+            // Assert
+            assertNotNull(admitted.get(5, TimeUnit.SECONDS));
+            try {
+                overLimit.get(5, TimeUnit.SECONDS);
+                fail("Call over the limit should fail fast");
+            } catch (ExecutionException e) {
+                assertEquals(Status.fromThrowable(e.getCause()).getCode(), Status.Code.RESOURCE_EXHAUSTED);
+            }
+            assertEquals(failFast.getRejectedCount(), 1);
+
+            assertNotNull(first.get(5, TimeUnit.SECONDS));
+            assertNotNull(queued.get(5, TimeUnit.SECONDS));
+            assertEquals(queueing.getQueuedCount(), 1);
+            assertEquals(queueing.getInFlight(), 0);
+        }
+    }
+
+    @Test(description = "Verify concurrency limit rejections are delivered off the caller and never retried")
+    @Story("Overload - Concurrency Limit")
+    @Severity(SeverityLevel.NORMAL)
+    public void testConcurrencyLimitRejectionIsNotRetried() throws Exception {
+        // Arrange - a slow server behind a limiter pinned at one call, wrapped in a retrying layer
+        ServerInterceptor slow = new ServerInterceptor() {
+            @Override
+            public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+                    ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+                GrpcFailureSimulator.simulateTimeout(200);
+                return next.startCall(call, headers);
+            }
+        };
+        ConcurrencyLimitInterceptor failFast = new ConcurrencyLimitInterceptor(
+                new GradientLimit(1, 1, 1, 1.5, 0.2), 0, 0);
+        RetryBudget budget = new RetryBudget(10, 0.1);
+        RetryInterceptor retryInterceptor = new RetryInterceptor(3, 5, 50, budget);
+        Map<Status.Code, String> closeThreads = new ConcurrentHashMap<>();
+        ClientInterceptor closeThreadRecorder = new ClientInterceptor() {
+            @Override
+            public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+                    MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+                return new ForwardingClientCall.SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
+                    @Override
+                    public void start(Listener<RespT> responseListener, Metadata headers) {
+                        super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                            @Override
+                            public void onClose(Status status, Metadata trailers) {
+                                closeThreads.put(status.getCode(), Thread.currentThread().getName());
+                                super.onClose(status, trailers);
+                            }
+                        }, headers);
+                    }
+                };
+            }
+        };
+        GetCampaignRequest request = CampaignRequestBuilder.getCampaign()
+                .withCaller(CampaignTestData.PhoneNumbers.VALID_CALLER)
+                .withReceiver(CampaignTestData.PhoneNumbers.VALID_RECEIVER)
+                .withCampaignId(CampaignTestData.CampaignIds.VALID_CAMPAIGN)
+                .build();
+
+        try (InProcessCampaignServer server = InProcessCampaignServer.start("limited-retry-campaign", slow)) {
+            ManagedChannel channel = server.newChannel(closeThreadRecorder, retryInterceptor, failFast);
+            CampaignServiceGrpc.CampaignServiceFutureStub stub = CampaignServiceGrpc.newFutureStub(channel);
+
+            // Act - the second concurrent call finds the only permit taken
+            Future<GetCampaignResponse> admitted = stub.getCampaign(request);
+            Future<GetCampaignResponse> overLimit = stub.getCampaign(request);
+
+            // Assert - rejected once, tagged, closed off the calling thread, and the budget untouched
+            try {
+                overLimit.get(5, TimeUnit.SECONDS);
+                fail("Call over the limit should fail fast");
+            } catch (ExecutionException e) {
+                assertEquals(Status.fromThrowable(e.getCause()).getCode(), Status.Code.RESOURCE_EXHAUSTED);
+                Metadata trailers = Status.trailersFromThrowable(e.getCause());
+                assertNotNull(trailers);
+                assertEquals(trailers.get(ConcurrencyLimitInterceptor.REJECTED), "concurrency-limit");
+            }
+            assertNotNull(admitted.get(5, TimeUnit.SECONDS));
+            assertNotEquals(closeThreads.get(Status.Code.RESOURCE_EXHAUSTED), Thread.currentThread().getName(),
+                    "Rejection should not be delivered inline on the calling thread");
+            assertEquals(failFast.getRejectedCount(), 1);
+            assertEquals(retryInterceptor.getRetryCount(), 0, "A local rejection must not be retried");
+            assertEquals(retryInterceptor.getThrottledCount(), 0);
+            assertEquals(budget.getTokens(), 10.0, 0.0001, "A local rejection must not spend the retry budget");
+        }
+    }
+
+    @Test(description = "Verify per-method rate limits pace or reject calls")
+    @Story("Overload - Rate Limit")
+    @Severity(SeverityLevel.NORMAL)
+    public void testRateLimiterPacesOrRejectsCalls() throws Exception {
+        // Arrange - 20 calls/s (one permit every 50ms) when pacing, 1 call/s when rejecting
+        String methodName = CampaignServiceGrpc.getGetCampaignMethod().getFullMethodName();
+        RateLimiterInterceptor pacing = new RateLimiterInterceptor(
+                Map.of(methodName, 20.0), RateLimiterInterceptor.Mode.BLOCK, Duration.ofSeconds(5));
+        RateLimiterInterceptor rejecting = new RateLimiterInterceptor(
+                Map.of(methodName, 1.0), RateLimiterInterceptor.Mode.REJECT, Duration.ZERO);
+        GetCampaignRequest request = CampaignRequestBuilder.getCampaign()
+                .withCaller(CampaignTestData.PhoneNumbers.VALID_CALLER)
+                .withReceiver(CampaignTestData.PhoneNumbers.VALID_RECEIVER)
+                .withCampaignId(CampaignTestData.CampaignIds.VALID_CAMPAIGN)
+                .build();
+
+        try (InProcessCampaignServer server = InProcessCampaignServer.start("rate-limited-campaign")) {
+            ManagedChannel pacingChannel = server.newChannel(pacing);
+            ManagedChannel rejectingChannel = server.newChannel(rejecting);
+
+            // Act - back-to-back calls through each limiter
+            CampaignServiceGrpc.CampaignServiceBlockingStub pacingStub = CampaignServiceGrpc.newBlockingStub(pacingChannel);
+            long start = System.nanoTime();
+            for (int i = 0; i < 5; i++) {
+                pacingStub.getCampaign(request);
+            }
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // Async callers are paced too, but issuing the calls never parks the calling thread
+            CampaignServiceGrpc.CampaignServiceFutureStub pacingFutureStub = CampaignServiceGrpc.newFutureStub(pacingChannel);
+            long issueStart = System.nanoTime();
+            List<ListenableFuture<GetCampaignResponse>> paced = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                paced.add(pacingFutureStub.getCampaign(request));
+            }
+            long issueMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - issueStart);
+            int delayedAfterIssue = pacing.getDelayedCount();
+            Futures.allAsList(paced).get(5, TimeUnit.SECONDS);
+            long pacedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - issueStart);
+
+            CampaignServiceGrpc.CampaignServiceBlockingStub rejectingStub = CampaignServiceGrpc.newBlockingStub(rejectingChannel);
+            rejectingStub.getCampaign(request);
+            StatusRuntimeException rejection = expectThrows(StatusRuntimeException.class,
+                    () -> rejectingStub.getCampaign(request));
+
+            // Assert - four waits of ~50ms after the first permit, and an immediate rejection
+            assertTrue(elapsedMs >= 150, "Five calls at 20/s should take about 200ms, took " + elapsedMs + "ms");
+            assertTrue(issueMs < 100, "Issuing paced async calls should not park the caller, took " + issueMs + "ms");
+            assertTrue(delayedAfterIssue >= 3, "Calls past the first permit should wait on the scheduler, saw " + delayedAfterIssue);
+            assertTrue(pacedMs >= 150, "Five async calls at 20/s should take about 200ms, took " + pacedMs + "ms");
+            assertEquals(pacing.getDelayedCount(), 0);
+            assertEquals(rejection.getStatus().getCode(), Status.Code.RESOURCE_EXHAUSTED);
+            assertEquals(rejecting.getRejectedCount(methodName), 1);
+        }
+    }
+
+    @Test(description = "Verify hedging sends a second attempt after the delay, cancels the loser and counts both")
+    @Story("Latency - Hedging")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testHedgingRacesSlowAttemptAndCancelsLoser() throws Exception {
+        // Arrange - a server that never answers its first call, and answers every later one at once
+        AtomicInteger received = new AtomicInteger();
+        CountDownLatch loserCancelled = new CountDownLatch(1);
+        AtomicLong hedgeReceivedNanos = new AtomicLong();
+        ServerInterceptor slowFirst = new ServerInterceptor() {
+            @Override
+            public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+                    ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+                int index = received.getAndIncrement();
+                if (index == 0) {
+                    return new ServerCall.Listener<ReqT>() {
+                        @Override
+                        public void onCancel() {
+                            loserCancelled.countDown();
+                        }
+                    };
+                }
+                if (index == 1) {
+                    hedgeReceivedNanos.set(System.nanoTime());
+                }
+                return next.startCall(call, headers);
+            }
+        };
+        String methodName = CampaignServiceGrpc.getGetCampaignMethod().getFullMethodName();
+        HedgingExecutor slowHedging = new HedgingExecutor(hedgingPolicy(methodName, 100));
+        HedgingExecutor fastHedging = new HedgingExecutor(hedgingPolicy(methodName, 200));
+        GetCampaignRequest request = CampaignRequestBuilder.getCampaign()
+                .withCaller(CampaignTestData.PhoneNumbers.VALID_CALLER)
+                .withReceiver(CampaignTestData.PhoneNumbers.VALID_RECEIVER)
+                .withCampaignId(CampaignTestData.CampaignIds.VALID_CAMPAIGN)
+                .build();
+
+        try (InProcessCampaignServer server = InProcessCampaignServer.start("hedged-campaign", slowFirst)) {
+            CampaignServiceGrpc.CampaignServiceFutureStub stub = CampaignServiceGrpc.newFutureStub(server.newChannel());
+
+            // Act - the original attempt hangs, so the hedge sent after 100ms must win
+            long start = System.nanoTime();
+            GrpcResponse<GetCampaignResponse> hedged = slowHedging.execute(
+                    methodName, TimeUnit.MILLISECONDS.toNanos(100), attempt(stub, request)).get(5, TimeUnit.SECONDS);
+
+            // Assert
+            assertTrue(hedged.isSuccess(), "The hedge should succeed: " + hedged.getStatus());
+            assertTrue(hedgeReceivedNanos.get() - start >= TimeUnit.MILLISECONDS.toNanos(100),
+                    "The hedge should not be sent before the delay");
+            assertTrue(loserCancelled.await(5, TimeUnit.SECONDS), "The losing attempt should be cancelled");
+            HedgingExecutor.Stats stats = slowHedging.getStats(methodName);
+            assertEquals(stats.getCalls(), 1);
+            assertEquals(stats.getHedgedCalls(), 1);
+            assertEquals(stats.getHedges(), 1, "The winner should stop the third attempt");
+            assertEquals(stats.getHedgeWins(), 1);
+
+            // Act - a call answered within the delay never hedges
+            GrpcResponse<GetCampaignResponse> fast = fastHedging.execute(
+                    methodName, TimeUnit.MILLISECONDS.toNanos(200), attempt(stub, request)).get(5, TimeUnit.SECONDS);
+            Thread.sleep(300);
+
+            // Assert
+            assertTrue(fast.isSuccess());
+            assertEquals(received.get(), 3, "Only the hedged call should have sent a second attempt");
+            stats = fastHedging.getStats(methodName);
+            assertEquals(stats.getCalls(), 1);
+            assertEquals(stats.getHedgedCalls(), 0);
+            assertEquals(stats.getHedges(), 0);
+            assertEquals(stats.getHedgeWins(), 0);
+        }
+    }
+
+    @Test(description = "Verify identical concurrent requests share one RPC and one response")
+    @Story("Latency - Request Coalescing")
+    @Severity(SeverityLevel.NORMAL)
+    public void testIdenticalConcurrentRequestsShareOneRpc() throws Exception {
+        // Arrange - a server that holds calls until released, so every caller arrives while the RPC is in flight
+        int callers = 8;
+        AtomicInteger received = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ServerInterceptor holding = new ServerInterceptor() {
+            @Override
+            public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+                    ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+                received.incrementAndGet();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return next.startCall(call, headers);
+            }
+        };
+        String methodName = CampaignServiceGrpc.getGetCampaignMethod().getFullMethodName();
+        RequestCoalescer coalescer = new RequestCoalescer(Set.of(methodName));
+        GetCampaignRequest request = CampaignRequestBuilder.getCampaign()
+                .withCaller(CampaignTestData.PhoneNumbers.VALID_CALLER)
+                .withReceiver(CampaignTestData.PhoneNumbers.VALID_RECEIVER)
+                .withCampaignId(CampaignTestData.CampaignIds.VALID_CAMPAIGN)
+                .build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try (InProcessCampaignServer server = InProcessCampaignServer.start("coalesced-campaign", holding)) {
+            CampaignServiceGrpc.CampaignServiceFutureStub stub = CampaignServiceGrpc.newFutureStub(server.newChannel());
+
+            // Act - identical requests from concurrent callers, each with its own copy of the message
+            List<Future<CompletableFuture<GrpcResponse<GetCampaignResponse>>>> submitted = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                submitted.add(executor.submit(() -> coalescer.execute(
+                        methodName, request.toBuilder().build(), attempt(stub, request))));
+            }
+            List<CompletableFuture<GrpcResponse<GetCampaignResponse>>> calls = new ArrayList<>();
+            for (Future<CompletableFuture<GrpcResponse<GetCampaignResponse>>> future : submitted) {
+                calls.add(future.get(5, TimeUnit.SECONDS));
+            }
+            release.countDown();
+
+            // Assert - one RPC, and every caller holds the very same response
+            GrpcResponse<GetCampaignResponse> first = calls.get(0).get(5, TimeUnit.SECONDS);
+            assertTrue(first.isSuccess());
+            for (CompletableFuture<GrpcResponse<GetCampaignResponse>> call : calls) {
+                assertSame(call.get(5, TimeUnit.SECONDS), first, "Coalesced callers should share one response");
+            }
+            assertEquals(received.get(), 1, "Only one RPC should reach the server");
+
+            RequestCoalescer.Stats stats = coalescer.getStats(methodName);
+            assertEquals(stats.getRequests(), callers);
+            assertEquals(stats.getRpcs(), 1);
+            assertEquals(stats.getCoalesced(), callers - 1);
+            assertEquals(stats.getCoalescingRatio(), (callers - 1) * 100.0 / callers, 0.001);
+
+            // A request arriving after the shared RPC completed starts a new one
+            assertTrue(coalescer.execute(methodName, request, attempt(stub, request)).get(5, TimeUnit.SECONDS).isSuccess());
+            assertEquals(received.get(), 2);
+            assertEquals(coalescer.getStats(methodName).getRpcs(), 2);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(description = "Verify per-method circuit breakers and bulkheads isolate failing methods")
+    @Story("Overload - Circuit Breaker and Bulkhead")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testPerMethodCircuitBreakerAndBulkhead() {
+        // Arrange
+        ResilienceManager resilienceManager = new ResilienceManager();
+        String getCampaign = CampaignServiceGrpc.getGetCampaignMethod().getFullMethodName();
+        String listCampaigns = CampaignServiceGrpc.getListCampaignsMethod().getFullMethodName();
+        int minCalls = ConfigManager.getConfig().circuitBreakerMinCalls();
+
+        // Act - enough UNAVAILABLE outcomes to open the GetCampaign breaker
+        for (int i = 0; i < minCalls; i++) {
+            resilienceManager.executeAsync(CampaignServiceGrpc.getGetCampaignMethod(),
+                    () -> CompletableFuture.completedFuture(
+                            GrpcResponse.<GetCampaignResponse>failure(Status.UNAVAILABLE, 0))).join();
+        }
+        GrpcResponse<GetCampaignResponse> shortCircuited = resilienceManager.executeAsync(
+                CampaignServiceGrpc.getGetCampaignMethod(),
+                () -> { throw new AssertionError("Call must not start while the breaker is open"); }).join();
+
+        // Hold ListCampaigns' bulkhead full with calls that have not completed
+        int maxConcurrent = resilienceManager.getBulkhead(listCampaigns).getBulkheadConfig().getMaxConcurrentCalls();
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        for (int i = 0; i < maxConcurrent; i++) {
+            resilienceManager.executeAsync(listCampaigns, () -> pending);
+        }
+        CompletableFuture<String> overflow = resilienceManager.executeAsync(listCampaigns,
+                () -> CompletableFuture.completedFuture("admitted")).toCompletableFuture();
+        pending.complete("done");
+        String afterRelease = resilienceManager.executeAsync(listCampaigns,
+                () -> CompletableFuture.completedFuture("admitted")).toCompletableFuture().join();
+
+        // Assert - GetCampaign fails fast while ListCampaigns keeps its own closed breaker
+        assertEquals(resilienceManager.getCircuitBreaker(getCampaign).getState(), CircuitBreaker.State.OPEN);
+        assertEquals(shortCircuited.getStatus().getCode(), Status.Code.UNAVAILABLE);
+        assertEquals(resilienceManager.getCircuitBreaker(listCampaigns).getState(), CircuitBreaker.State.CLOSED);
+        ExecutionException rejection = expectThrows(ExecutionException.class, overflow::get);
+        assertTrue(rejection.getCause() instanceof BulkheadFullException);
+        assertEquals(afterRelease, "admitted");
+    }
+
     @Test(description = "Verify deadline exceeded handling")
     @Story("Timeout - Deadline Exceeded")
     @Severity(SeverityLevel.CRITICAL)
@@ -130,5 +636,40 @@ public class CampaignResiliencyTests extends BaseTest {
             );
         }
     }
-}
 
+    private static HedgingPolicy hedgingPolicy(String methodName, long delayMs) {
+        return HedgingPolicy.builder()
+                .methods(Set.of(methodName))
+                .maxAttempts(3)
+                .delayMs(delayMs)
+                .build();
+    }
+
+    /**
+     * One attempt on a future stub, as hedging and coalescing start them; cancelling it cancels the RPC
+     */
+    private static Supplier<CompletableFuture<GrpcResponse<GetCampaignResponse>>> attempt(
+            CampaignServiceGrpc.CampaignServiceFutureStub stub, GetCampaignRequest request) {
+        return () -> {
+            ListenableFuture<GetCampaignResponse> call = stub.getCampaign(request);
+            CompletableFuture<GrpcResponse<GetCampaignResponse>> result = new CompletableFuture<>();
+            Futures.addCallback(call, new FutureCallback<GetCampaignResponse>() {
+                @Override
+                public void onSuccess(GetCampaignResponse response) {
+                    result.complete(GrpcResponse.success(response, 0));
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    result.complete(GrpcResponse.failure(Status.fromThrowable(t), 0));
+                }
+            }, MoreExecutors.directExecutor());
+            result.whenComplete((response, error) -> {
+                if (result.isCancelled()) {
+                    call.cancel(true);
+                }
+            });
+            return result;
+        };
+    }
+}